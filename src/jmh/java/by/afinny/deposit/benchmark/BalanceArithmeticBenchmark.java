@@ -0,0 +1,96 @@
+package by.afinny.deposit.benchmark;
+
+import by.afinny.deposit.entity.Card;
+import by.afinny.deposit.entity.Operation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code BigDecimal} reductions over balances: the sum of the card balances of an account, as the reconciliation
+ * compares it with the account balance, and the balance after a list of debit and credit operations. The
+ * unscaled variants sum the amounts as {@code long} minor units and show what the {@code BigDecimal}
+ * arithmetic costs on top.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BalanceArithmeticBenchmark {
+
+    private static final int SCALE = 2;
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<Card> cards;
+    private List<Operation> operations;
+    private BigDecimal openingBalance;
+
+    @Setup
+    public void setUp() {
+        cards = BenchmarkData.cards(size);
+        operations = BenchmarkData.operations(size);
+        openingBalance = new BigDecimal("1000000.00");
+    }
+
+    @Benchmark
+    public BigDecimal sumCardBalancesStream() {
+        return cards.stream()
+                .map(Card::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal sumCardBalancesLoop() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (Card card : cards) {
+            sum = sum.add(card.getBalance());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public BigDecimal sumCardBalancesUnscaled() {
+        long sum = 0;
+        for (Card card : cards) {
+            sum = Math.addExact(sum, card.getBalance().setScale(SCALE).unscaledValue().longValueExact());
+        }
+        return BigDecimal.valueOf(sum, SCALE);
+    }
+
+    @Benchmark
+    public BigDecimal applyOperations() {
+        BigDecimal balance = openingBalance;
+        for (Operation operation : operations) {
+            balance = operation.getType().getDebit()
+                    ? balance.subtract(operation.getSum())
+                    : balance.add(operation.getSum());
+        }
+        return balance;
+    }
+
+    @Benchmark
+    public BigDecimal applyOperationsUnscaled() {
+        long balance = openingBalance.unscaledValue().longValueExact();
+        for (Operation operation : operations) {
+            long sum = operation.getSum().setScale(SCALE).unscaledValue().longValueExact();
+            balance = operation.getType().getDebit() ? balance - sum : balance + sum;
+        }
+        return BigDecimal.valueOf(balance, SCALE);
+    }
+}
@@ -0,0 +1,218 @@
+package by.afinny.deposit.benchmark;
+
+import by.afinny.deposit.dto.ProductDto;
+import by.afinny.deposit.entity.Account;
+import by.afinny.deposit.entity.Agreement;
+import by.afinny.deposit.entity.Card;
+import by.afinny.deposit.entity.CardProduct;
+import by.afinny.deposit.entity.Operation;
+import by.afinny.deposit.entity.OperationType;
+import by.afinny.deposit.entity.Product;
+import by.afinny.deposit.entity.constant.CardStatus;
+import by.afinny.deposit.entity.constant.CurrencyCode;
+import by.afinny.deposit.entity.constant.DigitalWallet;
+import by.afinny.deposit.entity.constant.PaymentSystem;
+import by.afinny.deposit.entity.constant.SchemaName;
+import by.afinny.deposit.repository.projection.AccountWithCardInfoView;
+import by.afinny.deposit.repository.projection.ActiveDepositView;
+import by.afinny.deposit.repository.projection.ViewCardView;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Fixtures of the benchmarks. Values are drawn from a fixed seed, so that every run measures the same data.
+ */
+final class BenchmarkData {
+
+    private static final long SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    static List<Card> cards(int size) {
+        Random random = new Random(SEED);
+        Account account = account(random);
+        CardProduct cardProduct = CardProduct.builder()
+                .id(1)
+                .cardName("Debit card")
+                .paymentSystem(PaymentSystem.VISA)
+                .currencyCode(CurrencyCode.RUB)
+                .build();
+        List<Card> cards = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cards.add(Card.builder()
+                    .id(UUID.randomUUID())
+                    .cardNumber(String.format("%016d", random.nextLong() & Long.MAX_VALUE).substring(0, 16))
+                    .transactionLimit(amount(random))
+                    .expirationDate(LocalDate.of(2027, 1, 1))
+                    .holderName("IVAN IVANOV")
+                    .status(CardStatus.ACTIVE)
+                    .digitalWallet(DigitalWallet.APPLEPAY)
+                    .isDefault(i == 0)
+                    .balance(amount(random))
+                    .cardProduct(cardProduct)
+                    .account(account)
+                    .build());
+        }
+        account.setCards(cards);
+        return cards;
+    }
+
+    /**
+     * Rows of the cards of the active accounts query, as projection proxies like {@link #activeDeposits(int)}.
+     */
+    static List<AccountWithCardInfoView> accountsWithCardInfo(int size) {
+        ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        List<AccountWithCardInfoView> accountsWithCardInfo = new ArrayList<>(size);
+        for (Card card : cards(size)) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("cardId", card.getId());
+            row.put("cardNumber", card.getCardNumber());
+            row.put("expirationDate", card.getExpirationDate());
+            row.put("cardName", card.getCardProduct().getCardName());
+            row.put("paymentSystem", card.getCardProduct().getPaymentSystem());
+            row.put("currencyCode", card.getAccount().getCurrencyCode());
+            row.put("cardBalance", card.getBalance());
+            accountsWithCardInfo.add(projectionFactory.createProjection(AccountWithCardInfoView.class, row));
+        }
+        return accountsWithCardInfo;
+    }
+
+    /**
+     * Rows of the card view query, as projection proxies like {@link #activeDeposits(int)}.
+     */
+    static List<ViewCardView> viewCards(int size) {
+        ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        List<ViewCardView> viewCards = new ArrayList<>(size);
+        for (Card card : cards(size)) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("cardId", card.getId());
+            row.put("holderName", card.getHolderName());
+            row.put("status", card.getStatus());
+            row.put("cardNumber", card.getCardNumber());
+            row.put("expirationDate", card.getExpirationDate());
+            row.put("cardName", card.getCardProduct().getCardName());
+            row.put("paymentSystem", card.getCardProduct().getPaymentSystem());
+            row.put("currencyCode", card.getAccount().getCurrencyCode());
+            row.put("cardBalance", card.getBalance());
+            row.put("accountId", card.getAccount().getId());
+            row.put("accountNumber", card.getAccount().getAccountNumber());
+            viewCards.add(projectionFactory.createProjection(ViewCardView.class, row));
+        }
+        return viewCards;
+    }
+
+    static List<Agreement> agreements(int size) {
+        Random random = new Random(SEED);
+        Account account = cards(2).get(0).getAccount();
+        Product product = Product.builder()
+                .id(1)
+                .name("Deposit")
+                .currencyCode(CurrencyCode.RUB)
+                .schemaName(SchemaName.FIXED)
+                .isCapitalization(true)
+                .isRevocable(true)
+                .build();
+        List<Agreement> agreements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            agreements.add(Agreement.builder()
+                    .id(UUID.randomUUID())
+                    .number("AG-" + i)
+                    .interestRate(new BigDecimal("7.50"))
+                    .startDate(LocalDateTime.of(2023, 1, 1, 12, 0))
+                    .endDate(LocalDateTime.of(2024, 1, 1, 12, 0))
+                    .initialAmount(amount(random))
+                    .currentBalance(amount(random))
+                    .isActive(true)
+                    .autoRenewal(false)
+                    .account(account)
+                    .product(product)
+                    .build());
+        }
+        return agreements;
+    }
+
+    /**
+     * Rows of the active deposits query as Spring Data hands them out: projection proxies over the query tuples.
+     */
+    static List<ActiveDepositView> activeDeposits(int size) {
+        ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        List<ActiveDepositView> activeDeposits = new ArrayList<>(size);
+        for (Agreement agreement : agreements(size)) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("agreementId", agreement.getId());
+            row.put("startDate", agreement.getStartDate());
+            row.put("endDate", agreement.getEndDate());
+            row.put("currentBalance", agreement.getCurrentBalance());
+            row.put("productName", agreement.getProduct().getName());
+            row.put("currencyCode", agreement.getProduct().getCurrencyCode());
+            row.put("cardNumber", agreement.getAccount().getCards().get(0).getCardNumber());
+            activeDeposits.add(projectionFactory.createProjection(ActiveDepositView.class, row));
+        }
+        return activeDeposits;
+    }
+
+    static List<Operation> operations(int size) {
+        Random random = new Random(SEED);
+        OperationType debit = OperationType.builder().id(1).type("PAYMENT").debit(true).build();
+        OperationType credit = OperationType.builder().id(2).type("REPLENISHMENT").debit(false).build();
+        List<Operation> operations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            operations.add(Operation.builder()
+                    .id(UUID.randomUUID())
+                    .completedAt(LocalDateTime.of(2023, 3, 1, 12, 0).plusMinutes(i))
+                    .sum(amount(random))
+                    .currencyCode(CurrencyCode.RUB)
+                    .type(random.nextBoolean() ? debit : credit)
+                    .build());
+        }
+        return operations;
+    }
+
+    static List<ProductDto> products(int size) {
+        List<ProductDto> products = new ArrayList<>(size);
+        for (int id = 0; id < size; id++) {
+            products.add(ProductDto.builder()
+                    .id(id)
+                    .name("Deposit " + id)
+                    .minInterestRate(new BigDecimal("3.50"))
+                    .maxInterestRate(new BigDecimal("7.25"))
+                    .interestRateEarly(new BigDecimal("0.01"))
+                    .currencyCode(CurrencyCode.values()[id % CurrencyCode.values().length])
+                    .isRevocable(id % 2 == 0)
+                    .schemaName(SchemaName.FIXED)
+                    .isCapitalization(true)
+                    .minDurationMonths(3)
+                    .maxDurationMonths(36)
+                    .amountMin(new BigDecimal("1000.00"))
+                    .amountMax(new BigDecimal("1000000.00"))
+                    .build());
+        }
+        return products;
+    }
+
+    static BigDecimal amount(Random random) {
+        return BigDecimal.valueOf(random.nextInt(10_000_000), 2);
+    }
+
+    private static Account account(Random random) {
+        return Account.builder()
+                .id(UUID.randomUUID())
+                .accountNumber("40817810000000000001")
+                .clientId(UUID.randomUUID())
+                .currentBalance(amount(random))
+                .currencyCode(CurrencyCode.RUB)
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package by.afinny.deposit.benchmark;
+
+import by.afinny.deposit.config.redis.SmileRedisSerializer;
+import by.afinny.deposit.dto.ProductDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode and encode of the cached deposit product catalog in the Smile format of the cache and in the JDK
+ * serialization that {@code RedisCacheConfiguration.defaultCacheConfig()} used before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CatalogCacheSerializationBenchmark {
+
+    @Param({"50"})
+    private int size;
+
+    private final RedisSerializer<Object> jdkSerializer = new JdkSerializationRedisSerializer();
+    private final RedisSerializer<List<ProductDto>> smileSerializer = SmileRedisSerializer.listOf(ProductDto.class);
+
+    private List<ProductDto> products;
+    private byte[] jdkPayload;
+    private byte[] smilePayload;
+
+    @Setup
+    public void setUp() {
+        products = BenchmarkData.products(size);
+        jdkPayload = jdkSerializer.serialize(products);
+        smilePayload = smileSerializer.serialize(products);
+    }
+
+    @Benchmark
+    public Object jdkDecode() {
+        return jdkSerializer.deserialize(jdkPayload);
+    }
+
+    @Benchmark
+    public List<ProductDto> smileDecode() {
+        return smileSerializer.deserialize(smilePayload);
+    }
+
+    @Benchmark
+    public byte[] jdkEncode() {
+        return jdkSerializer.serialize(products);
+    }
+
+    @Benchmark
+    public byte[] smileEncode() {
+        return smileSerializer.serialize(products);
+    }
+}
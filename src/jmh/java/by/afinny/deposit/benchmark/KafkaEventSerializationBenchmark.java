@@ -0,0 +1,111 @@
+package by.afinny.deposit.benchmark;
+
+import by.afinny.deposit.dto.kafka.CardEvent;
+import by.afinny.deposit.dto.kafka.ConsumerNewCardEvent;
+import by.afinny.deposit.dto.kafka.ConsumerWithdrawEvent;
+import by.afinny.deposit.dto.kafka.ProducerWithdrawEvent;
+import by.afinny.deposit.entity.OperationType;
+import by.afinny.deposit.entity.constant.CardStatus;
+import by.afinny.deposit.entity.constant.CurrencyCode;
+import by.afinny.deposit.entity.constant.DigitalWallet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kafka events through the same {@link JsonSerializer} and {@link JsonDeserializer} as the producers and
+ * listeners. The listeners ignore type headers and read every topic as its default type, and so do the
+ * deserializers here.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KafkaEventSerializationBenchmark {
+
+    private static final String TOPIC = "benchmark";
+
+    private JsonSerializer<Object> serializer;
+    private JsonDeserializer<ConsumerWithdrawEvent> withdrawEventDeserializer;
+    private JsonDeserializer<ConsumerNewCardEvent> newCardEventDeserializer;
+
+    private ProducerWithdrawEvent producerWithdrawEvent;
+    private CardEvent cardEvent;
+    private byte[] consumerWithdrawEvent;
+    private byte[] consumerNewCardEvent;
+
+    @Setup
+    public void setUp() {
+        serializer = new JsonSerializer<>();
+        withdrawEventDeserializer = new JsonDeserializer<>(ConsumerWithdrawEvent.class, false);
+        newCardEventDeserializer = new JsonDeserializer<>(ConsumerNewCardEvent.class, false);
+
+        producerWithdrawEvent = new ProducerWithdrawEvent(UUID.randomUUID(), "40817810000000000001");
+        cardEvent = new CardEvent(UUID.randomUUID(), CardStatus.BLOCKED);
+        consumerWithdrawEvent = serializer.serialize(TOPIC, ConsumerWithdrawEvent.builder()
+                .agreementId(UUID.randomUUID())
+                .accountNumber("40817810000000000001")
+                .isActive(false)
+                .currentBalance(new BigDecimal("125000.50"))
+                .completedAt("2023-03-01T12:00:00")
+                .sum(new BigDecimal("125000.50"))
+                .currencyCode(CurrencyCode.RUB)
+                .type(OperationType.builder().id(3).type("EARLY_WITHDRAWAL").debit(true).build())
+                .build());
+        consumerNewCardEvent = serializer.serialize(TOPIC, ConsumerNewCardEvent.builder()
+                .accountNumber("40817810000000000001")
+                .cardNumber("1111222233334444")
+                .transactionLimit(new BigDecimal("100000.00"))
+                .status(CardStatus.ACTIVE)
+                .expirationDate(LocalDate.of(2027, 1, 1))
+                .holderName("IVAN IVANOV")
+                .digitalWallet(DigitalWallet.SAMSUNGPAY)
+                .cardProductId(1)
+                .balance(BigDecimal.ZERO)
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        withdrawEventDeserializer.close();
+        newCardEventDeserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serializeProducerWithdrawEvent() {
+        return serializer.serialize(TOPIC, producerWithdrawEvent);
+    }
+
+    @Benchmark
+    public byte[] serializeCardEvent() {
+        return serializer.serialize(TOPIC, cardEvent);
+    }
+
+    @Benchmark
+    public ConsumerWithdrawEvent deserializeConsumerWithdrawEvent() {
+        return withdrawEventDeserializer.deserialize(TOPIC, consumerWithdrawEvent);
+    }
+
+    @Benchmark
+    public ConsumerNewCardEvent deserializeConsumerNewCardEvent() {
+        return newCardEventDeserializer.deserialize(TOPIC, consumerNewCardEvent);
+    }
+}
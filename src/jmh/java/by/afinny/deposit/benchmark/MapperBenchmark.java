@@ -0,0 +1,78 @@
+package by.afinny.deposit.benchmark;
+
+import by.afinny.deposit.dto.AccountWithCardInfoDto;
+import by.afinny.deposit.dto.ActiveDepositDto;
+import by.afinny.deposit.mapper.AccountMapper;
+import by.afinny.deposit.mapper.AccountMapperImpl;
+import by.afinny.deposit.mapper.CardMapper;
+import by.afinny.deposit.mapper.CardMapperImpl;
+import by.afinny.deposit.mapper.DepositMapper;
+import by.afinny.deposit.mapper.DepositMapperImpl;
+import by.afinny.deposit.repository.projection.AccountWithCardInfoView;
+import by.afinny.deposit.repository.projection.ActiveDepositView;
+import by.afinny.deposit.repository.projection.ViewCardView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mappers behind the account, deposit and card views, measured per list of the sizes the views return.
+ * Every view is mapped from the projections its query returns ({@code findCardInfoByActiveAccountsOfClient},
+ * {@code findActiveDepositsByClientId}, {@code findViewCardByAccountClientIdAndId}), so every getter goes through
+ * the projection proxy as in production.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int size;
+
+    private final AccountMapper accountMapper = new AccountMapperImpl();
+    private final DepositMapper depositMapper = new DepositMapperImpl();
+    private final CardMapper cardMapper = new CardMapperImpl();
+
+    private List<AccountWithCardInfoView> accountsWithCardInfo;
+    private List<ActiveDepositView> activeDeposits;
+    private List<ViewCardView> viewCards;
+
+    @Setup
+    public void setUp() {
+        accountsWithCardInfo = BenchmarkData.accountsWithCardInfo(size);
+        activeDeposits = BenchmarkData.activeDeposits(size);
+        viewCards = BenchmarkData.viewCards(size);
+    }
+
+    @Benchmark
+    public List<AccountWithCardInfoDto> viewsToAccountsWithCardsDto() {
+        return accountMapper.viewsToAccountsWithCardsDto(accountsWithCardInfo);
+    }
+
+    @Benchmark
+    public List<ActiveDepositDto> viewsToActiveDepositsDto() {
+        return depositMapper.viewsToActiveDepositsDto(activeDeposits);
+    }
+
+    @Benchmark
+    public void toViewCardDto(Blackhole blackhole) {
+        for (ViewCardView viewCard : viewCards) {
+            blackhole.consume(cardMapper.toViewCardDto(viewCard));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package by.afinny.deposit.config.account;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account.reconciliation")
+public class AccountReconciliationProperties {
+
+    private boolean enabled;
+    private int batchSize = 500;
+    private boolean repair;
+}
@@ -0,0 +1,15 @@
+package by.afinny.deposit.config.cache;
+
+/**
+ * Tells the other instances that an entry of the shared cache changed, so they drop their near-cache copy.
+ */
+public interface CacheInvalidationPublisher {
+
+    CacheInvalidationPublisher NONE = (cacheName, key) -> {
+    };
+
+    /**
+     * @param key the changed key or null if the whole cache was cleared
+     */
+    void publish(String cacheName, Object key);
+}
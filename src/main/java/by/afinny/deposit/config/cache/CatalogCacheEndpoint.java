@@ -0,0 +1,35 @@
+package by.afinny.deposit.config.cache;
+
+import by.afinny.deposit.service.CatalogCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint over the shared product catalogs: writing to {@code /actuator/catalogcache} reloads them from
+ * the database, deleting it evicts them. It is an operator tool, so prod exposes it over JMX only and keeps it out
+ * of the web exposure.
+ */
+@Component
+@Endpoint(id = "catalogcache")
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogCacheEndpoint {
+
+    private final CatalogCacheService catalogCacheService;
+
+    @WriteOperation
+    public void refresh() {
+        log.info("refresh() method invoke");
+        catalogCacheService.refreshCatalogs();
+    }
+
+    @DeleteOperation
+    public void evict() {
+        log.info("evict() method invoke");
+        catalogCacheService.evictCatalogs();
+    }
+}
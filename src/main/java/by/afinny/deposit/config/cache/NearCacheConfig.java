@@ -0,0 +1,42 @@
+package by.afinny.deposit.config.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.UUID;
+
+@Configuration
+@ConditionalOnProperty(name = "cache.near.invalidation.enabled", havingValue = "true")
+public class NearCacheConfig {
+
+    private final String origin = UUID.randomUUID().toString();
+
+    @Bean
+    public RedisCacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate redisTemplate,
+                                                                      ObjectMapper objectMapper,
+                                                                      NearCacheProperties nearCacheProperties,
+                                                                      TwoLevelCacheManager cacheManager) {
+        RedisCacheInvalidationPublisher publisher = new RedisCacheInvalidationPublisher(
+                redisTemplate, objectMapper, nearCacheProperties.getInvalidation().getChannel(), origin);
+        cacheManager.setInvalidationPublisher(publisher);
+        return publisher;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            ObjectMapper objectMapper,
+                                                                            NearCacheProperties nearCacheProperties,
+                                                                            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new RedisCacheInvalidationListener(cacheManager, objectMapper, origin),
+                new ChannelTopic(nearCacheProperties.getInvalidation().getChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,24 @@
+package by.afinny.deposit.config.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache.near")
+public class NearCacheProperties {
+
+    private long maximumSize = 1000;
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+    private Invalidation invalidation = new Invalidation();
+
+    @Getter
+    @Setter
+    public static class Invalidation {
+        private boolean enabled;
+        private String channel = "deposit:cache-invalidation";
+    }
+}
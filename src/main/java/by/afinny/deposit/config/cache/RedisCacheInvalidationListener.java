@@ -0,0 +1,37 @@
+package by.afinny.deposit.config.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.io.IOException;
+
+/**
+ * Evicts near-cache entries that were changed by other instances.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisCacheInvalidationListener implements MessageListener {
+
+    private final TwoLevelCacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final String origin;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("Skipping unreadable cache invalidation message", e);
+            return;
+        }
+        if (origin.equals(invalidation.getOrigin())) {
+            return;
+        }
+        log.debug("Evicting near-cache entry {}", invalidation);
+        cacheManager.evictLocal(invalidation.getCacheName(), invalidation.getKey());
+    }
+}
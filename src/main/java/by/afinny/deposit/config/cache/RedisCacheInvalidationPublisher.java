@@ -0,0 +1,32 @@
+package by.afinny.deposit.config.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Broadcasts near-cache invalidations over a Redis pub/sub channel.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisCacheInvalidationPublisher implements CacheInvalidationPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String origin;
+
+    @Override
+    public void publish(String cacheName, Object key) {
+        CacheInvalidationMessage message = new CacheInvalidationMessage(
+                origin, cacheName, key != null ? String.valueOf(key) : null);
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // other instances fall back to the near-cache TTL, the shared cache is already up to date
+            log.warn("Failed to publish cache invalidation {}", message, e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package by.afinny.deposit.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache that reads through an in-process near-cache (L1) to the shared cache (L2). Writes go to both levels
+ * and are announced to the other instances, which evict their L1 copy and read the new value from L2.
+ * Values loaded on a miss through {@link #get(Object, Callable)} or {@link #putIfAbsent(Object, Object)} are only
+ * populated: they are what any other instance would have loaded, and announcing them would evict the copies the
+ * other instances have just read. {@code @Cacheable} methods therefore use {@code sync = true}, so that a miss
+ * comes here rather than through {@link #put(Object, Object)}, which is left to {@code @CachePut}. The load is
+ * serialized per key through the near-cache, so an expired entry is loaded once per instance, not by every
+ * concurrent miss.
+ */
+public class TwoLevelCache implements Cache {
+
+    static final String GETS_METRIC = "cache.level.gets";
+
+    private final Cache localCache;
+    private final Cache sharedCache;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+
+    public TwoLevelCache(Cache localCache, Cache sharedCache, CacheInvalidationPublisher invalidationPublisher,
+                         MeterRegistry meterRegistry) {
+        this.localCache = localCache;
+        this.sharedCache = sharedCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.localHits = counter(meterRegistry, "l1", "hit");
+        this.localMisses = counter(meterRegistry, "l1", "miss");
+        this.sharedHits = counter(meterRegistry, "l2", "hit");
+        this.sharedMisses = counter(meterRegistry, "l2", "miss");
+    }
+
+    @Override
+    public String getName() {
+        return sharedCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = localCache.get(key);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+        localMisses.increment();
+        value = sharedCache.get(key);
+        if (value == null) {
+            sharedMisses.increment();
+            return null;
+        }
+        sharedHits.increment();
+        localCache.put(key, value.get());
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        Object cached = value != null ? value.get() : null;
+        if (cached != null && type != null && !type.isInstance(cached)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + cached);
+        }
+        return (T) cached;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = get(key);
+        if (value != null) {
+            return (T) value.get();
+        }
+        return localCache.get(key, () -> loadShared(key, valueLoader));
+    }
+
+    /**
+     * Runs under the near-cache lock of the key, so that concurrent misses of an instance load the value once.
+     * The shared cache is checked again, another instance may have loaded the value in the meantime.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T loadShared(Object key, Callable<T> valueLoader) throws Exception {
+        ValueWrapper shared = sharedCache.get(key);
+        if (shared != null) {
+            return (T) shared.get();
+        }
+        T loaded = valueLoader.call();
+        sharedCache.put(key, loaded);
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        sharedCache.put(key, value);
+        localCache.put(key, value);
+        invalidationPublisher.publish(getName(), key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = sharedCache.putIfAbsent(key, value);
+        localCache.put(key, existing == null ? value : existing.get());
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        sharedCache.evict(key);
+        localCache.evict(key);
+        invalidationPublisher.publish(getName(), key);
+    }
+
+    @Override
+    public void clear() {
+        sharedCache.clear();
+        localCache.clear();
+        invalidationPublisher.publish(getName(), null);
+    }
+
+    /**
+     * Drops the near-cache copy after another instance changed the entry, keys are compared by their string form.
+     */
+    void evictLocal(String key) {
+        if (key == null) {
+            localCache.clear();
+            return;
+        }
+        Object nativeCache = localCache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache) {
+            ((com.github.benmanes.caffeine.cache.Cache<?, ?>) nativeCache).asMap().keySet()
+                    .removeIf(localKey -> Objects.equals(String.valueOf(localKey), key));
+        } else {
+            localCache.clear();
+        }
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String level, String result) {
+        return Counter.builder(GETS_METRIC)
+                .description("Cache lookups per cache level")
+                .tag("cache", getName())
+                .tag("level", level)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,76 @@
+package by.afinny.deposit.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Puts a bounded Caffeine near-cache in front of every cache of the shared cache manager.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager sharedCacheManager;
+    private final NearCacheProperties nearCacheProperties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private volatile CacheInvalidationPublisher invalidationPublisher = CacheInvalidationPublisher.NONE;
+
+    public TwoLevelCacheManager(CacheManager sharedCacheManager, NearCacheProperties nearCacheProperties,
+                                MeterRegistry meterRegistry) {
+        this.sharedCacheManager = sharedCacheManager;
+        this.nearCacheProperties = nearCacheProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void setInvalidationPublisher(CacheInvalidationPublisher invalidationPublisher) {
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache sharedCache = sharedCacheManager.getCache(name);
+        if (sharedCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new TwoLevelCache(
+                createLocalCache(cacheName), sharedCache, this::publish, meterRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return sharedCacheManager.getCacheNames();
+    }
+
+    /**
+     * Drops the near-cache entry of one instance without touching the shared cache.
+     *
+     * @param key the string form of the key or null to clear the whole near-cache
+     */
+    public void evictLocal(String cacheName, String key) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+
+    private void publish(String cacheName, Object key) {
+        invalidationPublisher.publish(cacheName, key);
+    }
+
+    private Cache createLocalCache(String name) {
+        return new CaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(nearCacheProperties.getMaximumSize())
+                .expireAfterWrite(nearCacheProperties.getExpireAfterWrite())
+                .build());
+    }
+}
@@ -0,0 +1,83 @@
+package by.afinny.deposit.config.execution;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opt-in execution mode, see {@link ExecutionMode}. Tomcat hands the requests to the executor of the mode, and
+ * the DataSource is gated by a semaphore matching the pool size, so that the extra concurrency goes to the calls
+ * that don't need a connection (user service, Redis) rather than to a longer wait inside Hikari.
+ * The {@code @EventListener} sources only write to the outbox within the transaction of the caller or hand the
+ * record to the asynchronous producer, so they stay synchronous and run on the same request thread.
+ */
+@Configuration
+@ConditionalOnExpression("!'${execution.mode:platform}'.equalsIgnoreCase('platform')")
+@EnableConfigurationProperties(ExecutionProperties.class)
+@Slf4j
+public class ExecutionConfig {
+
+    public static final String AVAILABLE_PERMITS_METRIC = "db.bulkhead.available.permits";
+    public static final String WAITING_THREADS_METRIC = "db.bulkhead.waiting.threads";
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService requestExecutor(ExecutionProperties properties) {
+        log.info("Handling requests in the " + properties.getMode() + " execution mode");
+        return RequestExecutors.create(properties.getMode(), properties.getBounded());
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> requestExecutorCustomizer(ExecutorService requestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(ObjectProvider<ExecutionProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                ExecutionProperties.Database database = properties.getObject().getDatabase();
+                Integer permits = database.getPermits();
+                if (permits == null && bean instanceof HikariDataSource) {
+                    permits = ((HikariDataSource) bean).getMaximumPoolSize();
+                }
+                if (permits == null) {
+                    log.warn("DataSource " + beanName + " is not gated, set execution.database.permits");
+                    return bean;
+                }
+                return new ConcurrencyLimitingDataSource((DataSource) bean, permits, database.getAcquireTimeout());
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder databaseBulkheadMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(ConcurrencyLimitingDataSource.class::isInstance)
+                .map(ConcurrencyLimitingDataSource.class::cast)
+                .findFirst()
+                .ifPresent(dataSource -> {
+                    Gauge.builder(AVAILABLE_PERMITS_METRIC, dataSource, ConcurrencyLimitingDataSource::getAvailablePermits)
+                            .description("Connections that can be taken without waiting")
+                            .register(registry);
+                    Gauge.builder(WAITING_THREADS_METRIC, dataSource, ConcurrencyLimitingDataSource::getWaitingThreads)
+                            .description("Threads waiting for a connection permit")
+                            .register(registry);
+                });
+    }
+}
@@ -0,0 +1,24 @@
+package by.afinny.deposit.config.execution;
+
+/**
+ * Threads that handle the HTTP requests, and with them the services and the {@code @EventListener} sources they
+ * publish to.
+ */
+public enum ExecutionMode {
+
+    /**
+     * Tomcat's own worker pool ({@code server.tomcat.threads.max}), nothing is changed.
+     */
+    PLATFORM,
+
+    /**
+     * A new virtual thread per request, so that threads blocked on JDBC, Feign or Kafka no longer cap the
+     * concurrency. Needs JDK 21; older JDKs fall back to {@link #BOUNDED}.
+     */
+    VIRTUAL,
+
+    /**
+     * A dedicated pool of platform threads, sized independently of the connection pool.
+     */
+    BOUNDED
+}
@@ -0,0 +1,38 @@
+package by.afinny.deposit.config.execution;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "execution")
+public class ExecutionProperties {
+
+    private ExecutionMode mode = ExecutionMode.PLATFORM;
+    private Bounded bounded = new Bounded();
+    private Database database = new Database();
+
+    @Getter
+    @Setter
+    public static class Bounded {
+        private int maxThreads = 400;
+        private int queueCapacity = 1000;
+    }
+
+    /**
+     * Outside the platform mode more requests run at once than there are connections, so connections are handed
+     * out through a fair semaphore with as many permits as the pool has connections.
+     */
+    @Getter
+    @Setter
+    public static class Database {
+        /**
+         * Defaults to the maximum pool size of Hikari.
+         */
+        private Integer permits;
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+    }
+}
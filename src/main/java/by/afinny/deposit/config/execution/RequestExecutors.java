@@ -0,0 +1,75 @@
+package by.afinny.deposit.config.execution;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the executor of an {@link ExecutionMode}. The code is compiled for Java 11, so the virtual thread
+ * executor is looked up reflectively.
+ */
+@Slf4j
+public final class RequestExecutors {
+
+    private static final String THREAD_NAME_PREFIX = "http-exec-";
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private RequestExecutors() {
+    }
+
+    public static ExecutorService create(ExecutionMode mode, ExecutionProperties.Bounded bounded) {
+        switch (mode) {
+            case VIRTUAL:
+                ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+                if (virtualThreads != null) {
+                    return virtualThreads;
+                }
+                log.warn("Virtual threads are not available on Java " + Runtime.version().feature()
+                        + ", falling back to a bounded executor of " + bounded.getMaxThreads() + " threads");
+                return newBoundedExecutor(bounded);
+            case BOUNDED:
+                return newBoundedExecutor(bounded);
+            default:
+                throw new IllegalArgumentException("The " + mode + " mode runs on the executor of Tomcat");
+        }
+    }
+
+    public static boolean isVirtualThreadsAvailable() {
+        ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+        if (virtualThreads == null) {
+            return false;
+        }
+        virtualThreads.shutdown();
+        return true;
+    }
+
+    private static ExecutorService newBoundedExecutor(ExecutionProperties.Bounded bounded) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(bounded.getMaxThreads(), bounded.getMaxThreads(),
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(bounded.getQueueCapacity()),
+                new CustomizableThreadFactory(THREAD_NAME_PREFIX));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            // preview feature of Java 19 and 20 that was not enabled
+            if (e.getCause() instanceof UnsupportedOperationException) {
+                return null;
+            }
+            throw new IllegalStateException("Virtual thread executor can't be created", e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Virtual thread executor can't be created", e);
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package by.afinny.deposit.config.kafka;
 
 import by.afinny.deposit.config.kafka.properties.KafkaConfigProperties;
+import by.afinny.deposit.integration.KafkaTopicMetrics;
+import by.afinny.deposit.integration.RetryTopics;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
+import org.springframework.util.unit.DataSize;
 
 import javax.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,6 +36,7 @@ import java.util.Map;
 public class KafkaConsumerConfig {
 
     private final KafkaConfigProperties config;
+    private final KafkaTopicMetrics kafkaTopicMetrics;
     private KafkaProperties kafkaProperties;
     private String BOOTSTRAP_SERVERS;
 
@@ -34,91 +48,141 @@ public class KafkaConsumerConfig {
 
     @Bean
     public DefaultKafkaConsumerFactory<String, Object> stubConsumerFactoryForUpdateCardStatus() {
-        Map<String, Object> kafkaConsumerProperties = getKafkaConsumerProperties();
+        Map<String, Object> kafkaConsumerProperties = getKafkaConsumerProperties("bank-system-card-status-listener");
         kafkaConsumerProperties.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "by.afinny.deposit.dto.kafka.CardEvent");
         return new DefaultKafkaConsumerFactory<>(kafkaConsumerProperties);
     }
 
     @Bean(name = "listenerFactoryForCardStatus")
     public ConcurrentKafkaListenerContainerFactory<String, Object> factoryForCardStatus(ConsumerFactory<String, Object> stubConsumerFactoryForUpdateCardStatus) {
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(stubConsumerFactoryForUpdateCardStatus);
-        return factory;
+        return createListenerFactory(stubConsumerFactoryForUpdateCardStatus, "bank-system-card-status-listener");
     }
 
     @Bean
     public DefaultKafkaConsumerFactory<String, Object> stubConsumerFactoryForNewDeposit() {
-        Map<String, Object> kafkaConsumerProperties = getKafkaConsumerProperties();
+        Map<String, Object> kafkaConsumerProperties = getKafkaConsumerProperties("deposit-service-producer");
         kafkaConsumerProperties.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "by.afinny.deposit.dto.RequestNewDepositDto");
         return new DefaultKafkaConsumerFactory<>(kafkaConsumerProperties);
     }
 
     @Bean
     public DefaultKafkaConsumerFactory<String, Object> consumerFactoryForWithdrawDeposit() {
-        Map<String, Object> kafkaConsumerProperties = getKafkaConsumerProperties();
+        Map<String, Object> kafkaConsumerProperties = getKafkaConsumerProperties("withdraw-listener");
         kafkaConsumerProperties.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "by.afinny.deposit.dto.kafka.ConsumerWithdrawEvent");
         return new DefaultKafkaConsumerFactory<>(kafkaConsumerProperties);
     }
 
     @Bean(name = "stubListenerFactory")
     public ConcurrentKafkaListenerContainerFactory<String, Object> stubFactory(ConsumerFactory<String, Object> stubConsumerFactoryForNewDeposit) {
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(stubConsumerFactoryForNewDeposit);
-        return factory;
+        return createListenerFactory(stubConsumerFactoryForNewDeposit, "deposit-service-producer");
     }
 
     @Bean
     public DefaultKafkaConsumerFactory<String, Object> consumerFactoryForNewDeposit() {
-        Map<String, Object> kafkaConsumerProperties = getKafkaConsumerProperties();
+        Map<String, Object> kafkaConsumerProperties = getKafkaConsumerProperties("deposit-service-listener");
         kafkaConsumerProperties.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "by.afinny.deposit.entity.Agreement");
         return new DefaultKafkaConsumerFactory<>(kafkaConsumerProperties);
     }
 
     @Bean(name = "listenerFactory")
-    public ConcurrentKafkaListenerContainerFactory<String, Object> factory(ConsumerFactory<String, Object> consumerFactoryForNewDeposit) {
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactoryForNewDeposit);
+    public ConcurrentKafkaListenerContainerFactory<String, Object> factory(ConsumerFactory<String, Object> consumerFactoryForNewDeposit,
+                                                                          CommonErrorHandler failedBatchRecordErrorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = createListenerFactory(consumerFactoryForNewDeposit, "deposit-service-listener");
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(failedBatchRecordErrorHandler);
         return factory;
     }
 
-    @Bean(name = "listenerFactory")
-    public ConcurrentKafkaListenerContainerFactory<String, Object> factoryForWithdrawDeposit(ConsumerFactory<String, Object> consumerFactoryForWithdrawDeposit) {
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactoryForWithdrawDeposit);
+    @Bean(name = "listenerFactoryForFailedDeposit")
+    public ConcurrentKafkaListenerContainerFactory<String, Object> factoryForFailedDeposit(ConsumerFactory<String, Object> consumerFactoryForNewDeposit) {
+        return createListenerFactory(consumerFactoryForNewDeposit, "deposit-service-listener" + RetryTopics.FAILED_SUFFIX);
+    }
+
+    @Bean(name = "listenerFactoryForWithdrawDeposit")
+    public ConcurrentKafkaListenerContainerFactory<String, Object> factoryForWithdrawDeposit(ConsumerFactory<String, Object> consumerFactoryForWithdrawDeposit,
+                                                                                             CommonErrorHandler failedBatchRecordErrorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = createListenerFactory(consumerFactoryForWithdrawDeposit, "withdraw-listener");
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(failedBatchRecordErrorHandler);
         return factory;
     }
 
+    @Bean(name = "listenerFactoryForFailedWithdrawDeposit")
+    public ConcurrentKafkaListenerContainerFactory<String, Object> factoryForFailedWithdrawDeposit(ConsumerFactory<String, Object> consumerFactoryForWithdrawDeposit) {
+        return createListenerFactory(consumerFactoryForWithdrawDeposit, "withdraw-listener" + RetryTopics.FAILED_SUFFIX);
+    }
+
+    /**
+     * Error handler of the batch listeners: the record a batch failed on (see BatchProcessing) is published to
+     * {@code <topic>-failed} at once instead of being retried in place, so it doesn't block its partition.
+     * Its retries with backoff are left to the retry topics of the listener of that topic.
+     */
+    @Bean
+    public CommonErrorHandler failedBatchRecordErrorHandler(KafkaOperations<String, Object> kafkaTemplate) {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, exception) -> new TopicPartition(record.topic() + RetryTopics.FAILED_SUFFIX, -1));
+        return new DefaultErrorHandler(recoverer, new FixedBackOff(0L, 0L));
+    }
+
+    /**
+     * Reads the dead-letter topics as raw records, so that they can be replayed to their original topics unchanged.
+     */
+    @Bean
+    public DefaultKafkaConsumerFactory<String, byte[]> deadLetterConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
     @Bean
     public DefaultKafkaConsumerFactory<String, Object> stubConsumerFactoryNewCard() {
-        Map<String, Object> properties = getKafkaConsumerProperties();
+        Map<String, Object> properties = getKafkaConsumerProperties("new-card-producer");
         properties.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "by.afinny.deposit.dto.kafka.ProducerNewCardEvent");
         return new DefaultKafkaConsumerFactory<>(properties);
     }
 
     @Bean(name = "stubKafkaListenerNewCard")
     public ConcurrentKafkaListenerContainerFactory<String, Object> stubFactoryNewCard() {
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(stubConsumerFactoryNewCard());
-
-        return factory;
+        return createListenerFactory(stubConsumerFactoryNewCard(), "new-card-producer");
     }
 
     @Bean
     public DefaultKafkaConsumerFactory<String, Object> consumerFactoryNewCard() {
-        Map<String, Object> properties = getKafkaConsumerProperties();
+        Map<String, Object> properties = getKafkaConsumerProperties("new-card-listener");
         properties.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "by.afinny.deposit.dto.kafka.ConsumerNewCardEvent");
         return new DefaultKafkaConsumerFactory<>(properties);
     }
 
     @Bean(name = "kafkaListenerNewCard")
     public ConcurrentKafkaListenerContainerFactory<String, Object> factoryNewCard() {
-        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactoryNewCard());
+        return createListenerFactory(consumerFactoryNewCard(), "new-card-listener");
+    }
 
+    /**
+     * Creates a container factory with the concurrency and ack mode configured for the topic.
+     * Concurrency above the number of partitions of the topic only adds idle consumers.
+     * Both interceptors are set, the container uses the one matching its listener type.
+     */
+    private ConcurrentKafkaListenerContainerFactory<String, Object> createListenerFactory(ConsumerFactory<String, Object> consumerFactory,
+                                                                                          String topicName) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        KafkaConfigProperties.Topic topic = getTopic(topicName);
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(topic::getConcurrency).to(factory::setConcurrency);
+        map.from(topic::getAckMode).to(factory.getContainerProperties()::setAckMode);
+        factory.setRecordInterceptor(kafkaTopicMetrics.recordInterceptor());
+        factory.setBatchInterceptor(kafkaTopicMetrics.batchInterceptor());
         return factory;
     }
 
-    private Map<String, Object> getKafkaConsumerProperties() {
+    private KafkaConfigProperties.Topic getTopic(String topicName) {
+        return config.getTopics().getOrDefault(topicName, new KafkaConfigProperties.Topic());
+    }
+
+    private Map<String, Object> getKafkaConsumerProperties(String topicName) {
         Map<String, Object> consumerProperties = kafkaProperties.buildConsumerProperties();
 
         Map<String, Object> props = new HashMap<>();
@@ -130,6 +194,14 @@ public class KafkaConsumerConfig {
         props.put(ErrorHandlingDeserializer.KEY_DESERIALIZER_CLASS, ErrorHandlingDeserializer.class);
         props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, ErrorHandlingDeserializer.class);
 
+        KafkaConfigProperties.Topic topic = getTopic(topicName);
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(topic::getBatchSize).to(batchSize -> props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize));
+        map.from(topic::getFetchMinBytes).asInt(DataSize::toBytes)
+                .to(fetchMinBytes -> props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes));
+        map.from(topic::getMaxPollInterval).asInt(Duration::toMillis)
+                .to(maxPollInterval -> props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, maxPollInterval));
+
         return props;
     }
 }
@@ -0,0 +1,45 @@
+package by.afinny.deposit.config.kafka;
+
+import by.afinny.deposit.dto.NewPinCodeDebitCardDto;
+import by.afinny.deposit.dto.RequestNewDepositDto;
+import by.afinny.deposit.dto.kafka.AutoRenewalEvent;
+import by.afinny.deposit.dto.kafka.CardEvent;
+import by.afinny.deposit.dto.kafka.ProducerNewCardEvent;
+import by.afinny.deposit.dto.kafka.ProducerWithdrawEvent;
+import by.afinny.deposit.integration.MessageKeyStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class KafkaMessageKeyConfig {
+
+    @Bean
+    public MessageKeyStrategy<CardEvent> cardEventKeyStrategy() {
+        return MessageKeyStrategy.of(CardEvent.class, CardEvent::getCardId);
+    }
+
+    @Bean
+    public MessageKeyStrategy<AutoRenewalEvent> autoRenewalEventKeyStrategy() {
+        return MessageKeyStrategy.of(AutoRenewalEvent.class, AutoRenewalEvent::getAgreementId);
+    }
+
+    @Bean
+    public MessageKeyStrategy<ProducerWithdrawEvent> producerWithdrawEventKeyStrategy() {
+        return MessageKeyStrategy.of(ProducerWithdrawEvent.class, ProducerWithdrawEvent::getAgreementId);
+    }
+
+    @Bean
+    public MessageKeyStrategy<ProducerNewCardEvent> producerNewCardEventKeyStrategy() {
+        return MessageKeyStrategy.of(ProducerNewCardEvent.class, ProducerNewCardEvent::getClientId);
+    }
+
+    @Bean
+    public MessageKeyStrategy<RequestNewDepositDto> requestNewDepositKeyStrategy() {
+        return MessageKeyStrategy.of(RequestNewDepositDto.class, RequestNewDepositDto::getCardNumber);
+    }
+
+    @Bean
+    public MessageKeyStrategy<NewPinCodeDebitCardDto> newPinCodeDebitCardKeyStrategy() {
+        return MessageKeyStrategy.of(NewPinCodeDebitCardDto.class, NewPinCodeDebitCardDto::getCardNumber);
+    }
+}
@@ -1,20 +1,34 @@
 package by.afinny.deposit.config.kafka;
 
 import by.afinny.deposit.config.kafka.properties.KafkaConfigProperties;
+import by.afinny.deposit.integration.KafkaTopicMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.CompositeProducerListener;
+import org.springframework.kafka.support.LoggingProducerListener;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.unit.DataSize;
 
 import javax.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Configuration
@@ -22,7 +36,14 @@ import java.util.Map;
 @EnableConfigurationProperties(KafkaConfigProperties.class)
 public class KafkaProducerConfig {
 
+    public static final String BATCH_FILL_RATIO_METRIC = "kafka.producer.batch.fill.ratio";
+    private static final String PRODUCER_METRICS_GROUP = "producer-metrics";
+    private static final String BATCH_SIZE_AVG_METRIC = "batch-size-avg";
+    private static final int DEFAULT_BATCH_SIZE = 16384;
+
     private final KafkaConfigProperties config;
+    private final MeterRegistry meterRegistry;
+    private final KafkaTopicMetrics kafkaTopicMetrics;
     private KafkaProperties kafkaProperties;
     private String BOOTSTRAP_SERVERS;
 
@@ -32,16 +53,51 @@ public class KafkaProducerConfig {
         BOOTSTRAP_SERVERS = config.getBootstrapServers();
     }
 
+    /**
+     * Payloads are sent as JSON, except for raw records (failed deserialization, dead-letter replay), which are
+     * forwarded unchanged.
+     */
     @Bean
     public DefaultKafkaProducerFactory<String, Object> producerFactoryForWithdrawDeposit() {
         Map<String, Object> kafkaProducerProperties = getKafkaProducerProperties();
         kafkaProducerProperties.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "by.afinny.deposit.dto.kafka.ProducerWithdrawEvent");
-        return new DefaultKafkaProducerFactory<>(kafkaProducerProperties);
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(kafkaProducerProperties);
+        Map<Class<?>, Serializer> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(Object.class, new JsonSerializer<>());
+        producerFactory.setValueSerializer(new DelegatingByTypeSerializer(valueSerializers, true));
+        producerFactory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return producerFactory;
     }
 
+    /**
+     * Send latency is recorded by the template itself (spring.kafka.template timer), per topic by the producer
+     * listener of the template, the client metrics by the listener of the producer factory.
+     * The batch fill ratio shows how much of batch.size the producer actually uses.
+     */
     @Bean
     public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactoryForWithdrawDeposit) {
-        return new KafkaTemplate<>(producerFactoryForWithdrawDeposit);
+        KafkaTemplate<String, Object> kafkaTemplate = new KafkaTemplate<>(producerFactoryForWithdrawDeposit);
+        kafkaTemplate.setMicrometerEnabled(true);
+        kafkaTemplate.setProducerListener(new CompositeProducerListener<>(
+                new LoggingProducerListener<>(), kafkaTopicMetrics.producerListener()));
+        int batchSize = (int) producerFactoryForWithdrawDeposit.getConfigurationProperties()
+                .getOrDefault(ProducerConfig.BATCH_SIZE_CONFIG, DEFAULT_BATCH_SIZE);
+        Gauge.builder(BATCH_FILL_RATIO_METRIC, kafkaTemplate, template -> getBatchFillRatio(template, batchSize))
+                .description("Average batch size relative to the configured batch.size")
+                .register(meterRegistry);
+        return kafkaTemplate;
+    }
+
+    private double getBatchFillRatio(KafkaTemplate<String, Object> kafkaTemplate, int batchSize) {
+        return kafkaTemplate.metrics().entrySet().stream()
+                .filter(metric -> PRODUCER_METRICS_GROUP.equals(metric.getKey().group())
+                        && BATCH_SIZE_AVG_METRIC.equals(metric.getKey().name()))
+                .map(metric -> metric.getValue().metricValue())
+                .filter(Number.class::isInstance)
+                .mapToDouble(batchSizeAvg -> ((Number) batchSizeAvg).doubleValue() / batchSize)
+                .average()
+                .orElse(Double.NaN);
     }
 
     private Map<String, Object> getKafkaProducerProperties() {
@@ -55,7 +111,23 @@ public class KafkaProducerConfig {
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         props.put(ErrorHandlingDeserializer.KEY_DESERIALIZER_CLASS, ErrorHandlingDeserializer.class);
         props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, ErrorHandlingDeserializer.class);
+        applyProducerTuning(props, config.getProducer());
 
         return props;
     }
+
+    private void applyProducerTuning(Map<String, Object> props, KafkaConfigProperties.Producer producer) {
+        if (producer.getPreset() != null) {
+            props.putAll(producer.getPreset().toProducerProperties());
+        }
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(producer::getPartitioner).to(partitioner -> props.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, partitioner));
+        map.from(producer::getCompressionType).to(compressionType -> props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType));
+        map.from(producer::getIdempotence).to(idempotence -> props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence));
+        map.from(producer::getAcks).to(acks -> props.put(ProducerConfig.ACKS_CONFIG, acks));
+        map.from(producer::getLinger).asInt(Duration::toMillis).to(linger -> props.put(ProducerConfig.LINGER_MS_CONFIG, linger));
+        map.from(producer::getBatchSize).asInt(DataSize::toBytes).to(batchSize -> props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize));
+        map.from(producer::getMaxInFlightRequestsPerConnection)
+                .to(maxInFlight -> props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlight));
+    }
 }
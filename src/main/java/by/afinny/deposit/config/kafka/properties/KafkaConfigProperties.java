@@ -2,9 +2,13 @@ package by.afinny.deposit.config.kafka.properties;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.kafka.clients.producer.Partitioner;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,11 +20,66 @@ public class KafkaConfigProperties {
     private String bootstrapServers;
     private KafkaProperties kafkaProperties;
     private Map<String, Topic> topics = new HashMap<>();
+    private Producer producer = new Producer();
+    private Outbox outbox = new Outbox();
+    private Idempotency idempotency = new Idempotency();
 
     @Getter
     @Setter
     public static class Topic {
         private String path;
         private boolean enabled;
+
+        /**
+         * Consumer tuning of listener topics, Kafka and Spring defaults apply to the properties left unset.
+         * {@code batchSize} is the max.poll.records of the consumers.
+         */
+        private Integer concurrency;
+        private Integer batchSize;
+        private DataSize fetchMinBytes;
+        private Duration maxPollInterval;
+        private ContainerProperties.AckMode ackMode;
+    }
+
+    @Getter
+    @Setter
+    public static class Producer {
+
+        /**
+         * Partitioner of the outgoing records, Kafka's default partitioner (murmur2 hash of the key) if unset.
+         */
+        private Class<? extends Partitioner> partitioner;
+
+        /**
+         * Producer tuning: the preset sets all of the properties below, properties that are set explicitly
+         * override it, and client defaults apply to the rest.
+         */
+        private ProducerPreset preset;
+        private String compressionType;
+        private Boolean idempotence;
+        private String acks;
+        private Duration linger;
+        private DataSize batchSize;
+        private Integer maxInFlightRequestsPerConnection;
+    }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+        private boolean enabled;
+        private int batchSize = 500;
+        private Duration fixedDelay = Duration.ofMillis(500);
+        private Duration sendTimeout = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        /**
+         * How long a processed message key is remembered; redeliveries after that are processed again.
+         */
+        private Duration ttl = Duration.ofDays(7);
+        private int expectedKeys = 1_000_000;
+        private double falsePositiveProbability = 0.01;
     }
 }
@@ -0,0 +1,47 @@
+package by.afinny.deposit.config.kafka.properties;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Named producer tunings. Both presets use idempotent delivery with acks=all, which keeps records of one
+ * partition in order across retries, and differ in how long records wait to be batched.
+ */
+public enum ProducerPreset {
+
+    /**
+     * Sends every record right away, small batches compressed with the cheap lz4.
+     */
+    LOW_LATENCY(Duration.ZERO, DataSize.ofKilobytes(16), "lz4"),
+
+    /**
+     * Waits a few milliseconds to fill large batches and compresses them with zstd,
+     * for the outbox relay that sends hundreds of records at once.
+     */
+    HIGH_THROUGHPUT(Duration.ofMillis(20), DataSize.ofKilobytes(256), "zstd");
+
+    private final Duration linger;
+    private final DataSize batchSize;
+    private final String compressionType;
+
+    ProducerPreset(Duration linger, DataSize batchSize, String compressionType) {
+        this.linger = linger;
+        this.batchSize = batchSize;
+        this.compressionType = compressionType;
+    }
+
+    public Map<String, Object> toProducerProperties() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, (int) batchSize.toBytes());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        return props;
+    }
+}
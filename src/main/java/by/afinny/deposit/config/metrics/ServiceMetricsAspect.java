@@ -0,0 +1,70 @@
+package by.afinny.deposit.config.metrics;
+
+import by.afinny.deposit.exception.EntityNotFoundException;
+import by.afinny.deposit.exception.InsufficientFundsException;
+import by.afinny.deposit.exception.handler.CardExpiredException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Times every public method of the services in {@code service.impl}, tagged by class, method and outcome, and counts
+ * the business failures among the exceptions they throw. Only calls through the Spring proxy are timed, a service
+ * calling its own methods is recorded as one operation.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String OPERATION_METRIC = "service.operation";
+    public static final String BUSINESS_FAILURES_METRIC = "service.business.failures";
+    public static final String SUCCESS = "success";
+    public static final String BUSINESS_FAILURE = "business_failure";
+    public static final String ERROR = "error";
+    private static final String NONE = "none";
+    private static final Set<Class<? extends RuntimeException>> BUSINESS_FAILURES = Set.of(
+            EntityNotFoundException.class,
+            CardExpiredException.class,
+            InsufficientFundsException.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("within(by.afinny.deposit.service.impl..*) && @within(org.springframework.stereotype.Service) "
+            + "&& execution(public * *(..))")
+    public Object timeOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        Tags operation = Tags.of(
+                "class", joinPoint.getTarget().getClass().getSimpleName(),
+                "method", joinPoint.getSignature().getName());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = SUCCESS;
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            if (BUSINESS_FAILURES.contains(e.getClass())) {
+                outcome = BUSINESS_FAILURE;
+                meterRegistry.counter(BUSINESS_FAILURES_METRIC, operation.and("exception", exception)).increment();
+            } else {
+                outcome = ERROR;
+            }
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(OPERATION_METRIC)
+                    .description("Duration of the service operations")
+                    .tags(operation)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
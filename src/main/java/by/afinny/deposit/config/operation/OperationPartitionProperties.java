@@ -0,0 +1,16 @@
+package by.afinny.deposit.config.operation;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "operation.partitions")
+public class OperationPartitionProperties {
+
+    private boolean enabled;
+    private int monthsAhead = 3;
+    private int retentionMonths = 36;
+    private String archiveSchema = "operation_archive";
+}
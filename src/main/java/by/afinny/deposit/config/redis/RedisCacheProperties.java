@@ -0,0 +1,24 @@
+package by.afinny.deposit.config.redis;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache.redis")
+public class RedisCacheProperties {
+
+    private String keyPrefix = "deposit";
+    private String version = "1";
+    private Duration defaultTtl = Duration.ofMinutes(30);
+    private Map<String, Duration> ttl = new HashMap<>();
+
+    public Duration getTtl(String cacheName) {
+        return ttl.getOrDefault(cacheName, defaultTtl);
+    }
+}
@@ -1,21 +1,58 @@
 package by.afinny.deposit.config.redis;
 
+import by.afinny.deposit.config.cache.NearCacheProperties;
+import by.afinny.deposit.config.cache.TwoLevelCacheManager;
+import by.afinny.deposit.dto.CardProductDto;
+import by.afinny.deposit.dto.ProductDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties({NearCacheProperties.class, RedisCacheProperties.class})
 public class RedisConfig {
 
+    public static final String ALL_ACTIVE_DEPOSIT_PRODUCTS = "allActiveDepositProducts";
+    public static final String ALL_CARD_PRODUCTS = "allCardProducts";
+
     @Bean
-    public RedisCacheManagerBuilderCustomizer redisCacheManagerBuilderCustomizer() {
+    public RedisCacheManagerBuilderCustomizer redisCacheManagerBuilderCustomizer(RedisCacheProperties properties) {
         return (builder) -> builder
-                .withCacheConfiguration("allActiveDepositProducts",
-                        RedisCacheConfiguration.defaultCacheConfig())
-                .withCacheConfiguration("allCardProducts",
-                        RedisCacheConfiguration.defaultCacheConfig());
+                .withCacheConfiguration(ALL_ACTIVE_DEPOSIT_PRODUCTS,
+                        listCacheConfiguration(properties, ALL_ACTIVE_DEPOSIT_PRODUCTS, ProductDto.class))
+                .withCacheConfiguration(ALL_CARD_PRODUCTS,
+                        listCacheConfiguration(properties, ALL_CARD_PRODUCTS, CardProductDto.class));
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             ObjectProvider<RedisCacheManagerBuilderCustomizer> customizers,
+                                             NearCacheProperties nearCacheProperties,
+                                             MeterRegistry meterRegistry) {
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig());
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+        return new TwoLevelCacheManager(redisCacheManager, nearCacheProperties, meterRegistry);
+    }
+
+    private <E> RedisCacheConfiguration listCacheConfiguration(RedisCacheProperties properties, String cacheName,
+                                                               Class<E> elementType) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(properties.getTtl(cacheName))
+                .disableCachingNullValues()
+                .computePrefixWith(new VersionedCacheKeyPrefix(
+                        properties.getKeyPrefix(), properties.getVersion(), elementType))
+                .serializeValuesWith(SerializationPair.fromSerializer(SmileRedisSerializer.listOf(elementType)));
     }
 }
@@ -0,0 +1,56 @@
+package by.afinny.deposit.config.redis;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes cache values as binary JSON (Smile) bound to a fixed type, so no class names are stored in the payload
+ * and the cached DTOs don't have to be {@link java.io.Serializable}.
+ */
+public class SmileRedisSerializer<T> implements RedisSerializer<T> {
+
+    private static final ObjectMapper MAPPER = SmileMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final JavaType type;
+
+    private SmileRedisSerializer(JavaType type) {
+        this.type = type;
+    }
+
+    public static <E> SmileRedisSerializer<List<E>> listOf(Class<E> elementType) {
+        return new SmileRedisSerializer<>(MAPPER.getTypeFactory().constructCollectionType(List.class, elementType));
+    }
+
+    @Override
+    public byte[] serialize(T value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            return MAPPER.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write Smile: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(bytes, type);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read Smile: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package by.afinny.deposit.config.redis;
+
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Builds keys like {@code deposit:allCardProducts:v1-1a2b3c4d::SimpleKey []}. The suffix after the configured
+ * version is a fingerprint of the cached type's fields, so a deployment that changes the DTO never reads
+ * payloads written by the previous one, even if nobody bumped the version.
+ */
+public class VersionedCacheKeyPrefix implements CacheKeyPrefix {
+
+    private final String keyPrefix;
+    private final String version;
+
+    public VersionedCacheKeyPrefix(String keyPrefix, String version, Class<?> cachedType) {
+        this.keyPrefix = keyPrefix;
+        this.version = "v" + version + "-" + fingerprint(cachedType);
+    }
+
+    @Override
+    public String compute(String cacheName) {
+        return keyPrefix + ":" + cacheName + ":" + version + SEPARATOR;
+    }
+
+    static String fingerprint(Class<?> type) {
+        String schema = Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .sorted(Comparator.comparing(Field::getName))
+                .map(field -> field.getName() + ":" + field.getType().getName())
+                .collect(Collectors.joining(","));
+        CRC32 crc = new CRC32();
+        crc.update(schema.getBytes(StandardCharsets.UTF_8));
+        return String.format("%08x", crc.getValue());
+    }
+}
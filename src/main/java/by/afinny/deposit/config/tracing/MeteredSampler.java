@@ -0,0 +1,30 @@
+package by.afinny.deposit.config.tracing;
+
+import brave.sampler.Sampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts the decisions of a head sampler, tagged by the rule it stands for.
+ */
+public class MeteredSampler extends Sampler {
+
+    public static final String DECISIONS_METRIC = "tracing.sampler.decisions";
+
+    private final Sampler delegate;
+    private final Counter sampled;
+    private final Counter notSampled;
+
+    public MeteredSampler(Sampler delegate, String rule, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.sampled = meterRegistry.counter(DECISIONS_METRIC, "rule", rule, "decision", "sampled");
+        this.notSampled = meterRegistry.counter(DECISIONS_METRIC, "rule", rule, "decision", "not_sampled");
+    }
+
+    @Override
+    public boolean isSampled(long traceId) {
+        boolean isSampled = delegate.isSampled(traceId);
+        (isSampled ? sampled : notSampled).increment();
+        return isSampled;
+    }
+}
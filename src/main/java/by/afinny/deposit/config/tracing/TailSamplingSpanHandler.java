@@ -0,0 +1,112 @@
+package by.afinny.deposit.config.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tail-based sampling at the service boundary. With local sampling always on, the spans of traces the head sampler
+ * skipped are still recorded; they are buffered by local root and, when the local root (the server or consumer
+ * span) ends with an error or after the slow threshold, handed to the {@code reporters} together with its
+ * children.
+ * Otherwise they are dropped. Sampled traces pass through untouched and are reported as usual.
+ * <p>
+ * Only the part of the trace recorded by this service is reported, the callers and callees didn't sample it.
+ * Buffers of local roots that never end are evicted after {@code maxTraceDuration}.
+ */
+public class TailSamplingSpanHandler extends SpanHandler {
+
+    public static final String DECISIONS_METRIC = "tracing.tail.decisions";
+    public static final String BUFFERED_TRACES_METRIC = "tracing.tail.buffered.traces";
+    public static final String ERROR = "error";
+    public static final String SLOW = "slow";
+    public static final String DROPPED = "dropped";
+    private static final String ERROR_TAG = "error";
+
+    private final List<SpanHandler> reporters;
+    private final TracingSamplingProperties.Tail tail;
+    private final long slowThresholdMicros;
+    private final Cache<Long, List<BufferedSpan>> buffers;
+    private final MeterRegistry meterRegistry;
+
+    public TailSamplingSpanHandler(List<SpanHandler> reporters, TracingSamplingProperties.Tail tail,
+                                   MeterRegistry meterRegistry) {
+        this.reporters = reporters;
+        this.tail = tail;
+        this.slowThresholdMicros = TimeUnit.NANOSECONDS.toMicros(tail.getSlowThreshold().toNanos());
+        this.buffers = Caffeine.newBuilder()
+                .maximumSize(tail.getMaxTraces())
+                .expireAfterWrite(tail.getMaxTraceDuration())
+                .build();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(BUFFERED_TRACES_METRIC, buffers, Cache::estimatedSize)
+                .description("Traces whose spans are buffered until their local root ends")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (Boolean.TRUE.equals(context.sampled())) {
+            return true;
+        }
+        if (!context.isLocalRoot()) {
+            if (cause == Cause.FINISHED) {
+                buffer(context, span);
+            }
+            return true;
+        }
+        List<BufferedSpan> children = buffers.asMap().remove(context.localRootId());
+        if (cause != Cause.FINISHED) {
+            return true;
+        }
+        String decision = decide(span);
+        meterRegistry.counter(DECISIONS_METRIC, "decision", decision).increment();
+        if (!DROPPED.equals(decision)) {
+            if (children != null) {
+                children.forEach(child -> report(child.context, child.span));
+            }
+            report(context, span);
+        }
+        return true;
+    }
+
+    private void buffer(TraceContext context, MutableSpan span) {
+        buffers.asMap().compute(context.localRootId(), (localRootId, spans) -> {
+            List<BufferedSpan> buffered = spans == null ? new ArrayList<>() : spans;
+            if (buffered.size() < tail.getMaxSpansPerTrace()) {
+                buffered.add(new BufferedSpan(context, span));
+            }
+            return buffered;
+        });
+    }
+
+    private void report(TraceContext context, MutableSpan span) {
+        reporters.forEach(reporter -> reporter.end(context, span, Cause.FINISHED));
+    }
+
+    private String decide(MutableSpan span) {
+        if (tail.isErrors() && (span.error() != null || span.tag(ERROR_TAG) != null)) {
+            return ERROR;
+        }
+        if (span.finishTimestamp() - span.startTimestamp() >= slowThresholdMicros) {
+            return SLOW;
+        }
+        return DROPPED;
+    }
+
+    @RequiredArgsConstructor
+    private static final class BufferedSpan {
+
+        private final TraceContext context;
+        private final MutableSpan span;
+    }
+}
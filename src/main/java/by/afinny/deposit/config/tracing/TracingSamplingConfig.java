@@ -0,0 +1,79 @@
+package by.afinny.deposit.config.tracing;
+
+import brave.TracingCustomizer;
+import brave.handler.SpanHandler;
+import brave.http.HttpRequest;
+import brave.http.HttpRequestMatchers;
+import brave.http.HttpRuleSampler;
+import brave.sampler.RateLimitingSampler;
+import brave.sampler.Sampler;
+import brave.sampler.SamplerFunction;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.sleuth.instrument.web.HttpServerSampler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import zipkin2.Span;
+import zipkin2.reporter.Reporter;
+import zipkin2.reporter.brave.ZipkinSpanHandler;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Replaces the fixed sleuth sampling probability: new traces are rate limited, globally and per endpoint, and
+ * traces the rate limit skipped are still reported from this service if they failed or were slow.
+ * Decisions already made upstream (the B3 sampled flag) are kept.
+ */
+@Configuration
+@EnableConfigurationProperties(TracingSamplingProperties.class)
+public class TracingSamplingConfig {
+
+    static final String DEFAULT_RULE = "default";
+
+    @Bean
+    public Sampler sampler(TracingSamplingProperties properties, MeterRegistry meterRegistry) {
+        return new MeteredSampler(RateLimitingSampler.create(properties.getTracesPerSecond()), DEFAULT_RULE,
+                meterRegistry);
+    }
+
+    /**
+     * Requests no endpoint rule matches fall back to {@link #sampler}.
+     */
+    @Bean(name = HttpServerSampler.NAME)
+    public SamplerFunction<HttpRequest> httpServerSampler(TracingSamplingProperties properties,
+                                                          MeterRegistry meterRegistry) {
+        HttpRuleSampler.Builder rules = HttpRuleSampler.newBuilder();
+        for (TracingSamplingProperties.Endpoint endpoint : properties.getEndpoints()) {
+            rules.putRule(HttpRequestMatchers.pathStartsWith(endpoint.getPath()), new MeteredSampler(
+                    RateLimitingSampler.create(endpoint.getTracesPerSecond()), endpoint.getPath(), meterRegistry));
+        }
+        return rules.build();
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "tracing.sampling.tail.enabled", matchIfMissing = true)
+    static class TailSamplingConfig {
+
+        @Bean
+        public TracingCustomizer alwaysSampleLocal() {
+            return builder -> builder.alwaysSampleLocal();
+        }
+
+        /**
+         * Reports the promoted spans to the same reporters as the sleuth zipkin handler, which only reports
+         * sampled spans.
+         */
+        @Bean
+        public TailSamplingSpanHandler tailSamplingSpanHandler(ObjectProvider<Reporter<Span>> reporters,
+                                                               TracingSamplingProperties properties,
+                                                               MeterRegistry meterRegistry) {
+            List<SpanHandler> zipkinHandlers = reporters.orderedStream()
+                    .map(reporter -> ZipkinSpanHandler.newBuilder(reporter).alwaysReportSpans(true).build())
+                    .collect(Collectors.toList());
+            return new TailSamplingSpanHandler(zipkinHandlers, properties.getTail(), meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package by.afinny.deposit.config.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "tracing.sampling")
+public class TracingSamplingProperties {
+
+    /**
+     * Traces started here that are sampled per second, for requests no endpoint rule matches.
+     */
+    private int tracesPerSecond = 10;
+    /**
+     * Rate limits of single endpoints, the first rule whose path prefix matches the request wins.
+     */
+    private List<Endpoint> endpoints = new ArrayList<>();
+    private Tail tail = new Tail();
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+        private String path;
+        private int tracesPerSecond;
+    }
+
+    /**
+     * Spans of traces that were not sampled are kept in memory until their local root ends, and reported if it
+     * failed or was slow.
+     */
+    @Getter
+    @Setter
+    public static class Tail {
+        private boolean enabled = true;
+        private boolean errors = true;
+        private Duration slowThreshold = Duration.ofSeconds(1);
+        private int maxSpansPerTrace = 100;
+        private long maxTraces = 10000;
+        private Duration maxTraceDuration = Duration.ofMinutes(1);
+    }
+}
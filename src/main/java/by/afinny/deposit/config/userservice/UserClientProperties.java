@@ -0,0 +1,47 @@
+package by.afinny.deposit.config.userservice;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user-client")
+public class UserClientProperties {
+
+    private Cache cache = new Cache();
+    private Bulkhead bulkhead = new Bulkhead();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * Clients found by phone are fresh for {@code ttl}, phones without a client for {@code negativeTtl}. Entries
+     * are kept until {@code staleTtl} to be served while USER-SERVICE is unavailable.
+     */
+    @Getter
+    @Setter
+    public static class Cache {
+        private long maximumSize = 10_000;
+        private Duration ttl = Duration.ofSeconds(30);
+        private Duration negativeTtl = Duration.ofSeconds(10);
+        private Duration staleTtl = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Bulkhead {
+        private int maxConcurrentCalls = 20;
+        private Duration maxWait = Duration.ZERO;
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        private int slidingWindowSize = 20;
+        private int minimumNumberOfCalls = 10;
+        private float failureRateThreshold = 50;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+        private int permittedCallsInHalfOpenState = 3;
+    }
+}
@@ -0,0 +1,34 @@
+package by.afinny.deposit.controller;
+
+import by.afinny.deposit.dto.OperationHistoryDto;
+import by.afinny.deposit.dto.OperationHistoryFilterDto;
+import by.afinny.deposit.service.OperationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("auth/accounts")
+@RequiredArgsConstructor
+public class OperationController {
+
+    public static final String URL_OPERATIONS = "/auth/accounts/{accountId}/operations";
+
+    private final OperationService operationService;
+
+    @GetMapping("{accountId}/operations")
+    public ResponseEntity<OperationHistoryDto> getOperationHistory(@RequestParam UUID clientId,
+                                                                   @PathVariable UUID accountId,
+                                                                   OperationHistoryFilterDto filter,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "20") int limit) {
+        OperationHistoryDto operationHistory = operationService.getOperationHistory(clientId, accountId, filter, cursor, limit);
+        return ResponseEntity.ok(operationHistory);
+    }
+}
@@ -17,5 +17,6 @@ import lombok.ToString;
 public class NewPinCodeDebitCardDto {
 
     String cardNumber;
+    @ToString.Exclude
     String newPin;
 }
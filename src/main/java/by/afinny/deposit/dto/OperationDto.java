@@ -0,0 +1,31 @@
+package by.afinny.deposit.dto;
+
+import by.afinny.deposit.entity.constant.CurrencyCode;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter(AccessLevel.PUBLIC)
+@ToString
+public class OperationDto {
+
+    private UUID operationId;
+    private LocalDateTime completedAt;
+    private BigDecimal sum;
+    private String details;
+    private CurrencyCode currencyCode;
+    private String type;
+    private Boolean debit;
+}
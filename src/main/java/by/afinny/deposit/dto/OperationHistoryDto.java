@@ -0,0 +1,23 @@
+package by.afinny.deposit.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter(AccessLevel.PUBLIC)
+@ToString
+public class OperationHistoryDto {
+
+    private List<OperationDto> operations;
+    private String nextCursor;
+}
@@ -1,6 +1,7 @@
 package by.afinny.deposit.entity;
 
 import by.afinny.deposit.entity.constant.CurrencyCode;
+import by.afinny.deposit.entity.generator.TimeOrderedUuidGenerator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -11,6 +12,7 @@ import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -18,11 +20,8 @@ import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
-import javax.persistence.PrePersist;
-import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -42,7 +41,8 @@ public class Account {
     public static final String TABLE_NAME = "account";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUuidGenerator.NAME, strategy = TimeOrderedUuidGenerator.STRATEGY)
     @Column(name = "id")
     private UUID id;
 
@@ -91,21 +91,4 @@ public class Account {
     @ToString.Exclude
     @JsonIgnore
     private List<Agreement> agreements;
-
-    @PrePersist
-    private void onCreate() {
-        changeBalance();
-    }
-
-    @PreUpdate
-    private void onUpdate() {
-        changeBalance();
-    }
-    private void changeBalance(){
-        if (cards != null) {
-            this.currentBalance = cards.stream()
-                    .map(Card::getBalance)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-        }
-    }
 }
@@ -0,0 +1,56 @@
+package by.afinny.deposit.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = OutboxEvent.TABLE_NAME)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter(AccessLevel.PUBLIC)
+@ToString
+public class OutboxEvent {
+
+    public static final String TABLE_NAME = "outbox_event";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "aggregate_key", length = 64)
+    private String aggregateKey;
+
+    @Column(name = "topic", nullable = false)
+    private String topic;
+
+    @Column(name = "payload_type", nullable = false)
+    private String payloadType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Set when the event can't be read back; such events are skipped by the relay and left for an operator.
+     */
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+}
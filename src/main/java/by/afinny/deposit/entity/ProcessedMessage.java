@@ -0,0 +1,50 @@
+package by.afinny.deposit.entity;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Key of a consumed Kafka message whose effects are already committed. The key is always new when saved, so
+ * {@link #isNew()} makes the repository persist it with a plain insert instead of merging it with a select.
+ */
+@Entity
+@Table(name = ProcessedMessage.TABLE_NAME)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter(AccessLevel.PUBLIC)
+@ToString
+public class ProcessedMessage implements Persistable<String> {
+
+    public static final String TABLE_NAME = "processed_message";
+
+    @Id
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    @Override
+    public String getId() {
+        return messageKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
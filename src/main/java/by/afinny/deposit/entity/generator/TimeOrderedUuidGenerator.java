@@ -0,0 +1,54 @@
+package by.afinny.deposit.entity.generator;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.io.Serializable;
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Generates version 7 UUIDs: the first 48 bits are the Unix time in milliseconds, so new keys are appended to
+ * the right edge of the primary key B-tree instead of landing on random pages.
+ * The 12 bits after the version are a counter, which keeps the ids generated by one JVM strictly increasing
+ * even within the same millisecond.
+ */
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+    public static final String NAME = "time-ordered-uuid";
+    public static final String STRATEGY = "by.afinny.deposit.entity.generator.TimeOrderedUuidGenerator";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_COUNTER = 0xFFF;
+
+    private static long lastMillis;
+    private static int counter;
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return next();
+    }
+
+    public static UUID next() {
+        long millis;
+        int sequence;
+        synchronized (TimeOrderedUuidGenerator.class) {
+            millis = Math.max(System.currentTimeMillis(), lastMillis);
+            if (millis == lastMillis) {
+                if (counter == MAX_COUNTER) {
+                    millis++;
+                    counter = 0;
+                } else {
+                    counter++;
+                }
+            } else {
+                counter = 0;
+            }
+            lastMillis = millis;
+            sequence = counter;
+        }
+        long mostSigBits = (millis << 16) | 0x7000L | sequence;
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
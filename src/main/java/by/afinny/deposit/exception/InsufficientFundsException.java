@@ -0,0 +1,8 @@
+package by.afinny.deposit.exception;
+
+public class InsufficientFundsException extends RuntimeException {
+
+    public InsufficientFundsException(String message) {
+        super(message);
+    }
+}
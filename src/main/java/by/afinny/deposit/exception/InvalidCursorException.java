@@ -0,0 +1,8 @@
+package by.afinny.deposit.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
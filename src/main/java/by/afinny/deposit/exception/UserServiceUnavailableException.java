@@ -0,0 +1,12 @@
+package by.afinny.deposit.exception;
+
+public class UserServiceUnavailableException extends RuntimeException {
+
+    public UserServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public UserServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -2,6 +2,9 @@ package by.afinny.deposit.exception.handler;
 
 import by.afinny.deposit.exception.CardStatusesAreEqualsException;
 import by.afinny.deposit.exception.DefaultCardNotFoundException;
+import by.afinny.deposit.exception.InsufficientFundsException;
+import by.afinny.deposit.exception.InvalidCursorException;
+import by.afinny.deposit.exception.UserServiceUnavailableException;
 import by.afinny.deposit.exception.dto.ErrorDto;
 import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
@@ -76,6 +79,33 @@ public class ExceptionHandlerController {
                         e.getMessage()));
     }
 
+    @ExceptionHandler(InsufficientFundsException.class)
+    public ResponseEntity<ErrorDto> insufficientFundsExceptionHandler(InsufficientFundsException e) {
+        log.error("Insufficient funds. " + e.getMessage());
+        return createResponseEntity(
+                HttpStatus.BAD_REQUEST,
+                new ErrorDto(Integer.toString(HttpStatus.BAD_REQUEST.value()),
+                        e.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorDto> invalidCursorExceptionHandler(InvalidCursorException e) {
+        log.error("Invalid cursor. " + e.getMessage());
+        return createResponseEntity(
+                HttpStatus.BAD_REQUEST,
+                new ErrorDto(Integer.toString(HttpStatus.BAD_REQUEST.value()),
+                        e.getMessage()));
+    }
+
+    @ExceptionHandler(UserServiceUnavailableException.class)
+    public ResponseEntity<ErrorDto> userServiceUnavailableExceptionHandler(UserServiceUnavailableException e) {
+        log.error("User service unavailable. " + e.getMessage());
+        return createResponseEntity(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                new ErrorDto(Integer.toString(HttpStatus.SERVICE_UNAVAILABLE.value()),
+                        e.getMessage()));
+    }
+
     private ResponseEntity<ErrorDto> createResponseEntity(HttpStatus status, ErrorDto errorDto) {
         return ResponseEntity.status(status)
                 .header("Content-Type", "application/json")
@@ -6,12 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.event.EventListener;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.MessageHeaders;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
-import org.springframework.util.MimeTypeUtils;
 
 @Component
 @RequiredArgsConstructor
@@ -19,20 +14,14 @@ import org.springframework.util.MimeTypeUtils;
 @ConditionalOnProperty("kafka.topics.deposit-service-auto-renewal-producer.enabled")
 public class AutoRenewalSource {
 
-    private final KafkaTemplate<String, ?> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
 
     @Value("${kafka.topics.deposit-service-auto-renewal-producer.path}")
     private String kafkaTopic;
 
     @EventListener
     public void sendMessageAboutCardStatusUpdate(AutoRenewalEvent event) {
-        log.info("Event " + event + " has been received, sending message...");
-        kafkaTemplate.send(
-                MessageBuilder
-                        .withPayload(event)
-                        .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
-                        .setHeader(KafkaHeaders.TOPIC, kafkaTopic)
-                        .build()
-        );
+        log.info("Event " + event + " has been received, writing it to outbox...");
+        outboxWriter.write(kafkaTopic, event);
     }
 }
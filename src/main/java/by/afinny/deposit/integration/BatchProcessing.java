@@ -0,0 +1,40 @@
+package by.afinny.deposit.integration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.messaging.Message;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Shared handling of batch listeners: the whole batch is processed at once and, if that fails, the records are
+ * replayed one by one, so that a single bad record is reported to the container error handler by its index
+ * instead of failing (and redelivering) the whole batch.
+ */
+@Slf4j
+final class BatchProcessing {
+
+    private BatchProcessing() {
+    }
+
+    static <T> void process(List<Message<T>> messages, Consumer<List<T>> batchHandler, Consumer<T> recordHandler) {
+        List<T> payloads = messages.stream()
+                .map(Message::getPayload)
+                .collect(Collectors.toList());
+        try {
+            batchHandler.accept(payloads);
+        } catch (RuntimeException e) {
+            log.warn("Batch of " + payloads.size() + " records failed, processing them one by one. " + e.getMessage());
+            for (int index = 0; index < payloads.size(); index++) {
+                T payload = payloads.get(index);
+                try {
+                    recordHandler.accept(payload);
+                } catch (RuntimeException recordException) {
+                    throw new BatchListenerFailedException("Failed to process record: " + payload, recordException, index);
+                }
+            }
+        }
+    }
+}
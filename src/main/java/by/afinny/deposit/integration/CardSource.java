@@ -5,13 +5,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.MessageHeaders;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.messaging.support.MessageBuilder;
-import org.springframework.transaction.event.TransactionalEventListener;
-import org.springframework.util.MimeTypeUtils;
 
 @Component
 @RequiredArgsConstructor
@@ -19,20 +14,14 @@ import org.springframework.util.MimeTypeUtils;
 @ConditionalOnProperty("kafka.topics.deposit-service-card-status-producer.enabled")
 public class CardSource {
 
-    private final KafkaTemplate<String, ?> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
 
     @Value("${kafka.topics.deposit-service-card-status-producer.path}")
     private String kafkaTopic;
 
-    @TransactionalEventListener
+    @EventListener
     public void sendMessageAboutCardStatusUpdate(CardEvent event) {
-        log.info("Event " + event + " has been received, sending message...");
-        kafkaTemplate.send(
-                MessageBuilder
-                        .withPayload(event)
-                        .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
-                        .setHeader(KafkaHeaders.TOPIC, kafkaTopic)
-                        .build()
-        );
+        log.info("Event " + event + " has been received, writing it to outbox...");
+        outboxWriter.write(kafkaTopic, event);
     }
 }
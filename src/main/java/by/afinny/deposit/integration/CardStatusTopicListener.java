@@ -5,8 +5,12 @@ import by.afinny.deposit.dto.kafka.CardEvent;
 import by.afinny.deposit.service.CardService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
 import org.springframework.messaging.Message;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -15,7 +19,18 @@ import org.springframework.stereotype.Component;
 public class CardStatusTopicListener {
 
     private final CardService cardService;
+    private final RetryMetrics retryMetrics;
 
+    @RetryableTopic(
+            attempts = RetryTopics.ATTEMPTS,
+            backoff = @Backoff(
+                    delayExpression = RetryTopics.DELAY,
+                    multiplierExpression = RetryTopics.MULTIPLIER,
+                    maxDelayExpression = RetryTopics.MAX_DELAY),
+            autoCreateTopics = RetryTopics.AUTO_CREATE_TOPICS,
+            kafkaTemplate = RetryTopics.KAFKA_TEMPLATE,
+            listenerContainerFactory = "listenerFactoryForCardStatus",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE)
     @KafkaListener(
             topics = "${kafka.topics.bank-system-card-status-listener.path}",
             groupId = "deposit-service",
@@ -23,6 +38,13 @@ public class CardStatusTopicListener {
     public void onRequestUpdateCardStatusEvent(Message<CardEvent> message) {
         CardEvent event = message.getPayload();
         log.info("Processing event: card number = " + event.getCardId() + ", card status = " + event.getCardStatus());
+        retryMetrics.recordDelivery(message);
         cardService.modifyCardStatus(event.getCardId(), event.getCardStatus());
     }
+
+    @DltHandler
+    public void onDeadLetter(Message<CardEvent> message) {
+        log.error("Card status event moved to the dead-letter topic: {}", message.getPayload());
+        retryMetrics.recordDeadLetter(message);
+    }
 }
@@ -0,0 +1,161 @@
+package by.afinny.deposit.integration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Actuator endpoint over the dead-letter topics of the listeners. Reading it reports how many records of every
+ * dead-letter topic haven't been replayed yet; writing to {@code /actuator/deadletters/<topic>} re-drives up to
+ * {@code limit} of them to the topic they were originally consumed from. Replayed offsets are committed for the
+ * replay consumer group, so every record is replayed once. Replaying re-drives money-moving events, so prod
+ * exposes the endpoint over JMX only and keeps it out of the web exposure.
+ */
+@Component
+@Endpoint(id = "deadletters")
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterEndpoint {
+
+    public static final String REPLAY_GROUP = "deposit-dlt-replay";
+    private static final int DEFAULT_LIMIT = 100;
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+    private final ConsumerFactory<String, byte[]> deadLetterConsumerFactory;
+    private final KafkaOperations<String, Object> kafkaTemplate;
+
+    @ReadOperation
+    public Map<String, Long> pending() {
+        Map<String, Long> pending = new TreeMap<>();
+        try (Consumer<String, byte[]> consumer = deadLetterConsumerFactory.createConsumer(REPLAY_GROUP, null)) {
+            for (String topic : getDeadLetterTopics()) {
+                Set<TopicPartition> partitions = getPartitions(consumer, topic);
+                Map<TopicPartition, OffsetAndMetadata> replayedOffsets = consumer.committed(partitions);
+                Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(partitions);
+                Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+                long size = 0;
+                for (TopicPartition partition : partitions) {
+                    OffsetAndMetadata replayedOffset = replayedOffsets.get(partition);
+                    long start = Math.max(beginningOffsets.get(partition), replayedOffset == null ? 0 : replayedOffset.offset());
+                    size += endOffsets.get(partition) - start;
+                }
+                pending.put(topic, size);
+            }
+        }
+        return pending;
+    }
+
+    @WriteOperation
+    public int replay(@Selector String topic, @Nullable Integer limit) {
+        if (!getDeadLetterTopics().contains(topic)) {
+            throw new IllegalArgumentException(topic + " isn't a dead-letter topic of this service");
+        }
+        int maxRecords = limit == null ? DEFAULT_LIMIT : limit;
+        log.info("replay() method invoke for " + topic + " with limit " + maxRecords);
+        Map<TopicPartition, OffsetAndMetadata> replayedOffsets = new HashMap<>();
+        int replayed = 0;
+        try (Consumer<String, byte[]> consumer = deadLetterConsumerFactory.createConsumer(REPLAY_GROUP, null)) {
+            consumer.assign(getPartitions(consumer, topic));
+            String originalTopic = getOriginalTopic(topic);
+            ConsumerRecords<String, byte[]> records;
+            do {
+                records = consumer.poll(POLL_TIMEOUT);
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (replayed == maxRecords) {
+                        break;
+                    }
+                    send(record, originalTopic);
+                    replayedOffsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                    replayed++;
+                }
+            } while (!records.isEmpty() && replayed < maxRecords);
+            if (!replayedOffsets.isEmpty()) {
+                consumer.commitSync(replayedOffsets);
+            }
+        }
+        log.info("Replayed " + replayed + " records of " + topic);
+        return replayed;
+    }
+
+    private void send(ConsumerRecord<String, byte[]> record, String originalTopic) {
+        try {
+            kafkaTemplate.send(new ProducerRecord<String, Object>(originalTopic, null, record.key(), record.value(),
+                            getApplicationHeaders(record.headers())))
+                    .get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Replaying record " + record.offset() + " of " + record.topic()
+                    + " to " + originalTopic + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Replay of " + record.topic() + " was interrupted", e);
+        }
+    }
+
+    /**
+     * {@code <topic>-dlt} holds the records of a record listener, {@code <topic>-failed-dlt} those of a batch
+     * listener; both are replayed to {@code <topic>}.
+     */
+    private String getOriginalTopic(String deadLetterTopic) {
+        String topic = deadLetterTopic.substring(0, deadLetterTopic.length() - RetryTopics.DLT_SUFFIX.length());
+        return topic.endsWith(RetryTopics.FAILED_SUFFIX)
+                ? topic.substring(0, topic.length() - RetryTopics.FAILED_SUFFIX.length())
+                : topic;
+    }
+
+    private Headers getApplicationHeaders(Headers headers) {
+        RecordHeaders applicationHeaders = new RecordHeaders();
+        for (Header header : headers) {
+            if (!header.key().startsWith("kafka_") && !header.key().startsWith("retry_topic-")) {
+                applicationHeaders.add(header);
+            }
+        }
+        return applicationHeaders;
+    }
+
+    private Set<TopicPartition> getPartitions(Consumer<String, byte[]> consumer, String topic) {
+        return consumer.partitionsFor(topic).stream()
+                .map(partition -> new TopicPartition(topic, partition.partition()))
+                .collect(Collectors.toSet());
+    }
+
+    private Set<String> getDeadLetterTopics() {
+        return kafkaListenerEndpointRegistry.getListenerContainers().stream()
+                .map(container -> container.getContainerProperties().getTopics())
+                .filter(Objects::nonNull)
+                .flatMap(Arrays::stream)
+                .filter(topic -> topic.endsWith(RetryTopics.DLT_SUFFIX))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,51 @@
+package by.afinny.deposit.integration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the size of every dead-letter topic, i.e. the records not replayed yet, as a gauge tagged by the topic.
+ * Counting them takes a round trip to the broker, so the sizes are refreshed on a schedule rather than on scrape;
+ * if the broker can't be reached the last sizes are kept.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterMetrics {
+
+    public static final String PENDING_DEAD_LETTERS_METRIC = "kafka.consumer.dead.letters.pending";
+    private static final String TOPIC_TAG = "topic";
+
+    private final DeadLetterEndpoint deadLetterEndpoint;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicLong> pendingByTopic = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelayString = "${kafka.retry.dead-letters-fixed-delay:60000}")
+    public void refresh() {
+        Map<String, Long> pending;
+        try {
+            pending = deadLetterEndpoint.pending();
+        } catch (RuntimeException e) {
+            log.warn("Dead-letter topic sizes weren't refreshed. " + e.getMessage());
+            return;
+        }
+        pending.forEach((topic, size) -> pendingByTopic.computeIfAbsent(topic, this::register).set(size));
+    }
+
+    private AtomicLong register(String topic) {
+        AtomicLong size = new AtomicLong();
+        Gauge.builder(PENDING_DEAD_LETTERS_METRIC, size, AtomicLong::get)
+                .description("Records of the dead-letter topic that haven't been replayed yet")
+                .tag(TOPIC_TAG, topic)
+                .register(meterRegistry);
+        return size;
+    }
+}
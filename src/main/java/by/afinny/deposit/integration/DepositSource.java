@@ -6,12 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.event.EventListener;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.MessageHeaders;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
-import org.springframework.util.MimeTypeUtils;
 
 @Component
 @RequiredArgsConstructor
@@ -19,7 +14,7 @@ import org.springframework.util.MimeTypeUtils;
 @ConditionalOnProperty("kafka.topics.deposit-service-producer.enabled")
 public class DepositSource {
 
-    private final KafkaTemplate<String, ?> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
 
     @Value("${kafka.topics.deposit-service-producer.path}")
     private String topic;
@@ -27,13 +22,7 @@ public class DepositSource {
     @EventListener
     public void sendMessageAboutDeposit(RequestNewDepositDto requestNewDepositDto) {
         log.info("sendMessageAboutDeposit() method invoke");
-        log.info("Dto " + requestNewDepositDto + " has been received, sending message...");
-        kafkaTemplate.send(
-                MessageBuilder
-                        .withPayload(requestNewDepositDto)
-                        .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
-                        .setHeader(KafkaHeaders.TOPIC, topic)
-                        .build()
-        );
+        log.info("Dto " + requestNewDepositDto + " has been received, writing it to outbox...");
+        outboxWriter.write(topic, requestNewDepositDto);
     }
 }
@@ -4,24 +4,61 @@ import by.afinny.deposit.entity.Agreement;
 import by.afinny.deposit.service.DepositService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
 import org.springframework.messaging.Message;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DepositTopicListener {
 
     private final DepositService depositService;
+    private final RetryMetrics retryMetrics;
 
     @KafkaListener(
             topics = "${kafka.topics.deposit-service-listener.path}",
             groupId = "deposit-service",
             containerFactory = "listenerFactory")
-    public void receiveDeposit(Message<Agreement> message) {
-        log.info("receiveDeposit() method invoke");
-        Agreement agreement = message.getPayload();
-        depositService.saveAgreement(agreement);
+    public void receiveDeposit(List<Message<Agreement>> messages) {
+        log.info("receiveDeposit() method invoke with " + messages.size() + " messages");
+        BatchProcessing.process(messages,
+                depositService::saveAgreements,
+                depositService::saveAgreement);
+    }
+
+    /**
+     * Receives the records that failed in a batch of {@link #receiveDeposit}.
+     */
+    @RetryableTopic(
+            attempts = RetryTopics.ATTEMPTS,
+            backoff = @Backoff(
+                    delayExpression = RetryTopics.DELAY,
+                    multiplierExpression = RetryTopics.MULTIPLIER,
+                    maxDelayExpression = RetryTopics.MAX_DELAY),
+            autoCreateTopics = RetryTopics.AUTO_CREATE_TOPICS,
+            kafkaTemplate = RetryTopics.KAFKA_TEMPLATE,
+            listenerContainerFactory = "listenerFactoryForFailedDeposit",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE)
+    @KafkaListener(
+            topics = "${kafka.topics.deposit-service-listener.path}" + RetryTopics.FAILED_SUFFIX,
+            groupId = "deposit-service",
+            containerFactory = "listenerFactoryForFailedDeposit")
+    public void receiveFailedDeposit(Message<Agreement> message) {
+        log.info("receiveFailedDeposit() method invoke");
+        retryMetrics.recordDelivery(message);
+        depositService.saveAgreement(message.getPayload());
+    }
+
+    @DltHandler
+    public void onDeadLetter(Message<Agreement> message) {
+        log.error("Deposit " + message.getPayload().getId() + " moved to the dead-letter topic");
+        retryMetrics.recordDeadLetter(message);
     }
 }
@@ -0,0 +1,175 @@
+package by.afinny.deposit.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.kafka.support.ProducerListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-topic latency histograms of the Kafka hot paths:
+ * <ul>
+ *     <li>consume lag - time from the record timestamp until a listener container hands the record over;</li>
+ *     <li>processing time - time the listener spent on a record or a batch, tagged by outcome;</li>
+ *     <li>publish latency - time from the send until the broker acknowledged the record.</li>
+ * </ul>
+ * The interceptors are set on the listener container factories, the producer listener on the template.
+ */
+@Component
+@RequiredArgsConstructor
+public class KafkaTopicMetrics {
+
+    public static final String CONSUME_LAG_METRIC = "kafka.consumer.lag";
+    public static final String PROCESSING_METRIC = "kafka.consumer.processing";
+    public static final String PUBLISH_METRIC = "kafka.producer.publish";
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+    private static final String TOPIC_TAG = "topic";
+    private static final String OUTCOME_TAG = "outcome";
+    private static final Duration MAX_EXPECTED_LAG = Duration.ofHours(1);
+
+    private final MeterRegistry meterRegistry;
+
+    public <K, V> RecordInterceptor<K, V> recordInterceptor() {
+        return new TimingRecordInterceptor<>();
+    }
+
+    public <K, V> BatchInterceptor<K, V> batchInterceptor() {
+        return new TimingBatchInterceptor<>();
+    }
+
+    public <K, V> ProducerListener<K, V> producerListener() {
+        return new TimingProducerListener<>();
+    }
+
+    private void recordConsumeLag(ConsumerRecord<?, ?> record) {
+        if (record.timestamp() < 0) {
+            return;
+        }
+        Timer.builder(CONSUME_LAG_METRIC)
+                .description("Time from the record timestamp until the record was received")
+                .tag(TOPIC_TAG, record.topic())
+                .publishPercentileHistogram()
+                .maximumExpectedValue(MAX_EXPECTED_LAG)
+                .register(meterRegistry)
+                .record(Math.max(0, meterRegistry.config().clock().wallTime() - record.timestamp()),
+                        TimeUnit.MILLISECONDS);
+    }
+
+    private void recordProcessing(Timer.Sample sample, String topic, String outcome) {
+        sample.stop(Timer.builder(PROCESSING_METRIC)
+                .description("Time the listener spent on a record or a batch")
+                .tag(TOPIC_TAG, topic)
+                .tag(OUTCOME_TAG, outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private class TimingRecordInterceptor<K, V> implements RecordInterceptor<K, V> {
+
+        private final ThreadLocal<Timer.Sample> sample = new ThreadLocal<>();
+
+        @Override
+        public ConsumerRecord<K, V> intercept(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+            recordConsumeLag(record);
+            sample.set(Timer.start(meterRegistry));
+            return record;
+        }
+
+        /**
+         * Still abstract in spring-kafka 2.8, the containers only call the variant with the consumer.
+         */
+        @Override
+        @Deprecated
+        public ConsumerRecord<K, V> intercept(ConsumerRecord<K, V> record) {
+            return intercept(record, null);
+        }
+
+        @Override
+        public void success(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+            stop(record, SUCCESS);
+        }
+
+        @Override
+        public void failure(ConsumerRecord<K, V> record, Exception exception, Consumer<K, V> consumer) {
+            stop(record, FAILURE);
+        }
+
+        private void stop(ConsumerRecord<K, V> record, String outcome) {
+            Timer.Sample started = sample.get();
+            sample.remove();
+            if (started != null) {
+                recordProcessing(started, record.topic(), outcome);
+            }
+        }
+    }
+
+    /**
+     * A batch is timed once for every topic it holds records of.
+     */
+    private class TimingBatchInterceptor<K, V> implements BatchInterceptor<K, V> {
+
+        private final ThreadLocal<Timer.Sample> sample = new ThreadLocal<>();
+
+        @Override
+        public ConsumerRecords<K, V> intercept(ConsumerRecords<K, V> records, Consumer<K, V> consumer) {
+            records.forEach(KafkaTopicMetrics.this::recordConsumeLag);
+            sample.set(Timer.start(meterRegistry));
+            return records;
+        }
+
+        @Override
+        public void success(ConsumerRecords<K, V> records, Consumer<K, V> consumer) {
+            stop(records, SUCCESS);
+        }
+
+        @Override
+        public void failure(ConsumerRecords<K, V> records, Exception exception, Consumer<K, V> consumer) {
+            stop(records, FAILURE);
+        }
+
+        private void stop(ConsumerRecords<K, V> records, String outcome) {
+            Timer.Sample started = sample.get();
+            sample.remove();
+            if (started != null) {
+                records.partitions().stream()
+                        .map(TopicPartition::topic)
+                        .distinct()
+                        .forEach(topic -> recordProcessing(started, topic, outcome));
+            }
+        }
+    }
+
+    /**
+     * The latency is measured against the timestamp the producer stamped the record with on send, so records
+     * sent with an explicit timestamp (e.g. replayed dead letters) are skipped. Failed sends are already counted
+     * by the template timer.
+     */
+    private class TimingProducerListener<K, V> implements ProducerListener<K, V> {
+
+        @Override
+        public void onSuccess(ProducerRecord<K, V> record, RecordMetadata metadata) {
+            if (record.timestamp() != null || metadata == null || !metadata.hasTimestamp()) {
+                return;
+            }
+            Timer.builder(PUBLISH_METRIC)
+                    .description("Time from the send until the broker acknowledged the record")
+                    .tag(TOPIC_TAG, metadata.topic())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(Math.max(0, meterRegistry.config().clock().wallTime() - metadata.timestamp()),
+                            TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package by.afinny.deposit.integration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class MessageKeyResolver {
+
+    private final Map<Class<?>, MessageKeyStrategy<?>> strategies;
+
+    public MessageKeyResolver(List<MessageKeyStrategy<?>> strategies) {
+        this.strategies = strategies.stream()
+                .collect(Collectors.toMap(MessageKeyStrategy::getEventType, Function.identity()));
+    }
+
+    /**
+     * @return the key of the event or null if there is no strategy for its type, such events are spread
+     * over the partitions by the producer
+     */
+    public String resolveKey(Object event) {
+        MessageKeyStrategy<?> strategy = strategies.get(event.getClass());
+        if (strategy == null) {
+            log.debug("No key strategy for " + event.getClass().getSimpleName());
+            return null;
+        }
+        return extractKey(strategy, event);
+    }
+
+    private <T> String extractKey(MessageKeyStrategy<T> strategy, Object event) {
+        return strategy.extractKey(strategy.getEventType().cast(event));
+    }
+}
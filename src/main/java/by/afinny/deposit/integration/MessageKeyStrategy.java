@@ -0,0 +1,31 @@
+package by.afinny.deposit.integration;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Extracts the Kafka record key of one event type. Records with the same key land on the same partition,
+ * so the key has to identify the aggregate whose events must stay ordered, and its format must not change
+ * while the topic is in use.
+ */
+public interface MessageKeyStrategy<T> {
+
+    Class<T> getEventType();
+
+    String extractKey(T event);
+
+    static <T> MessageKeyStrategy<T> of(Class<T> eventType, Function<T, ?> keyExtractor) {
+        return new MessageKeyStrategy<>() {
+
+            @Override
+            public Class<T> getEventType() {
+                return eventType;
+            }
+
+            @Override
+            public String extractKey(T event) {
+                return Objects.toString(keyExtractor.apply(event), null);
+            }
+        };
+    }
+}
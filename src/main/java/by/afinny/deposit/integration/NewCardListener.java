@@ -4,8 +4,12 @@ import by.afinny.deposit.dto.kafka.ConsumerNewCardEvent;
 import by.afinny.deposit.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
 import org.springframework.messaging.Message;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -14,7 +18,18 @@ import org.springframework.stereotype.Component;
 public class NewCardListener {
 
     private final OrderService orderService;
+    private final RetryMetrics retryMetrics;
 
+    @RetryableTopic(
+            attempts = RetryTopics.ATTEMPTS,
+            backoff = @Backoff(
+                    delayExpression = RetryTopics.DELAY,
+                    multiplierExpression = RetryTopics.MULTIPLIER,
+                    maxDelayExpression = RetryTopics.MAX_DELAY),
+            autoCreateTopics = RetryTopics.AUTO_CREATE_TOPICS,
+            kafkaTemplate = RetryTopics.KAFKA_TEMPLATE,
+            listenerContainerFactory = "kafkaListenerNewCard",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE)
     @KafkaListener(
             topics = "${kafka.topics.new-card-listener.path}",
             groupId = "deposit-service",
@@ -22,6 +37,13 @@ public class NewCardListener {
     public void onRequestInsertNewCard(Message<ConsumerNewCardEvent> message) {
         ConsumerNewCardEvent event = message.getPayload();
         log.info("Processing event: {}", event);
+        retryMetrics.recordDelivery(message);
         orderService.createNewCard(event);
     }
+
+    @DltHandler
+    public void onDeadLetter(Message<ConsumerNewCardEvent> message) {
+        log.error("New card event moved to the dead-letter topic: {}", message.getPayload());
+        retryMetrics.recordDeadLetter(message);
+    }
 }
@@ -6,12 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.event.EventListener;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.MessageHeaders;
-import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
-import org.springframework.util.MimeTypeUtils;
 
 @Component
 @RequiredArgsConstructor
@@ -19,20 +14,14 @@ import org.springframework.util.MimeTypeUtils;
 @ConditionalOnProperty("kafka.topics.new-card-producer.enabled")
 public class NewCardSource {
 
-    private final KafkaTemplate<String, ?> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
 
     @Value("${kafka.topics.new-card-producer.path}")
     private String topic;
 
     @EventListener
     public void sendMessageAboutNewCard(ProducerNewCardEvent event) {
-        log.info("Event {} has been received, sending message...", event);
-        kafkaTemplate.send(
-                MessageBuilder
-                        .withPayload(event)
-                        .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
-                        .setHeader(KafkaHeaders.TOPIC, topic)
-                        .build()
-        );
+        log.info("Event {} has been received, writing it to outbox...", event);
+        outboxWriter.write(topic, event);
     }
 }
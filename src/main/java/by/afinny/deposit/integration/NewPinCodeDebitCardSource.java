@@ -13,6 +13,10 @@ import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.MimeTypeUtils;
 
+/**
+ * Sends the new PIN straight to Kafka rather than through the outbox, so that it is never stored in the database.
+ * The PIN change has no business change of its own to commit with, so the outbox would not add anything here.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -20,6 +24,7 @@ import org.springframework.util.MimeTypeUtils;
 public class NewPinCodeDebitCardSource {
 
     private final KafkaTemplate<String, ?> kafkaTemplate;
+    private final MessageKeyResolver messageKeyResolver;
 
     @Value("${kafka.topics.new-pin-code-card-producer.path}")
     private String kafkaTopic;
@@ -32,6 +37,7 @@ public class NewPinCodeDebitCardSource {
                         .withPayload(newPinCodeDebitCardDto)
                         .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
                         .setHeader(KafkaHeaders.TOPIC, kafkaTopic)
+                        .setHeader(KafkaHeaders.MESSAGE_KEY, messageKeyResolver.resolveKey(newPinCodeDebitCardDto))
                         .build()
         );
     }
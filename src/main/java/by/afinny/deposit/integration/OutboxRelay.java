@@ -0,0 +1,216 @@
+package by.afinny.deposit.integration;
+
+import by.afinny.deposit.config.kafka.properties.KafkaConfigProperties;
+import by.afinny.deposit.entity.OutboxEvent;
+import by.afinny.deposit.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox table to Kafka in batches.
+ * <p>
+ * Only one instance relays at a time: a PostgreSQL session advisory lock is held on a connection of its own in
+ * auto-commit mode, so no transaction stays open while the relay waits for the broker. The batch is read, and the
+ * acknowledged rows deleted, in short transactions of their own. Events of an aggregate key are sent in the order
+ * they were written, with the key as the record key, and an event is sent only once the previous event of its key
+ * was acknowledged. An event that isn't acknowledged stays in the outbox together with the later events of its
+ * key, and is sent first with the next batch. An event that can't be read back is marked as failed; its key is
+ * held back from then on, while the other keys are relayed as usual.
+ * Delivery is at-least-once, consumers can drop duplicates by the {@link #EVENT_ID_HEADER} header.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty("kafka.outbox.enabled")
+public class OutboxRelay implements DisposableBean {
+
+    public static final String EVENT_ID_HEADER = "eventId";
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, ?> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final KafkaConfigProperties config;
+    private final JdbcTemplate jdbcTemplate;
+
+    private ThreadPoolTaskScheduler relayScheduler;
+
+    /**
+     * The relay runs on a thread of its own rather than on the shared scheduler, so that a long batch job such as
+     * the balance reconciliation or the partition maintenance never holds up event delivery.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (relayScheduler != null) {
+            return;
+        }
+        relayScheduler = new ThreadPoolTaskScheduler();
+        relayScheduler.setPoolSize(1);
+        relayScheduler.setThreadNamePrefix("outbox-relay-");
+        relayScheduler.initialize();
+        relayScheduler.scheduleWithFixedDelay(this::relay, config.getOutbox().getFixedDelay());
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (relayScheduler != null) {
+            relayScheduler.shutdown();
+        }
+    }
+
+    public void relay() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!callLockFunction(connection, "SELECT pg_try_advisory_lock(?)")) {
+                log.debug("Outbox is relayed by another instance");
+                return null;
+            }
+            try {
+                relayBatch();
+            } finally {
+                callLockFunction(connection, "SELECT pg_advisory_unlock(?)");
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Sends the batch in rounds. A round sends the oldest unsent event of every aggregate key, and the next event
+     * of a key is sent only in the round after the previous one was acknowledged, so a failed event can never be
+     * overtaken by a later event of its key. Events without a key have no order to keep and all go in the first
+     * round.
+     */
+    private void relayBatch() {
+        KafkaConfigProperties.Outbox outbox = config.getOutbox();
+        List<OutboxEvent> outboxEvents = outboxEventRepository.findRelayable(PageRequest.of(0, outbox.getBatchSize()));
+        if (outboxEvents.isEmpty()) {
+            return;
+        }
+
+        Map<String, Deque<OutboxEvent>> pendingByKey = new HashMap<>();
+        List<OutboxEvent> round = new ArrayList<>();
+        for (OutboxEvent outboxEvent : outboxEvents) {
+            String key = outboxEvent.getAggregateKey();
+            if (key == null) {
+                round.add(outboxEvent);
+            } else if (pendingByKey.containsKey(key)) {
+                pendingByKey.get(key).add(outboxEvent);
+            } else {
+                pendingByKey.put(key, new ArrayDeque<>());
+                round.add(outboxEvent);
+            }
+        }
+
+        List<Long> sentIds = new ArrayList<>(outboxEvents.size());
+        List<Long> failedIds = new ArrayList<>();
+        while (!round.isEmpty()) {
+            Map<OutboxEvent, ListenableFuture<? extends SendResult<String, ?>>> results = new LinkedHashMap<>();
+            for (OutboxEvent outboxEvent : round) {
+                Object payload;
+                try {
+                    payload = toPayload(outboxEvent);
+                } catch (JsonProcessingException | ClassNotFoundException e) {
+                    log.error("Outbox event " + outboxEvent.getId() + " can't be deserialized, marking it as failed. "
+                            + e.getMessage());
+                    failedIds.add(outboxEvent.getId());
+                    continue;
+                }
+                try {
+                    results.put(outboxEvent, send(outboxEvent, payload));
+                } catch (RuntimeException e) {
+                    log.error("Relaying outbox event " + outboxEvent.getId() + " failed. " + e.getMessage());
+                }
+            }
+
+            round = new ArrayList<>();
+            long deadline = System.nanoTime() + outbox.getSendTimeout().toNanos();
+            for (Map.Entry<OutboxEvent, ListenableFuture<? extends SendResult<String, ?>>> result : results.entrySet()) {
+                OutboxEvent outboxEvent = result.getKey();
+                try {
+                    result.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    log.error("Relaying outbox event " + outboxEvent.getId() + " failed. " + e.getMessage());
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    round.clear();
+                    break;
+                }
+                sentIds.add(outboxEvent.getId());
+                Deque<OutboxEvent> pending = outboxEvent.getAggregateKey() == null
+                        ? null
+                        : pendingByKey.get(outboxEvent.getAggregateKey());
+                if (pending != null && !pending.isEmpty()) {
+                    round.add(pending.poll());
+                }
+            }
+        }
+
+        if (!failedIds.isEmpty()) {
+            outboxEventRepository.markFailed(failedIds, LocalDateTime.now());
+        }
+        log.info("Relayed " + sentIds.size() + " of " + outboxEvents.size() + " outbox events");
+        if (!sentIds.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(sentIds);
+        }
+    }
+
+    private ListenableFuture<? extends SendResult<String, ?>> send(OutboxEvent outboxEvent, Object payload) {
+        return kafkaTemplate.send(
+                MessageBuilder
+                        .withPayload(payload)
+                        .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                        .setHeader(KafkaHeaders.TOPIC, outboxEvent.getTopic())
+                        .setHeader(KafkaHeaders.MESSAGE_KEY, outboxEvent.getAggregateKey())
+                        .setHeader(EVENT_ID_HEADER, String.valueOf(outboxEvent.getId()).getBytes(StandardCharsets.UTF_8))
+                        .build()
+        );
+    }
+
+    private Object toPayload(OutboxEvent outboxEvent) throws JsonProcessingException, ClassNotFoundException {
+        return objectMapper.readValue(outboxEvent.getPayload(), Class.forName(outboxEvent.getPayloadType()));
+    }
+
+    private static boolean callLockFunction(Connection connection, String lockFunction) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(lockFunction)) {
+            statement.setLong(1, RELAY_LOCK_KEY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
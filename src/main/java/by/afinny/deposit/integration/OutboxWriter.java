@@ -0,0 +1,48 @@
+package by.afinny.deposit.integration;
+
+import by.afinny.deposit.entity.OutboxEvent;
+import by.afinny.deposit.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stores outgoing events in the outbox table. Sources call it from the thread that published the event,
+ * so the event is committed (or rolled back) together with the business change, and {@link OutboxRelay}
+ * delivers it to Kafka later.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final MessageKeyResolver messageKeyResolver;
+
+    @Transactional
+    public void write(String topic, Object payload) {
+        log.info("Writing event " + payload + " for topic " + topic + " to outbox");
+        OutboxEvent outboxEvent = OutboxEvent.builder()
+                .topic(topic)
+                .aggregateKey(messageKeyResolver.resolveKey(payload))
+                .payloadType(payload.getClass().getName())
+                .payload(toJson(payload))
+                .createdAt(LocalDateTime.now())
+                .build();
+        outboxEventRepository.save(outboxEvent);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event " + payload + " can't be serialized", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package by.afinny.deposit.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts redeliveries from the retry topics and records moved to the dead-letter topics, tagged by the topic
+ * the record was received from.
+ */
+@Component
+@RequiredArgsConstructor
+public class RetryMetrics {
+
+    public static final String RETRIES_METRIC = "kafka.consumer.retries";
+    public static final String DEAD_LETTERS_METRIC = "kafka.consumer.dead.letters";
+    private static final String TOPIC_TAG = "topic";
+
+    private final MeterRegistry meterRegistry;
+
+    public void recordDelivery(Message<?> message) {
+        String topic = getReceivedTopic(message);
+        if (message.getHeaders().containsKey(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS)
+                || topic.endsWith(RetryTopics.FAILED_SUFFIX)) {
+            meterRegistry.counter(RETRIES_METRIC, TOPIC_TAG, topic).increment();
+        }
+    }
+
+    public void recordDeadLetter(Message<?> message) {
+        meterRegistry.counter(DEAD_LETTERS_METRIC, TOPIC_TAG, getReceivedTopic(message)).increment();
+    }
+
+    private String getReceivedTopic(Message<?> message) {
+        String topic = message.getHeaders().get(KafkaHeaders.RECEIVED_TOPIC, String.class);
+        return topic == null ? "unknown" : topic;
+    }
+}
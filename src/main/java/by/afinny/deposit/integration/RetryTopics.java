@@ -0,0 +1,24 @@
+package by.afinny.deposit.integration;
+
+/**
+ * Settings of the non-blocking retry chain shared by the listeners. A record that fails is forwarded to the next
+ * retry topic with an exponentially growing delay and, once the attempts are exhausted, to the dead-letter topic,
+ * so the partition it came from keeps moving. Retry topics can't be used with batch listeners, so these hand the
+ * failed record of a batch to {@code <topic>-failed}, a record listener with its own retry chain.
+ */
+public final class RetryTopics {
+
+    public static final String RETRY_SUFFIX = "-retry";
+    public static final String DLT_SUFFIX = "-dlt";
+    public static final String FAILED_SUFFIX = "-failed";
+
+    static final String ATTEMPTS = "${kafka.retry.attempts:4}";
+    static final String DELAY = "${kafka.retry.delay:1000}";
+    static final String MULTIPLIER = "${kafka.retry.multiplier:2}";
+    static final String MAX_DELAY = "${kafka.retry.max-delay:60000}";
+    static final String AUTO_CREATE_TOPICS = "${kafka.retry.auto-create-topics:true}";
+    static final String KAFKA_TEMPLATE = "kafkaTemplate";
+
+    private RetryTopics() {
+    }
+}
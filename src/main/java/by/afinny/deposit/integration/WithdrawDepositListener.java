@@ -4,24 +4,61 @@ import by.afinny.deposit.dto.kafka.ConsumerWithdrawEvent;
 import by.afinny.deposit.service.AgreementService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
 import org.springframework.messaging.Message;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class WithdrawDepositListener {
 
     private final AgreementService agreementService;
+    private final RetryMetrics retryMetrics;
 
     @KafkaListener(
             topics = "${kafka.topics.withdraw-listener.path}",
             groupId = "deposit",
-            containerFactory = "listenerFactory")
-    public void onRequestUpdateAgreementStatusAndInsertOperationEvent(Message<ConsumerWithdrawEvent> message) {
-        ConsumerWithdrawEvent event = message.getPayload();
-        log.info("Processing event: " + event);
-        agreementService.modifyAgreementAndCreateOperation(event);
+            containerFactory = "listenerFactoryForWithdrawDeposit")
+    public void onRequestUpdateAgreementStatusAndInsertOperationEvent(List<Message<ConsumerWithdrawEvent>> messages) {
+        log.info("Processing " + messages.size() + " events");
+        BatchProcessing.process(messages,
+                agreementService::modifyAgreementsAndCreateOperations,
+                agreementService::modifyAgreementAndCreateOperation);
+    }
+
+    /**
+     * Receives the records that failed in a batch of {@link #onRequestUpdateAgreementStatusAndInsertOperationEvent}.
+     */
+    @RetryableTopic(
+            attempts = RetryTopics.ATTEMPTS,
+            backoff = @Backoff(
+                    delayExpression = RetryTopics.DELAY,
+                    multiplierExpression = RetryTopics.MULTIPLIER,
+                    maxDelayExpression = RetryTopics.MAX_DELAY),
+            autoCreateTopics = RetryTopics.AUTO_CREATE_TOPICS,
+            kafkaTemplate = RetryTopics.KAFKA_TEMPLATE,
+            listenerContainerFactory = "listenerFactoryForFailedWithdrawDeposit",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE)
+    @KafkaListener(
+            topics = "${kafka.topics.withdraw-listener.path}" + RetryTopics.FAILED_SUFFIX,
+            groupId = "deposit",
+            containerFactory = "listenerFactoryForFailedWithdrawDeposit")
+    public void onFailedWithdrawEvent(Message<ConsumerWithdrawEvent> message) {
+        log.info("Retrying failed event: {}", message.getPayload());
+        retryMetrics.recordDelivery(message);
+        agreementService.modifyAgreementAndCreateOperation(message.getPayload());
+    }
+
+    @DltHandler
+    public void onDeadLetter(Message<ConsumerWithdrawEvent> message) {
+        log.error("Withdraw event moved to the dead-letter topic: {}", message.getPayload());
+        retryMetrics.recordDeadLetter(message);
     }
 }
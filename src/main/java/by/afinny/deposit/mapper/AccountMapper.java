@@ -5,9 +5,9 @@ import by.afinny.deposit.dto.AccountWithCardInfoDto;
 import by.afinny.deposit.dto.ViewCardDto;
 import by.afinny.deposit.dto.userservice.AccountDto;
 import by.afinny.deposit.entity.Account;
-import by.afinny.deposit.entity.Card;
+import by.afinny.deposit.repository.projection.AccountView;
+import by.afinny.deposit.repository.projection.AccountWithCardInfoView;
 import org.mapstruct.Mapper;
-import org.mapstruct.Mapping;
 
 import java.util.List;
 
@@ -16,14 +16,8 @@ public interface AccountMapper {
 
     List<AccountDto> toAccountsDto(List<Account> accounts);
 
-    @Mapping(source = "cardBalance", target = "balance")
-    List<AccountWithCardInfoDto> toAccountsWithCardsDto(List<Card> cards);
+    List<AccountDto> viewsToAccountsDto(List<AccountView> accounts);
 
-    @Mapping(source = "id", target = "cardId")
-    @Mapping(target = "currencyCode", expression = "java(card.getAccount().getCurrencyCode())")
-    @Mapping(target = "cardBalance", expression = "java(card.getBalance())")
-    @Mapping(target = "cardName", expression = "java(card.getCardProduct().getCardName())")
-    @Mapping(target = "paymentSystem", expression = "java(card.getCardProduct().getPaymentSystem())")
-    AccountWithCardInfoDto cardToAccountsWithCardsDto(Card card);
+    List<AccountWithCardInfoDto> viewsToAccountsWithCardsDto(List<AccountWithCardInfoView> views);
 
 }
\ No newline at end of file
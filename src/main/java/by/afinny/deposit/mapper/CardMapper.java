@@ -10,6 +10,8 @@ import by.afinny.deposit.dto.kafka.ConsumerNewCardEvent;
 import by.afinny.deposit.dto.kafka.ProducerNewCardEvent;
 import by.afinny.deposit.entity.Card;
 import by.afinny.deposit.entity.constant.CardStatus;
+import by.afinny.deposit.repository.projection.CardInfoView;
+import by.afinny.deposit.repository.projection.ViewCardView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -39,14 +41,7 @@ public interface CardMapper {
 
     CardNumberDto toCardNumberDto(String cardNumber);
 
-    CardInfoDto toCardInfoDto(Card card);
+    CardInfoDto toCardInfoDto(CardInfoView cardInfoView);
 
-    @Mapping(source = "id", target = "cardId")
-    @Mapping(target = "currencyCode", expression = "java(card.getAccount().getCurrencyCode())")
-    @Mapping(target = "cardBalance", expression = "java(card.getBalance())")
-    @Mapping(target = "cardName", expression = "java(card.getCardProduct().getCardName())")
-    @Mapping(target = "paymentSystem", expression = "java(card.getCardProduct().getPaymentSystem())")
-    @Mapping(target = "accountId", expression = "java(card.getAccount().getId())")
-    @Mapping(target = "accountNumber", expression = "java(card.getAccount().getAccountNumber())")
-    ViewCardDto toViewCardDto(Card card);
+    ViewCardDto toViewCardDto(ViewCardView viewCardView);
 }
\ No newline at end of file
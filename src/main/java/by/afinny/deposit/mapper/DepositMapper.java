@@ -9,9 +9,9 @@ import by.afinny.deposit.entity.Card;
 import by.afinny.deposit.entity.Operation;
 import by.afinny.deposit.entity.Product;
 import by.afinny.deposit.exception.DefaultCardNotFoundException;
+import by.afinny.deposit.repository.projection.ActiveDepositView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.mapstruct.Mappings;
 import org.mapstruct.Named;
 
 import java.math.BigDecimal;
@@ -29,29 +29,22 @@ public interface DepositMapper {
     @Mapping(source = "product.isRevocable", target = "isRevocable")
     DepositDto toDepositDto(Agreement agreement, Product product, Card card);
 
-    List<ActiveDepositDto> toActiveDepositsDto(List<Agreement> agreements);
+    List<ActiveDepositDto> viewsToActiveDepositsDto(List<ActiveDepositView> activeDeposits);
 
-    @Mappings({
-            @Mapping(source = "agreement.product.name", target = "productName"),
-            @Mapping(source = "agreement.product.currencyCode", target = "currencyCode"),
-            @Mapping(source = "agreement", target = "cardNumber", qualifiedByName = "getDefaultCard"),
-            @Mapping(source = "agreement.id", target = "agreementId")})
-    ActiveDepositDto toActiveDepositDto(Agreement agreement);
+    @Mapping(source = "cardNumber", target = "cardNumber", qualifiedByName = "requireDefaultCard")
+    ActiveDepositDto viewToActiveDepositDto(ActiveDepositView activeDeposit);
 
     @Mapping(target = "sum", qualifiedByName = "stringToBigDecimal")
     @Mapping(target = "completedAt", source = "completedAt")
     @Mapping(target = "account", source = "account")
     Operation refillDebitCardDtoToOperation(RefillDebitCardDto refillDebitCardDto, Account account, LocalDateTime completedAt);
 
-    @Named("getDefaultCard")
-    default String getDefaultCard(Agreement agreement) {
-
-        return agreement.getAccount().getCards().stream()
-                .filter(Card::getIsDefault)
-                .findFirst()
-                .orElseThrow(() -> new DefaultCardNotFoundException(
-                        "Cannot find default card"))
-                .getCardNumber();
+    @Named("requireDefaultCard")
+    default String requireDefaultCard(String cardNumber) {
+        if (cardNumber == null) {
+            throw new DefaultCardNotFoundException("Cannot find default card");
+        }
+        return cardNumber;
     }
 
     @Named("stringToBigDecimal")
@@ -1,11 +1,19 @@
 package by.afinny.deposit.mapper;
 
+import by.afinny.deposit.dto.OperationDto;
 import by.afinny.deposit.dto.kafka.ConsumerWithdrawEvent;
 import by.afinny.deposit.entity.Operation;
+import by.afinny.deposit.repository.projection.OperationView;
 import org.mapstruct.Mapper;
 
+import java.util.List;
+
 @Mapper
 public interface OperationMapper {
 
     Operation consumerWithdrawEventToOperation(ConsumerWithdrawEvent consumerWithdrawEvent);
+
+    OperationDto viewToOperationDto(OperationView operationView);
+
+    List<OperationDto> viewsToOperationDtos(List<OperationView> operationViews);
 }
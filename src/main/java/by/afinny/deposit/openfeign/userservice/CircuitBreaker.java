@@ -0,0 +1,114 @@
+package by.afinny.deposit.openfeign.userservice;
+
+import by.afinny.deposit.config.userservice.UserClientProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Count-based circuit breaker. It opens when the failure rate of the last {@code slidingWindowSize} calls reaches
+ * the threshold, rejects all calls for {@code waitDurationInOpenState} and then lets a few trial calls through:
+ * if all of them succeed it closes again, the first failure opens it again.
+ */
+@Slf4j
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumNumberOfCalls;
+    private final float failureRateThreshold;
+    private final long waitNanosInOpenState;
+    private final int permittedCallsInHalfOpenState;
+    private final boolean[] failedCalls;
+
+    private State state = State.CLOSED;
+    private int recordedCalls;
+    private int failures;
+    private int nextCall;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String name, UserClientProperties.CircuitBreaker properties) {
+        this.name = name;
+        this.minimumNumberOfCalls = properties.getMinimumNumberOfCalls();
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.waitNanosInOpenState = properties.getWaitDurationInOpenState().toNanos();
+        this.permittedCallsInHalfOpenState = properties.getPermittedCallsInHalfOpenState();
+        this.failedCalls = new boolean[properties.getSlidingWindowSize()];
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Every acquired permission has to be followed by {@link #onSuccess()} or {@link #onError()}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < waitNanosInOpenState) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == permittedCallsInHalfOpenState) {
+                return false;
+            }
+            halfOpenPermits++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses == permittedCallsInHalfOpenState) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onError() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recordedCalls >= minimumNumberOfCalls
+                && failures * 100f / recordedCalls >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == failedCalls.length) {
+            if (failedCalls[nextCall]) {
+                failures--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        failedCalls[nextCall] = failed;
+        if (failed) {
+            failures++;
+        }
+        nextCall = (nextCall + 1) % failedCalls.length;
+    }
+
+    private void transitionTo(State newState) {
+        log.warn("Circuit breaker " + name + " changed state from " + state + " to " + newState);
+        state = newState;
+        recordedCalls = 0;
+        failures = 0;
+        nextCall = 0;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAt = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package by.afinny.deposit.openfeign.userservice;
+
+import by.afinny.deposit.config.userservice.UserClientProperties;
+import by.afinny.deposit.dto.userservice.ClientByPhoneDto;
+import by.afinny.deposit.exception.UserServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import feign.FeignException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guards the calls of {@link UserClient}. Answers are cached for a short time, absent clients included, so that
+ * repeated lookups of a phone don't reach USER-SERVICE. Concurrent calls are limited by a bulkhead, so that a slow
+ * USER-SERVICE can't take all request threads, and a circuit breaker stops calling it while it keeps failing.
+ * A call that isn't permitted or fails falls back to the last answer for the phone, however stale.
+ */
+@Component
+@EnableConfigurationProperties(UserClientProperties.class)
+@Slf4j
+public class ResilientUserClient {
+
+    public static final String CACHE_NAME = "userClientByPhone";
+    public static final String CALLS_METRIC = "user.client.calls";
+    public static final String FALLBACKS_METRIC = "user.client.fallbacks";
+    public static final String CIRCUIT_BREAKER_STATE_METRIC = "user.client.circuit.breaker.state";
+    public static final String BULKHEAD_AVAILABLE_METRIC = "user.client.bulkhead.available.concurrent.calls";
+
+    private final UserClient userClient;
+    private final MeterRegistry meterRegistry;
+    private final Ticker ticker;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final long maxWaitNanos;
+    private final Cache<String, CachedClient> cache;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    @Autowired
+    public ResilientUserClient(UserClient userClient, UserClientProperties properties, MeterRegistry meterRegistry) {
+        this(userClient, properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    public ResilientUserClient(UserClient userClient, UserClientProperties properties, MeterRegistry meterRegistry,
+                               Ticker ticker) {
+        this.userClient = userClient;
+        this.meterRegistry = meterRegistry;
+        this.ticker = ticker;
+        this.ttlNanos = properties.getCache().getTtl().toNanos();
+        this.negativeTtlNanos = properties.getCache().getNegativeTtl().toNanos();
+        this.maxWaitNanos = properties.getBulkhead().getMaxWait().toNanos();
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(properties.getCache().getMaximumSize())
+                .expireAfterWrite(properties.getCache().getStaleTtl())
+                .ticker(ticker)
+                .recordStats()
+                .build(), CACHE_NAME);
+        this.bulkhead = new Semaphore(properties.getBulkhead().getMaxConcurrentCalls());
+        this.circuitBreaker = new CircuitBreaker("userClient", properties.getCircuitBreaker());
+        Gauge.builder(BULKHEAD_AVAILABLE_METRIC, bulkhead, Semaphore::availablePermits)
+                .register(meterRegistry);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder(CIRCUIT_BREAKER_STATE_METRIC, circuitBreaker, breaker -> breaker.getState() == state ? 1 : 0)
+                    .tag("state", state.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    public Optional<ClientByPhoneDto> getClientByPhone(String phoneNumber) {
+        CachedClient cached = cache.getIfPresent(phoneNumber);
+        if (cached != null && isFresh(cached)) {
+            return Optional.ofNullable(cached.client);
+        }
+        try {
+            ClientByPhoneDto client = callUserService(phoneNumber);
+            cache.put(phoneNumber, new CachedClient(client, ticker.read()));
+            return Optional.ofNullable(client);
+        } catch (UserServiceUnavailableException e) {
+            if (cached == null) {
+                meterRegistry.counter(FALLBACKS_METRIC, "result", "none").increment();
+                throw e;
+            }
+            log.warn("USER-SERVICE is unavailable, stale client is returned. " + e.getMessage());
+            meterRegistry.counter(FALLBACKS_METRIC, "result", "stale").increment();
+            return Optional.ofNullable(cached.client);
+        }
+    }
+
+    public CircuitBreaker.State getCircuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    private ClientByPhoneDto callUserService(String phoneNumber) {
+        if (!acquireBulkhead()) {
+            countCall("bulkhead_full");
+            throw new UserServiceUnavailableException("Too many concurrent calls to USER-SERVICE");
+        }
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                countCall("circuit_open");
+                throw new UserServiceUnavailableException("Circuit breaker of USER-SERVICE is open");
+            }
+            return callPermitted(phoneNumber);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Client errors mean that USER-SERVICE is up and are passed on, only server errors, timeouts and connection
+     * failures count as failures of the circuit breaker.
+     */
+    private ClientByPhoneDto callPermitted(String phoneNumber) {
+        try {
+            ClientByPhoneDto client = userClient.getClientByPhone(phoneNumber).getBody();
+            circuitBreaker.onSuccess();
+            countCall("success");
+            return client;
+        } catch (FeignException.NotFound e) {
+            circuitBreaker.onSuccess();
+            countCall("not_found");
+            return null;
+        } catch (FeignException.FeignClientException e) {
+            circuitBreaker.onSuccess();
+            countCall("client_error");
+            throw e;
+        } catch (FeignException e) {
+            circuitBreaker.onError();
+            countCall("failure");
+            throw new UserServiceUnavailableException("Call of USER-SERVICE failed with status " + e.status(), e);
+        } catch (RuntimeException e) {
+            circuitBreaker.onError();
+            countCall("failure");
+            throw e;
+        }
+    }
+
+    private boolean acquireBulkhead() {
+        if (maxWaitNanos == 0) {
+            return bulkhead.tryAcquire();
+        }
+        try {
+            return bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean isFresh(CachedClient cached) {
+        long ttl = cached.client == null ? negativeTtlNanos : ttlNanos;
+        return ticker.read() - cached.loadedAt < ttl;
+    }
+
+    private void countCall(String outcome) {
+        meterRegistry.counter(CALLS_METRIC, "outcome", outcome).increment();
+    }
+
+    private static final class CachedClient {
+
+        private final ClientByPhoneDto client;
+        private final long loadedAt;
+
+        private CachedClient(ClientByPhoneDto client, long loadedAt) {
+            this.client = client;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
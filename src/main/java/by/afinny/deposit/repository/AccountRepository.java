@@ -2,9 +2,20 @@ package by.afinny.deposit.repository;
 
 import by.afinny.deposit.entity.Account;
 import by.afinny.deposit.entity.constant.CurrencyCode;
+import by.afinny.deposit.repository.projection.AccountBalanceView;
+import by.afinny.deposit.repository.projection.AccountView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,8 +25,63 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
 
     List<Account> findByClientIdAndIsActiveTrue(UUID clientId);
 
+    List<AccountView> findViewsByClientIdAndIsActiveTrue(UUID clientId);
+
+    boolean existsByClientIdAndIsActiveTrue(UUID clientId);
+
+    boolean existsByIdAndClientId(UUID id, UUID clientId);
+
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
     Optional<Account> getAccountsByClientIdAndCurrencyCode(UUID clientId, CurrencyCode currencyCode);
 
+    /**
+     * Applies a card balance change to the account in a single statement, so concurrent changes of different
+     * cards of the same account cannot overwrite each other.
+     *
+     * @return number of updated rows: 0 if the account doesn't exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.currentBalance = a.currentBalance + :delta WHERE a.id = :accountId")
+    int addToBalance(@Param("accountId") UUID accountId, @Param("delta") BigDecimal delta);
+
+    /**
+     * Same as {@link #addToBalance(UUID, BigDecimal)} for the account of the card with the given number.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.currentBalance = a.currentBalance + :delta "
+            + "WHERE a.id = (SELECT c.account.id FROM Card c WHERE c.cardNumber = :cardNumber)")
+    int addToBalanceByCardNumber(@Param("cardNumber") String cardNumber, @Param("delta") BigDecimal delta);
+
+    /**
+     * Returns the next batch of accounts ordered by id, starting after the given id, together with the sum of
+     * their card balances.
+     */
+    @Query("SELECT a.id AS accountId, a.currentBalance AS currentBalance, COALESCE(SUM(c.balance), 0) AS cardsBalance "
+            + "FROM Account a LEFT JOIN a.cards c "
+            + "WHERE a.id > :afterId "
+            + "GROUP BY a.id, a.currentBalance "
+            + "ORDER BY a.id")
+    List<AccountBalanceView> findBalancesAfter(@Param("afterId") UUID afterId, Pageable pageable);
+
+    /**
+     * Reads the account with SELECT ... FOR UPDATE, so no card balance delta can be applied to it until the end of
+     * the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Account> findLockedById(UUID id);
+
+    /**
+     * Resets the account balance to the sum of its card balances. The sum is read in the same statement, so the
+     * account has to be locked with {@link #findLockedById(UUID)} first, otherwise a delta committed in between
+     * could be overwritten.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Account a SET a.currentBalance = "
+            + "(SELECT COALESCE(SUM(c.balance), 0) FROM Card c WHERE c.account.id = a.id) "
+            + "WHERE a.id = :accountId")
+    int resetBalanceToCards(@Param("accountId") UUID accountId);
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package by.afinny.deposit.repository;
 
 import by.afinny.deposit.entity.Agreement;
+import by.afinny.deposit.repository.projection.ActiveDepositView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -18,4 +21,16 @@ public interface AgreementRepository extends JpaRepository<Agreement, UUID> {
     Optional<Agreement> findByAccountClientIdAndId(UUID clientId, UUID id);
 
     List<Agreement> findByAccountClientIdAndIsActiveTrue(UUID clientId);
+
+    /**
+     * Reads the client's active agreements with their product and the default card of the account in one statement.
+     * The default card is found through the partial index card_account_id_default_index.
+     */
+    @Query("SELECT ag.id AS agreementId, ag.startDate AS startDate, ag.endDate AS endDate, "
+            + "ag.currentBalance AS currentBalance, p.name AS productName, p.currencyCode AS currencyCode, "
+            + "c.cardNumber AS cardNumber "
+            + "FROM Agreement ag JOIN ag.account a JOIN ag.product p "
+            + "LEFT JOIN a.cards c ON c.isDefault = true "
+            + "WHERE a.clientId = :clientId AND ag.isActive = true")
+    List<ActiveDepositView> findActiveDepositsByClientId(@Param("clientId") UUID clientId);
 }
@@ -2,9 +2,17 @@ package by.afinny.deposit.repository;
 
 import by.afinny.deposit.entity.Card;
 import by.afinny.deposit.entity.constant.CardStatus;
+import by.afinny.deposit.repository.projection.AccountWithCardInfoView;
+import by.afinny.deposit.repository.projection.CardInfoView;
+import by.afinny.deposit.repository.projection.ViewCardView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,4 +30,50 @@ public interface CardRepository extends JpaRepository<Card, UUID> {
     Optional<Card> findByIdAndStatusNot(UUID cardId, CardStatus excludingStatus);
 
     Optional<Card> findByAccountClientIdAndIdAndStatusNot(UUID clientId, UUID cardId, CardStatus excludingStatus);
+
+    Optional<CardInfoView> findCardInfoByAccountClientIdAndIdAndStatusNot(UUID clientId, UUID cardId,
+                                                                          CardStatus excludingStatus);
+
+    @Query("SELECT c.cardNumber FROM Card c WHERE c.id = :cardId")
+    Optional<String> findCardNumberById(@Param("cardId") UUID cardId);
+
+    @Query("SELECT c.id AS cardId, c.holderName AS holderName, c.status AS status, c.cardNumber AS cardNumber, "
+            + "c.expirationDate AS expirationDate, cp.cardName AS cardName, cp.paymentSystem AS paymentSystem, "
+            + "a.currencyCode AS currencyCode, c.balance AS cardBalance, a.id AS accountId, "
+            + "a.accountNumber AS accountNumber "
+            + "FROM Card c JOIN c.account a LEFT JOIN c.cardProduct cp "
+            + "WHERE a.clientId = :clientId AND c.id = :cardId")
+    Optional<ViewCardView> findViewCardByAccountClientIdAndId(@Param("clientId") UUID clientId,
+                                                              @Param("cardId") UUID cardId);
+
+    boolean existsByCardNumber(String cardNumber);
+
+    /**
+     * Reads the cards of the client's active accounts together with their card product and account currency
+     * in one statement, instead of walking the lazy account, card and card product associations.
+     */
+    @Query("SELECT c.id AS cardId, c.cardNumber AS cardNumber, c.expirationDate AS expirationDate, "
+            + "cp.cardName AS cardName, cp.paymentSystem AS paymentSystem, a.currencyCode AS currencyCode, "
+            + "c.balance AS cardBalance "
+            + "FROM Card c JOIN c.account a JOIN c.cardProduct cp "
+            + "WHERE a.clientId = :clientId AND a.isActive = true")
+    List<AccountWithCardInfoView> findCardInfoByActiveAccountsOfClient(@Param("clientId") UUID clientId);
+
+    /**
+     * Debits the card in a single conditional statement, so concurrent payments cannot overwrite each other.
+     *
+     * @return number of updated rows: 0 if the card doesn't exist or its balance is less than the sum
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Card c SET c.balance = c.balance - :sum WHERE c.cardNumber = :cardNumber AND c.balance >= :sum")
+    int debitBalance(@Param("cardNumber") String cardNumber, @Param("sum") BigDecimal sum);
+
+    /**
+     * Credits the card in a single statement, so a stale balance cannot overwrite a concurrent debit.
+     *
+     * @return number of updated rows: 0 if the card doesn't exist
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Card c SET c.balance = c.balance + :sum WHERE c.cardNumber = :cardNumber")
+    int creditBalance(@Param("cardNumber") String cardNumber, @Param("sum") BigDecimal sum);
 }
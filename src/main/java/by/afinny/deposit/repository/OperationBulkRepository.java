@@ -0,0 +1,14 @@
+package by.afinny.deposit.repository;
+
+import by.afinny.deposit.entity.Operation;
+
+import java.util.Collection;
+
+public interface OperationBulkRepository {
+
+    /**
+     * Inserts new operations with JDBC batches, bypassing the persistence context.
+     * Operations without an id get a time-ordered one assigned.
+     */
+    void insertAll(Collection<Operation> operations);
+}
@@ -0,0 +1,41 @@
+package by.afinny.deposit.repository;
+
+import by.afinny.deposit.entity.Operation;
+import by.afinny.deposit.entity.generator.TimeOrderedUuidGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collection;
+
+/**
+ * Spring Data fragment of {@link OperationRepository}. Runs in the caller's transaction, because the JPA
+ * transaction manager exposes its connection to {@link JdbcTemplate}.
+ */
+@RequiredArgsConstructor
+public class OperationBulkRepositoryImpl implements OperationBulkRepository {
+
+    static final int BATCH_SIZE = 500;
+    private static final String INSERT = "INSERT INTO " + Operation.TABLE_NAME
+            + " (id, account_id, completed_at, sum, details, currency_code, operation_type_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(Collection<Operation> operations) {
+        operations.stream()
+                .filter(operation -> operation.getId() == null)
+                .forEach(operation -> operation.setId(TimeOrderedUuidGenerator.next()));
+        jdbcTemplate.batchUpdate(INSERT, operations, BATCH_SIZE, (statement, operation) -> {
+            statement.setObject(1, operation.getId());
+            statement.setObject(2, operation.getAccount().getId());
+            statement.setTimestamp(3, Timestamp.valueOf(operation.getCompletedAt()));
+            statement.setBigDecimal(4, operation.getSum());
+            statement.setString(5, operation.getDetails());
+            statement.setString(6, operation.getCurrencyCode().name());
+            statement.setObject(7, operation.getType() == null ? null : operation.getType().getId(), Types.INTEGER);
+        });
+    }
+}
@@ -1,12 +1,58 @@
 package by.afinny.deposit.repository;
 
 import by.afinny.deposit.entity.Operation;
+import by.afinny.deposit.entity.constant.CurrencyCode;
+import by.afinny.deposit.repository.projection.OperationView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface OperationRepository extends JpaRepository<Operation, UUID> {
+public interface OperationRepository extends JpaRepository<Operation, UUID>, OperationBulkRepository {
 
+    String HISTORY_QUERY = "SELECT o.id AS operationId, o.completedAt AS completedAt, o.sum AS sum, "
+            + "o.details AS details, o.currencyCode AS currencyCode, t.type AS type, t.debit AS debit "
+            + "FROM Operation o JOIN o.type t "
+            + "WHERE o.account.id = :accountId "
+            + "AND (:type IS NULL OR t.type = :type) "
+            + "AND (:currencyCode IS NULL OR o.currencyCode = :currencyCode) "
+            + "AND o.completedAt >= :from ";
+    String HISTORY_ORDER = "ORDER BY o.completedAt DESC, o.id DESC";
+
+    /**
+     * Returns the newest operations of the account up to the given time, newest first.
+     */
+    @Query(HISTORY_QUERY
+            + "AND o.completedAt <= :to "
+            + HISTORY_ORDER)
+    List<OperationView> findHistory(@Param("accountId") UUID accountId,
+                                    @Param("type") String type,
+                                    @Param("currencyCode") CurrencyCode currencyCode,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to,
+                                    Pageable pageable);
+
+    /**
+     * Returns the operations of the account that come after the given one in history order, newest first.
+     * The redundant {@code completedAt <= :completedAt} bound lets the
+     * {@code (account_id, completed_at DESC, id DESC)} index start the scan at the cursor instead of skipping
+     * the rows of the previous pages.
+     */
+    @Query(HISTORY_QUERY
+            + "AND o.completedAt <= :completedAt "
+            + "AND (o.completedAt < :completedAt OR o.id < :operationId) "
+            + HISTORY_ORDER)
+    List<OperationView> findHistoryBefore(@Param("accountId") UUID accountId,
+                                          @Param("type") String type,
+                                          @Param("currencyCode") CurrencyCode currencyCode,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("completedAt") LocalDateTime completedAt,
+                                          @Param("operationId") UUID operationId,
+                                          Pageable pageable);
 }
@@ -0,0 +1,32 @@
+package by.afinny.deposit.repository;
+
+import by.afinny.deposit.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Events to relay in the order they were written. Keys that have an event marked as failed are left out, so
+     * that their later events don't overtake it.
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.failedAt IS NULL AND (e.aggregateKey IS NULL OR e.aggregateKey NOT IN "
+            + "(SELECT f.aggregateKey FROM OutboxEvent f WHERE f.failedAt IS NOT NULL AND f.aggregateKey IS NOT NULL)) "
+            + "ORDER BY e.id")
+    List<OutboxEvent> findRelayable(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.failedAt = :failedAt WHERE e.id IN :ids")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("failedAt") LocalDateTime failedAt);
+}
@@ -0,0 +1,32 @@
+package by.afinny.deposit.repository;
+
+import by.afinny.deposit.entity.ProcessedMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface ProcessedMessageRepository extends JpaRepository<ProcessedMessage, String> {
+
+    @Query("SELECT p.messageKey FROM ProcessedMessage p WHERE p.messageKey IN :messageKeys")
+    List<String> findExistingKeys(@Param("messageKeys") Collection<String> messageKeys);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.messageKey FROM ProcessedMessage p")
+    Stream<String> streamAllKeys();
+
+    @Modifying
+    @Query("DELETE FROM ProcessedMessage p WHERE p.processedAt < :before")
+    int deleteByProcessedAtBefore(@Param("before") LocalDateTime before);
+}
@@ -2,8 +2,11 @@ package by.afinny.deposit.repository;
 
 import by.afinny.deposit.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +16,15 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
     List<Product> findByIsActiveTrue();
 
     Optional<Product> findProductById(Integer id);
+
+    @Query("SELECT p FROM Product p WHERE p.isActive = true "
+            + "AND (p.activeSince IS NULL OR p.activeSince <= :now) "
+            + "AND (p.activeUntil IS NULL OR p.activeUntil > :now)")
+    List<Product> findActiveAt(@Param("now") Instant now);
+
+    @Query("SELECT MIN(p.activeSince) FROM Product p WHERE p.isActive = true AND p.activeSince > :now")
+    Optional<Instant> findNextActiveSinceAfter(@Param("now") Instant now);
+
+    @Query("SELECT MIN(p.activeUntil) FROM Product p WHERE p.isActive = true AND p.activeUntil > :now")
+    Optional<Instant> findNextActiveUntilAfter(@Param("now") Instant now);
 }
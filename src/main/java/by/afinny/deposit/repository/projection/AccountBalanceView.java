@@ -0,0 +1,13 @@
+package by.afinny.deposit.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface AccountBalanceView {
+
+    UUID getAccountId();
+
+    BigDecimal getCurrentBalance();
+
+    BigDecimal getCardsBalance();
+}
@@ -0,0 +1,26 @@
+package by.afinny.deposit.repository.projection;
+
+import by.afinny.deposit.entity.constant.CurrencyCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface AccountView {
+
+    String getAccountNumber();
+
+    UUID getClientId();
+
+    BigDecimal getCurrentBalance();
+
+    LocalDate getOpenDate();
+
+    LocalDate getCloseDate();
+
+    Boolean getIsActive();
+
+    String getSalaryProject();
+
+    CurrencyCode getCurrencyCode();
+}
@@ -0,0 +1,27 @@
+package by.afinny.deposit.repository.projection;
+
+import by.afinny.deposit.entity.constant.CurrencyCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface ActiveDepositView {
+
+    UUID getAgreementId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    BigDecimal getCurrentBalance();
+
+    String getProductName();
+
+    CurrencyCode getCurrencyCode();
+
+    /**
+     * @return number of the default card of the agreement's account or null if the account has none
+     */
+    String getCardNumber();
+}
@@ -0,0 +1,14 @@
+package by.afinny.deposit.repository.projection;
+
+import by.afinny.deposit.entity.constant.CardStatus;
+
+import java.math.BigDecimal;
+
+public interface CardInfoView {
+
+    String getHolderName();
+
+    CardStatus getStatus();
+
+    BigDecimal getTransactionLimit();
+}
@@ -0,0 +1,24 @@
+package by.afinny.deposit.repository.projection;
+
+import by.afinny.deposit.entity.constant.CurrencyCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface OperationView {
+
+    UUID getOperationId();
+
+    LocalDateTime getCompletedAt();
+
+    BigDecimal getSum();
+
+    String getDetails();
+
+    CurrencyCode getCurrencyCode();
+
+    String getType();
+
+    Boolean getDebit();
+}
@@ -0,0 +1,34 @@
+package by.afinny.deposit.repository.projection;
+
+import by.afinny.deposit.entity.constant.CardStatus;
+import by.afinny.deposit.entity.constant.CurrencyCode;
+import by.afinny.deposit.entity.constant.PaymentSystem;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface ViewCardView {
+
+    UUID getCardId();
+
+    String getHolderName();
+
+    CardStatus getStatus();
+
+    String getCardNumber();
+
+    LocalDate getExpirationDate();
+
+    String getCardName();
+
+    PaymentSystem getPaymentSystem();
+
+    CurrencyCode getCurrencyCode();
+
+    BigDecimal getCardBalance();
+
+    UUID getAccountId();
+
+    String getAccountNumber();
+}
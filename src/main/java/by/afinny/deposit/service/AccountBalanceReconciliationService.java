@@ -0,0 +1,11 @@
+package by.afinny.deposit.service;
+
+public interface AccountBalanceReconciliationService {
+
+    /**
+     * Verifies for every account that its current balance equals the sum of its card balances.
+     *
+     * @return number of accounts whose balance didn't match
+     */
+    int reconcileBalances();
+}
@@ -4,6 +4,7 @@ import by.afinny.deposit.dto.AutoRenewalDto;
 import by.afinny.deposit.dto.WithdrawDepositDto;
 import by.afinny.deposit.dto.kafka.ConsumerWithdrawEvent;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface AgreementService {
@@ -12,5 +13,7 @@ public interface AgreementService {
 
     void modifyAgreementAndCreateOperation(ConsumerWithdrawEvent consumerWithdrawEvent);
 
+    void modifyAgreementsAndCreateOperations(List<ConsumerWithdrawEvent> consumerWithdrawEvents);
+
     void updateAutoRenewal(UUID clientId, UUID agreementId, AutoRenewalDto autoRenewalDto);
 }
@@ -7,4 +7,8 @@ import java.util.List;
 public interface CardProductsService {
 
     List<CardProductDto> getAllCardProducts();
+
+    List<CardProductDto> refreshAllCardProducts();
+
+    void evictAllCardProducts();
 }
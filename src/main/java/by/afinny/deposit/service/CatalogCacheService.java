@@ -0,0 +1,18 @@
+package by.afinny.deposit.service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface CatalogCacheService {
+
+    void refreshCatalogs();
+
+    void evictCatalogs();
+
+    /**
+     * Schedules a refresh of the deposit product catalog at the next activeSince/activeUntil boundary.
+     *
+     * @return the scheduled refresh time or empty if no product changes its activity in the future
+     */
+    Optional<Instant> scheduleNextRefresh();
+}
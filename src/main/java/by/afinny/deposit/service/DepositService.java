@@ -15,6 +15,8 @@ public interface DepositService {
 
     void saveAgreement(Agreement agreement);
 
+    void saveAgreements(List<Agreement> agreements);
+
     DepositDto getDeposit(UUID clientId, UUID agreementId, UUID cardId);
 
     List<ActiveDepositDto> getActiveDeposits(UUID clientId);
@@ -0,0 +1,32 @@
+package by.afinny.deposit.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface IdempotencyService {
+
+    /**
+     * @return {@code true} if a message with the given business key has already been processed
+     */
+    boolean isProcessed(String messageKey);
+
+    /**
+     * @return the subset of the given business keys whose messages have already been processed
+     */
+    Set<String> findProcessed(Collection<String> messageKeys);
+
+    /**
+     * Records the message as processed. Must be called in the transaction that applies the message's effects,
+     * so that a concurrent redelivery fails on the primary key instead of applying them twice.
+     */
+    void markProcessed(String messageKey);
+
+    void markProcessed(Collection<String> messageKeys);
+
+    /**
+     * Forgets the keys older than the configured TTL.
+     *
+     * @return number of forgotten keys
+     */
+    int purgeExpired();
+}
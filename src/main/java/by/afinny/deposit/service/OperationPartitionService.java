@@ -0,0 +1,20 @@
+package by.afinny.deposit.service;
+
+import java.util.List;
+
+public interface OperationPartitionService {
+
+    /**
+     * Creates the monthly operation partitions from the current month up to the configured number of months ahead.
+     *
+     * @return names of the partitions that didn't exist before
+     */
+    List<String> createFuturePartitions();
+
+    /**
+     * Detaches the monthly operation partitions older than the retention period and moves them to the archive schema.
+     *
+     * @return names of the archived partitions
+     */
+    List<String> archiveExpiredPartitions();
+}
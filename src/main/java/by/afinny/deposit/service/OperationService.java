@@ -0,0 +1,17 @@
+package by.afinny.deposit.service;
+
+import by.afinny.deposit.dto.OperationHistoryDto;
+import by.afinny.deposit.dto.OperationHistoryFilterDto;
+
+import java.util.UUID;
+
+public interface OperationService {
+
+    /**
+     * Returns one page of the account's operations, newest first.
+     *
+     * @param cursor {@link OperationHistoryDto#getNextCursor()} of the previous page or null for the first page
+     */
+    OperationHistoryDto getOperationHistory(UUID clientId, UUID accountId, OperationHistoryFilterDto filter,
+                                            String cursor, int limit);
+}
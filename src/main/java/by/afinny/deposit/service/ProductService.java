@@ -2,9 +2,21 @@ package by.afinny.deposit.service;
 
 import by.afinny.deposit.dto.ProductDto;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 public interface ProductService {
 
     List<ProductDto> getActiveDepositProducts();
+
+    List<ProductDto> refreshActiveDepositProducts();
+
+    void evictActiveDepositProducts();
+
+    /**
+     * @return the nearest future activeSince or activeUntil of an active product, i.e. the next moment
+     * the list of active deposit products changes by itself
+     */
+    Optional<Instant> getNextActivityBoundary();
 }
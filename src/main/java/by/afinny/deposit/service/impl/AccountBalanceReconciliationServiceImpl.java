@@ -0,0 +1,76 @@
+package by.afinny.deposit.service.impl;
+
+import by.afinny.deposit.config.account.AccountReconciliationProperties;
+import by.afinny.deposit.repository.AccountRepository;
+import by.afinny.deposit.repository.projection.AccountBalanceView;
+import by.afinny.deposit.service.AccountBalanceReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Account balances are maintained incrementally: every card balance change adds its delta to the account in the
+ * same transaction. This job walks all accounts by id in batches and compares each balance with the sum of its
+ * card balances, so a change that bypassed the deltas is logged and, if enabled, repaired. A repair locks the
+ * account row before the card balances are summed up again: a change that has already updated a card waits for the
+ * lock and applies its delta on top of the repaired balance.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty("account.reconciliation.enabled")
+@EnableConfigurationProperties(AccountReconciliationProperties.class)
+public class AccountBalanceReconciliationServiceImpl implements AccountBalanceReconciliationService {
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final AccountRepository accountRepository;
+    private final AccountReconciliationProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    @Scheduled(fixedDelayString = "${account.reconciliation.fixed-delay:3600000}",
+            initialDelayString = "${account.reconciliation.initial-delay:60000}")
+    public int reconcileBalances() {
+        log.info("reconcileBalances() method invoke");
+        PageRequest batch = PageRequest.of(0, properties.getBatchSize());
+        UUID afterId = MIN_ID;
+        int checked = 0;
+        int mismatched = 0;
+        List<AccountBalanceView> balances;
+        do {
+            balances = accountRepository.findBalancesAfter(afterId, batch);
+            for (AccountBalanceView balance : balances) {
+                if (balance.getCurrentBalance().compareTo(balance.getCardsBalance()) != 0) {
+                    mismatched++;
+                    repair(balance);
+                }
+            }
+            checked += balances.size();
+            if (!balances.isEmpty()) {
+                afterId = balances.get(balances.size() - 1).getAccountId();
+            }
+        } while (balances.size() == properties.getBatchSize());
+        log.info("Reconciled " + checked + " accounts, " + mismatched + " balances didn't match");
+        return mismatched;
+    }
+
+    private void repair(AccountBalanceView balance) {
+        log.warn("Balance of account " + balance.getAccountId() + " is " + balance.getCurrentBalance()
+                + ", but its cards hold " + balance.getCardsBalance());
+        if (properties.isRepair()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                accountRepository.findLockedById(balance.getAccountId());
+                accountRepository.resetBalanceToCards(balance.getAccountId());
+            });
+        }
+    }
+}
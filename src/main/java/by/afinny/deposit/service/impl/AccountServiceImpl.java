@@ -3,21 +3,22 @@ package by.afinny.deposit.service.impl;
 import by.afinny.deposit.dto.AccountWithCardInfoDto;
 import by.afinny.deposit.dto.ViewCardDto;
 import by.afinny.deposit.dto.userservice.AccountDto;
-import by.afinny.deposit.entity.Account;
-import by.afinny.deposit.entity.Card;
 import by.afinny.deposit.exception.EntityNotFoundException;
 import by.afinny.deposit.mapper.AccountMapper;
 import by.afinny.deposit.mapper.CardMapper;
 import by.afinny.deposit.repository.AccountRepository;
 import by.afinny.deposit.repository.CardRepository;
+import by.afinny.deposit.repository.projection.AccountView;
+import by.afinny.deposit.repository.projection.AccountWithCardInfoView;
+import by.afinny.deposit.repository.projection.ViewCardView;
 import by.afinny.deposit.service.AccountService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import static by.afinny.deposit.entity.constant.CardStatus.BLOCKED;
 
@@ -32,27 +33,29 @@ public class AccountServiceImpl implements AccountService {
     private final CardMapper cardMapper;
 
     @Override
+    @Transactional(readOnly = true)
     public List<AccountDto> getActiveAccounts(UUID clientId) {
         log.info("getActiveAccounts() method invoke");
-        List<Account> accounts = accountRepository.findByClientIdAndIsActiveTrue(clientId);
-        return accountMapper.toAccountsDto(accounts);
+        List<AccountView> accounts = accountRepository.findViewsByClientIdAndIsActiveTrue(clientId);
+        return accountMapper.viewsToAccountsDto(accounts);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AccountWithCardInfoDto> getActiveAccountsWithCard(UUID clientId) {
         log.info("getActiveAccountsWithCards() method invoke with clientId: {}", clientId);
-        List<Account> accounts = accountRepository.findByClientIdAndIsActiveTrue(clientId);
-        if (accounts.isEmpty()) {
+        List<AccountWithCardInfoView> cards = cardRepository.findCardInfoByActiveAccountsOfClient(clientId);
+        if (cards.isEmpty() && !accountRepository.existsByClientIdAndIsActiveTrue(clientId)) {
             throw new EntityNotFoundException("There are no active accounts by id " + clientId);
         }
-        List<Card> cards = accounts.stream().flatMap(a -> a.getCards().stream()).collect(Collectors.toList());
-        return accountMapper.toAccountsWithCardsDto(cards);
+        return accountMapper.viewsToAccountsWithCardsDto(cards);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ViewCardDto getViewCardByCardId(UUID clientId, UUID cardId) {
         log.info("getViewCardByCardId() method invoke with cardId: {}", cardId);
-        Card card = cardRepository.findByAccountClientIdAndId(clientId, cardId).orElseThrow(
+        ViewCardView card = cardRepository.findViewCardByAccountClientIdAndId(clientId, cardId).orElseThrow(
                 () -> new EntityNotFoundException("card with card id " + cardId + " for client id " + clientId + " wasn't found"));
         return cardMapper.toViewCardDto(card);
     }
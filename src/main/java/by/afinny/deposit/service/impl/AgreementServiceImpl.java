@@ -18,6 +18,7 @@ import by.afinny.deposit.repository.AgreementRepository;
 import by.afinny.deposit.repository.CardRepository;
 import by.afinny.deposit.repository.OperationRepository;
 import by.afinny.deposit.service.AgreementService;
+import by.afinny.deposit.service.IdempotencyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
@@ -28,19 +29,31 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AgreementServiceImpl implements AgreementService {
 
+    private static final String WITHDRAW_KEY_PREFIX = "withdraw:";
+
     private final AgreementRepository agreementRepository;
     private final OperationRepository operationRepository;
     private final AccountRepository accountRepository;
     private final OperationMapper operationMapper;
     private final ApplicationEventPublisher eventPublisher;
     private final CardRepository cardRepository;
+    private final IdempotencyService idempotencyService;
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     @Override
@@ -55,28 +68,79 @@ public class AgreementServiceImpl implements AgreementService {
         BigDecimal currentBalance = agreementRepository.findById(agreementId)
                 .orElseThrow(() -> new EntityNotFoundException("agreement with id " + agreementId + " wasn't found"))
                 .getCurrentBalance();
-        card.setBalance(card.getBalance().add(currentBalance));
-        cardRepository.save(card);
-        Account account = card.getAccount();
-        sendToKafka(agreementId, account.getAccountNumber());
+        UUID accountId = card.getAccount().getId();
+        String accountNumber = card.getAccount().getAccountNumber();
+        cardRepository.creditBalance(card.getCardNumber(), currentBalance);
+        accountRepository.addToBalance(accountId, currentBalance);
+        sendToKafka(agreementId, accountNumber);
 
         //stub communication with ABS
-        consumeFromKafka(clientId, agreementId, account.getAccountNumber());
+        consumeFromKafka(clientId, agreementId, accountNumber);
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     @Override
     public void modifyAgreementAndCreateOperation(ConsumerWithdrawEvent consumerWithdrawEvent) {
         log.info("modifyAgreementAndInsertOperation() invoked");
+        String messageKey = toMessageKey(consumerWithdrawEvent);
+        if (idempotencyService.isProcessed(messageKey)) {
+            log.info("Withdraw event " + messageKey + " was already processed, event skipped");
+            return;
+        }
 
         Account account = accountRepository.findByAccountNumber(consumerWithdrawEvent.getAccountNumber())
                 .orElseThrow(() -> new EntityNotFoundException("account with number " + consumerWithdrawEvent.getAccountNumber() + " wasn't found"));
-        account.setCurrentBalance(account.getCurrentBalance().add(consumerWithdrawEvent.getSum()));
 
         modifyAgreement(consumerWithdrawEvent);
 
         Operation operation = createOperation(consumerWithdrawEvent, account);
         operationRepository.save(operation);
+        idempotencyService.markProcessed(messageKey);
+    }
+
+    /**
+     * Batch counterpart of {@link #modifyAgreementAndCreateOperation(ConsumerWithdrawEvent)}: all referenced
+     * accounts and agreements are loaded with one query each and the whole batch is written in one transaction,
+     * so that the inserts of the operations are sent to the database as JDBC batches. Events that were already
+     * processed, including repeated ones within the batch, are skipped.
+     * Throws {@link EntityNotFoundException} if any of the events references an unknown account or agreement.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public void modifyAgreementsAndCreateOperations(List<ConsumerWithdrawEvent> consumerWithdrawEvents) {
+        log.info("modifyAgreementsAndCreateOperations() invoked with {} events", consumerWithdrawEvents.size());
+
+        Map<String, ConsumerWithdrawEvent> newEvents = new LinkedHashMap<>();
+        consumerWithdrawEvents.forEach(event -> newEvents.putIfAbsent(toMessageKey(event), event));
+        newEvents.keySet().removeAll(idempotencyService.findProcessed(newEvents.keySet()));
+        if (newEvents.size() < consumerWithdrawEvents.size()) {
+            log.info("Skipped " + (consumerWithdrawEvents.size() - newEvents.size()) + " already processed withdraw events");
+        }
+        if (newEvents.isEmpty()) {
+            return;
+        }
+        Collection<ConsumerWithdrawEvent> events = newEvents.values();
+
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(
+                        collectKeys(events, ConsumerWithdrawEvent::getAccountNumber)).stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+        Map<UUID, Agreement> agreements = agreementRepository.findAllById(
+                        collectKeys(events, ConsumerWithdrawEvent::getAgreementId)).stream()
+                .collect(Collectors.toMap(Agreement::getId, Function.identity()));
+
+        List<Operation> operations = new ArrayList<>(events.size());
+        for (ConsumerWithdrawEvent consumerWithdrawEvent : events) {
+            Account account = Optional.ofNullable(accounts.get(consumerWithdrawEvent.getAccountNumber()))
+                    .orElseThrow(() -> new EntityNotFoundException("account with number " + consumerWithdrawEvent.getAccountNumber() + " wasn't found"));
+            Agreement agreement = Optional.ofNullable(agreements.get(consumerWithdrawEvent.getAgreementId()))
+                    .orElseThrow(() -> new EntityNotFoundException("agreement with id " + consumerWithdrawEvent.getAgreementId() + " wasn't found"));
+
+            updateAgreement(agreement, consumerWithdrawEvent);
+            operations.add(createOperation(consumerWithdrawEvent, account));
+        }
+        agreementRepository.saveAll(agreements.values());
+        operationRepository.insertAll(operations);
+        idempotencyService.markProcessed(newEvents.keySet());
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -108,10 +172,24 @@ public class AgreementServiceImpl implements AgreementService {
         Agreement agreement = agreementRepository.findById(consumerWithdrawEvent.getAgreementId()).orElseThrow(
                 () -> new EntityNotFoundException("agreement with id " + consumerWithdrawEvent.getAgreementId() + " wasn't found"));
 
+        updateAgreement(agreement, consumerWithdrawEvent);
+        agreementRepository.save(agreement);
+    }
+
+    private void updateAgreement(Agreement agreement, ConsumerWithdrawEvent consumerWithdrawEvent) {
         agreement.setIsActive(consumerWithdrawEvent.getIsActive());
         agreement.setCurrentBalance(consumerWithdrawEvent.getCurrentBalance());
         agreement.setEndDate(LocalDateTime.now().plusYears(1));
-        agreementRepository.save(agreement);
+    }
+
+    private <T> Set<T> collectKeys(Collection<ConsumerWithdrawEvent> consumerWithdrawEvents, Function<ConsumerWithdrawEvent, T> key) {
+        return consumerWithdrawEvents.stream()
+                .map(key)
+                .collect(Collectors.toSet());
+    }
+
+    private String toMessageKey(ConsumerWithdrawEvent consumerWithdrawEvent) {
+        return WITHDRAW_KEY_PREFIX + consumerWithdrawEvent.getAgreementId() + ":" + consumerWithdrawEvent.getCompletedAt();
     }
 
     private Operation createOperation(ConsumerWithdrawEvent consumerWithdrawEvent, Account account) {
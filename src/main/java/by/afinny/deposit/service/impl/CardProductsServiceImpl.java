@@ -1,5 +1,6 @@
 package by.afinny.deposit.service.impl;
 
+import by.afinny.deposit.config.redis.RedisConfig;
 import by.afinny.deposit.dto.CardProductDto;
 import by.afinny.deposit.entity.CardProduct;
 import by.afinny.deposit.mapper.CardProductMapper;
@@ -7,6 +8,8 @@ import by.afinny.deposit.repository.CardProductRepository;
 import by.afinny.deposit.service.CardProductsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import java.util.List;
@@ -20,10 +23,27 @@ public class CardProductsServiceImpl implements CardProductsService {
     private final CardProductMapper cardProductMapper;
 
     @Override
-    @Cacheable(value = "allCardProducts")
+    @Cacheable(value = RedisConfig.ALL_CARD_PRODUCTS, sync = true)
     public List<CardProductDto> getAllCardProducts() {
         log.info("getAllCardProducts() method invoke");
 
+        return findActiveCardProducts();
+    }
+
+    @Override
+    @CachePut(value = RedisConfig.ALL_CARD_PRODUCTS)
+    public List<CardProductDto> refreshAllCardProducts() {
+        log.info("refreshAllCardProducts() method invoke");
+        return findActiveCardProducts();
+    }
+
+    @Override
+    @CacheEvict(value = RedisConfig.ALL_CARD_PRODUCTS, allEntries = true)
+    public void evictAllCardProducts() {
+        log.info("evictAllCardProducts() method invoke");
+    }
+
+    private List<CardProductDto> findActiveCardProducts() {
         List<CardProduct> cardProducts = cardProductRepository.findAllByIsActiveTrue();
         return cardProductMapper.toCardProductDtoList(cardProducts);
     }
@@ -11,8 +11,11 @@ import by.afinny.deposit.entity.Card;
 import by.afinny.deposit.entity.constant.CardStatus;
 import by.afinny.deposit.exception.CardStatusesAreEqualsException;
 import by.afinny.deposit.exception.EntityNotFoundException;
+import by.afinny.deposit.exception.InsufficientFundsException;
 import by.afinny.deposit.mapper.CardMapper;
+import by.afinny.deposit.repository.AccountRepository;
 import by.afinny.deposit.repository.CardRepository;
+import by.afinny.deposit.repository.projection.CardInfoView;
 import by.afinny.deposit.service.CardService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +25,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-
 import java.math.BigDecimal;
 import java.util.UUID;
 
@@ -32,6 +34,7 @@ import java.util.UUID;
 public class CardServiceImpl implements CardService {
 
     private final CardRepository cardRepository;
+    private final AccountRepository accountRepository;
     private final CardMapper cardMapper;
     private final ApplicationEventPublisher eventPublisher;
 
@@ -73,18 +76,19 @@ public class CardServiceImpl implements CardService {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void deleteDebitCard(UUID clientId, UUID cardId) {
         log.info("deleteDebitCard() method invoked");
-        if (cardRepository.findByAccountClientIdAndId(clientId, cardId).isPresent()) {
-            cardRepository.deleteById(cardId);
-        } else {
-            throw new EntityNotFoundException("debit card with id " + cardId + " for client id " + clientId + " wasn't found");
-        }
+        Card card = cardRepository.findByAccountClientIdAndId(clientId, cardId)
+                .orElseThrow(() -> new EntityNotFoundException("debit card with id " + cardId + " for client id " + clientId + " wasn't found"));
+        cardRepository.deleteById(cardId);
+        accountRepository.addToBalance(card.getAccount().getId(), card.getBalance().negate());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CardNumberDto getCardNumberByCardId(UUID cardId) {
         log.info("getCardNumberByCardId() method invoke with cardId: {}", cardId);
-        Card card = getCardById(cardId);
-        return cardMapper.toCardNumberDto(card.getCardNumber());
+        String cardNumber = cardRepository.findCardNumberById(cardId)
+                .orElseThrow(() -> new EntityNotFoundException("Card with card number " + cardId + " wasn't found"));
+        return cardMapper.toCardNumberDto(cardNumber);
     }
 
     @Override
@@ -97,10 +101,11 @@ public class CardServiceImpl implements CardService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CardInfoDto getCardInfo(UUID clientId, UUID cardId) {
         log.info("getCardInfo() method invoke");
 
-        Card card = cardRepository.findByAccountClientIdAndIdAndStatusNot(clientId, cardId, CardStatus.CLOSED).orElseThrow(
+        CardInfoView card = cardRepository.findCardInfoByAccountClientIdAndIdAndStatusNot(clientId, cardId, CardStatus.CLOSED).orElseThrow(
                 () -> new EntityNotFoundException("debit card with card id " + cardId + " for client id " + clientId + " wasn't found")
         );
         return cardMapper.toCardInfoDto(card);
@@ -109,21 +114,19 @@ public class CardServiceImpl implements CardService {
     @Override
     @Transactional
     public Boolean writeOffSum(UUID clientId, CreatePaymentDepositDto createPaymentDepositDto) {
-        log.info("writeOffSum() method invoke with cardId: {}", createPaymentDepositDto.getRemitterCardNumber());
-        Card card = cardRepository.findByCardNumber(createPaymentDepositDto.getRemitterCardNumber())
-                .orElseThrow(() -> new EntityNotFoundException("Card with card number " +
-                        createPaymentDepositDto.getRemitterCardNumber() + " wasn't found"));
+        String cardNumber = createPaymentDepositDto.getRemitterCardNumber();
+        log.info("writeOffSum() method invoke with cardId: {}", cardNumber);
 
-
-        BigDecimal sum = card.getBalance().subtract(createPaymentDepositDto.getSum());
-        if (sum.compareTo(BigDecimal.valueOf(0.0)) != -1) {
-            card.setBalance(sum);
-            cardRepository.saveAndFlush(card);
-            log.info("Card balance " + card.getCardNumber() + " updated");
+        BigDecimal sum = createPaymentDepositDto.getSum();
+        if (cardRepository.debitBalance(cardNumber, sum) == 1) {
+            accountRepository.addToBalanceByCardNumber(cardNumber, sum.negate());
+            log.info("Card balance " + cardNumber + " updated");
             return true;
-        } else {
-            throw new RuntimeException("Insufficient funds in the brokerage account " + card.getCardNumber());
         }
+        if (!cardRepository.existsByCardNumber(cardNumber)) {
+            throw new EntityNotFoundException("Card with card number " + cardNumber + " wasn't found");
+        }
+        throw new InsufficientFundsException("Insufficient funds in the brokerage account " + cardNumber);
     }
 
     private Card getCardById(UUID cardId) {
@@ -0,0 +1,77 @@
+package by.afinny.deposit.service.impl;
+
+import by.afinny.deposit.service.CardProductsService;
+import by.afinny.deposit.service.CatalogCacheService;
+import by.afinny.deposit.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Keeps the catalog caches current without a TTL: the deposit product list only changes when a product is edited
+ * (refreshed through the admin API) or when an activeSince/activeUntil boundary passes, which is scheduled here.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogCacheServiceImpl implements CatalogCacheService {
+
+    private final ProductService productService;
+    private final CardProductsService cardProductsService;
+    private final TaskScheduler taskScheduler;
+
+    private ScheduledFuture<?> scheduledRefresh;
+
+    @Override
+    public void refreshCatalogs() {
+        log.info("refreshCatalogs() method invoke");
+        productService.refreshActiveDepositProducts();
+        cardProductsService.refreshAllCardProducts();
+        scheduleNextRefresh();
+    }
+
+    @Override
+    public void evictCatalogs() {
+        log.info("evictCatalogs() method invoke");
+        productService.evictActiveDepositProducts();
+        cardProductsService.evictAllCardProducts();
+        scheduleNextRefresh();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleNextRefresh();
+    }
+
+    @Override
+    public synchronized Optional<Instant> scheduleNextRefresh() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+            scheduledRefresh = null;
+        }
+        Optional<Instant> nextBoundary = productService.getNextActivityBoundary();
+        nextBoundary.ifPresent(boundary -> {
+            log.info("Next deposit product catalog refresh is scheduled at {}", boundary);
+            scheduledRefresh = taskScheduler.schedule(this::refreshAtBoundary, boundary);
+        });
+        return nextBoundary;
+    }
+
+    private void refreshAtBoundary() {
+        try {
+            productService.refreshActiveDepositProducts();
+        } catch (RuntimeException e) {
+            log.error("Scheduled deposit product catalog refresh failed, evicting it instead", e);
+            productService.evictActiveDepositProducts();
+        } finally {
+            scheduleNextRefresh();
+        }
+    }
+}
@@ -5,7 +5,7 @@ import by.afinny.deposit.dto.userservice.ClientByPhoneDto;
 import by.afinny.deposit.entity.Account;
 import by.afinny.deposit.entity.constant.CurrencyCode;
 import by.afinny.deposit.mapper.ClientMapper;
-import by.afinny.deposit.openfeign.userservice.UserClient;
+import by.afinny.deposit.openfeign.userservice.ResilientUserClient;
 import by.afinny.deposit.repository.AccountRepository;
 import by.afinny.deposit.service.ClientService;
 import lombok.RequiredArgsConstructor;
@@ -20,7 +20,7 @@ import java.util.UUID;
 @Slf4j
 public class ClientServiceImpl implements ClientService {
 
-    private final UserClient userClient;
+    private final ResilientUserClient userClient;
 
     private final AccountRepository accountRepository;
 
@@ -29,7 +29,7 @@ public class ClientServiceImpl implements ClientService {
     @Override
     public ClientDto getClientByPhoneNumber(UUID clientId, CurrencyCode currencyCode, String mobilePhone) {
         log.info("getClientByPhoneNumber() method invoke");
-        ClientByPhoneDto clientByPhoneDto = userClient.getClientByPhone(mobilePhone).getBody();
+        ClientByPhoneDto clientByPhoneDto = userClient.getClientByPhone(mobilePhone).orElse(null);
         if(clientByPhoneDto==null||!clientByPhoneDto.getClientId().equals(clientId)) {
             throw new EntityNotFoundException("clientId found by phone differs from auth client id = " + clientId);
         }
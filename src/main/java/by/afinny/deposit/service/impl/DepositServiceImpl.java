@@ -16,6 +16,7 @@ import by.afinny.deposit.repository.AgreementRepository;
 import by.afinny.deposit.repository.CardRepository;
 import by.afinny.deposit.repository.OperationRepository;
 import by.afinny.deposit.repository.ProductRepository;
+import by.afinny.deposit.repository.projection.ActiveDepositView;
 import by.afinny.deposit.service.DepositService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,8 +26,15 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -55,7 +63,25 @@ public class DepositServiceImpl implements DepositService {
         agreementRepository.save(agreement);
     }
 
+    /**
+     * Agreements and accounts referenced by the batch are loaded into the persistence context with one query each
+     * beforehand, so merging the received agreements doesn't issue a select per record.
+     */
     @Override
+    @Transactional
+    public void saveAgreements(List<Agreement> agreements) {
+        log.info("saveAgreements() method invoke with {} agreements", agreements.size());
+        agreementRepository.findAllById(collectIds(agreements.stream()
+                .map(Agreement::getId)));
+        accountRepository.findAllById(collectIds(agreements.stream()
+                .map(Agreement::getAccount)
+                .filter(Objects::nonNull)
+                .map(Account::getId)));
+        agreementRepository.saveAll(agreements);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public DepositDto getDeposit(UUID clientId, UUID agreementId, UUID cardId) {
         log.info("getDeposit() method invoke");
         Agreement agreement = getAgreement(clientId, agreementId);
@@ -65,10 +91,13 @@ public class DepositServiceImpl implements DepositService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ActiveDepositDto> getActiveDeposits(UUID clientId) {
         log.info("getActiveDeposits() method invoke with clientId: {}", clientId);
-        List<Agreement> agreements = agreementRepository.findByAccountClientIdAndIsActiveTrue(clientId);
-        return depositMapper.toActiveDepositsDto(agreements);
+        Map<UUID, ActiveDepositView> activeDeposits = agreementRepository.findActiveDepositsByClientId(clientId).stream()
+                .collect(Collectors.toMap(ActiveDepositView::getAgreementId, Function.identity(),
+                        (first, second) -> first, LinkedHashMap::new));
+        return depositMapper.viewsToActiveDepositsDto(new ArrayList<>(activeDeposits.values()));
     }
 
     @Override
@@ -89,6 +118,11 @@ public class DepositServiceImpl implements DepositService {
         operationRepository.save(operation);
     }
 
+    private Set<UUID> collectIds(Stream<UUID> ids) {
+        return ids.filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
     private Agreement getAgreement(UUID clientId, UUID agreementId) {
         return agreementRepository.findByAccountClientIdAndId(clientId, agreementId).orElseThrow(
                 () -> new EntityNotFoundException("agreement with id " + agreementId + "for client id " + clientId + " not found"));
@@ -0,0 +1,116 @@
+package by.afinny.deposit.service.impl;
+
+import by.afinny.deposit.config.kafka.properties.KafkaConfigProperties;
+import by.afinny.deposit.entity.ProcessedMessage;
+import by.afinny.deposit.repository.ProcessedMessageRepository;
+import by.afinny.deposit.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Deduplicates consumed messages by their business key. The {@code processed_message} table is the source of truth;
+ * an in-memory Bloom filter of all known keys answers the common case - a key that was never seen - without a query.
+ * A key the filter might contain is always checked against the table, so a false positive only costs a lookup.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final ProcessedMessageRepository processedMessageRepository;
+    private final KafkaConfigProperties.Idempotency properties;
+    private volatile BloomFilter knownKeys;
+
+    public IdempotencyServiceImpl(ProcessedMessageRepository processedMessageRepository,
+                                  KafkaConfigProperties kafkaConfigProperties) {
+        this.processedMessageRepository = processedMessageRepository;
+        this.properties = kafkaConfigProperties.getIdempotency();
+        this.knownKeys = newFilter();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadKnownKeys() {
+        BloomFilter filter = newFilter();
+        long loaded = 0;
+        try (Stream<String> keys = processedMessageRepository.streamAllKeys()) {
+            for (Iterator<String> iterator = keys.iterator(); iterator.hasNext(); loaded++) {
+                filter.put(iterator.next());
+            }
+        }
+        knownKeys = filter;
+        log.info("Loaded " + loaded + " processed message keys");
+    }
+
+    @Override
+    public boolean isProcessed(String messageKey) {
+        return knownKeys.mightContain(messageKey) && processedMessageRepository.existsById(messageKey);
+    }
+
+    @Override
+    public Set<String> findProcessed(Collection<String> messageKeys) {
+        BloomFilter filter = knownKeys;
+        List<String> candidates = messageKeys.stream()
+                .filter(filter::mightContain)
+                .distinct()
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(processedMessageRepository.findExistingKeys(candidates));
+    }
+
+    @Override
+    public void markProcessed(String messageKey) {
+        processedMessageRepository.save(toProcessedMessage(messageKey, LocalDateTime.now()));
+        knownKeys.put(messageKey);
+    }
+
+    @Override
+    public void markProcessed(Collection<String> messageKeys) {
+        LocalDateTime processedAt = LocalDateTime.now();
+        processedMessageRepository.saveAll(messageKeys.stream()
+                .map(messageKey -> toProcessedMessage(messageKey, processedAt))
+                .collect(Collectors.toList()));
+        BloomFilter filter = knownKeys;
+        messageKeys.forEach(filter::put);
+    }
+
+    /**
+     * A Bloom filter can't forget keys, so after the table is purged the filter is rebuilt from the remaining keys.
+     */
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${kafka.idempotency.purge-fixed-delay:3600000}",
+            initialDelayString = "${kafka.idempotency.purge-fixed-delay:3600000}")
+    public int purgeExpired() {
+        log.info("purgeExpired() method invoke");
+        int purged = processedMessageRepository.deleteByProcessedAtBefore(LocalDateTime.now().minus(properties.getTtl()));
+        log.info("Purged " + purged + " processed message keys");
+        loadKnownKeys();
+        return purged;
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(properties.getExpectedKeys(), properties.getFalsePositiveProbability());
+    }
+
+    private ProcessedMessage toProcessedMessage(String messageKey, LocalDateTime processedAt) {
+        return ProcessedMessage.builder()
+                .messageKey(messageKey)
+                .processedAt(processedAt)
+                .build();
+    }
+}
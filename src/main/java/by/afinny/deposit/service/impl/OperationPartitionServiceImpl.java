@@ -0,0 +1,164 @@
+package by.afinny.deposit.service.impl;
+
+import by.afinny.deposit.config.operation.OperationPartitionProperties;
+import by.afinny.deposit.entity.Operation;
+import by.afinny.deposit.service.OperationPartitionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly range partitions of the operation table: partitions are created a few months ahead, so
+ * that inserts never fall into the default partition, and partitions past the retention period are detached and
+ * moved to the archive schema, where they can be dumped or dropped without touching the live table.
+ * Every partition is handled in a transaction of its own, so one failing partition doesn't roll back the others.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty("operation.partitions.enabled")
+@EnableConfigurationProperties(OperationPartitionProperties.class)
+public class OperationPartitionServiceImpl implements OperationPartitionService {
+
+    private static final long MAINTENANCE_LOCK_KEY = 0x6f7065726174L;
+    private static final String PARTITION_PREFIX = Operation.TABLE_NAME + "_";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{4}_\\d{2})");
+    private static final String DEFAULT_PARTITION = PARTITION_PREFIX + "default";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OperationPartitionProperties properties;
+    private final TransactionTemplate partitionTransaction;
+
+    public OperationPartitionServiceImpl(JdbcTemplate jdbcTemplate, OperationPartitionProperties properties,
+                                         PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.partitionTransaction = new TransactionTemplate(transactionManager);
+        this.partitionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The transaction of the job only holds the maintenance lock, the partitions are changed in their own.
+     */
+    @Scheduled(cron = "${operation.partitions.cron:0 0 3 * * *}")
+    @Transactional
+    public void maintainPartitions() {
+        log.info("maintainPartitions() method invoke");
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK_KEY))) {
+            log.debug("Operation partitions are maintained by another instance");
+            return;
+        }
+        log.info("Created operation partitions " + createFuturePartitions());
+        log.info("Archived operation partitions " + archiveExpiredPartitions());
+    }
+
+    @Override
+    public List<String> createFuturePartitions() {
+        Set<String> existing = new HashSet<>(findPartitions());
+        YearMonth current = YearMonth.now();
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            String partition = partitionName(month);
+            if (!existing.contains(partition)) {
+                try {
+                    partitionTransaction.executeWithoutResult(status ->
+                            createPartition(partition, month, existing.contains(DEFAULT_PARTITION)));
+                    created.add(partition);
+                } catch (RuntimeException e) {
+                    log.error("Operation partition " + partition + " wasn't created. " + e.getMessage());
+                }
+            }
+        }
+        return created;
+    }
+
+    @Override
+    public List<String> archiveExpiredPartitions() {
+        YearMonth oldestRetained = YearMonth.now().minusMonths(properties.getRetentionMonths());
+        List<String> archived = new ArrayList<>();
+        for (String partition : findPartitions()) {
+            Optional<YearMonth> month = partitionMonth(partition);
+            if (month.isPresent() && month.get().isBefore(oldestRetained)) {
+                try {
+                    partitionTransaction.executeWithoutResult(status -> archivePartition(partition));
+                    archived.add(partition);
+                } catch (RuntimeException e) {
+                    log.error("Operation partition " + partition + " wasn't archived. " + e.getMessage());
+                }
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * A partition can't be created while the default partition holds rows of its range, e.g. future-dated
+     * operations or those inserted after a missed run. The default partition is then detached, the rows are moved
+     * to the new partition and the default partition is attached again, all within the same transaction.
+     */
+    private void createPartition(String partition, YearMonth month, boolean hasDefaultPartition) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        boolean hasDefaultRows = hasDefaultPartition && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE completed_at >= ? AND completed_at < ?)",
+                Boolean.class, from, to));
+        if (hasDefaultRows) {
+            jdbcTemplate.execute("ALTER TABLE " + Operation.TABLE_NAME + " DETACH PARTITION " + DEFAULT_PARTITION);
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition
+                + " PARTITION OF " + Operation.TABLE_NAME
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        if (hasDefaultRows) {
+            String range = " WHERE completed_at >= '" + from + "' AND completed_at < '" + to + "'";
+            int moved = jdbcTemplate.update("INSERT INTO " + partition + " SELECT * FROM " + DEFAULT_PARTITION + range);
+            jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + range);
+            jdbcTemplate.execute("ALTER TABLE " + Operation.TABLE_NAME
+                    + " ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+            log.warn("Moved " + moved + " operations from " + DEFAULT_PARTITION + " to " + partition);
+        }
+    }
+
+    private void archivePartition(String partition) {
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + properties.getArchiveSchema());
+        jdbcTemplate.execute("ALTER TABLE " + Operation.TABLE_NAME + " DETACH PARTITION " + partition);
+        jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + properties.getArchiveSchema());
+    }
+
+    private List<String> findPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = CAST(? AS regclass)",
+                String.class, Operation.TABLE_NAME);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static Optional<YearMonth> partitionMonth(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.parse(matcher.group(1), PARTITION_SUFFIX));
+    }
+}
@@ -0,0 +1,103 @@
+package by.afinny.deposit.service.impl;
+
+import by.afinny.deposit.dto.OperationHistoryDto;
+import by.afinny.deposit.dto.OperationHistoryFilterDto;
+import by.afinny.deposit.exception.EntityNotFoundException;
+import by.afinny.deposit.exception.InvalidCursorException;
+import by.afinny.deposit.mapper.OperationMapper;
+import by.afinny.deposit.repository.AccountRepository;
+import by.afinny.deposit.repository.OperationRepository;
+import by.afinny.deposit.repository.projection.OperationView;
+import by.afinny.deposit.service.OperationService;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Pages through the operation history with a keyset cursor on (completedAt, id), so every page costs the same
+ * index range scan no matter how deep into the history it is.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OperationServiceImpl implements OperationService {
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final String CURSOR_SEPARATOR = "_";
+
+    private final AccountRepository accountRepository;
+    private final OperationRepository operationRepository;
+    private final OperationMapper operationMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public OperationHistoryDto getOperationHistory(UUID clientId, UUID accountId, OperationHistoryFilterDto filter,
+                                                   String cursor, int limit) {
+        log.info("getOperationHistory() method invoke with accountId: {}", accountId);
+        if (!accountRepository.existsByIdAndClientId(accountId, clientId)) {
+            throw new EntityNotFoundException("account with id " + accountId + " for client id " + clientId + " wasn't found");
+        }
+        int pageSize = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        LocalDateTime from = Optional.ofNullable(filter.getFrom()).orElse(HISTORY_START);
+
+        List<OperationView> operations;
+        if (cursor == null || cursor.isEmpty()) {
+            LocalDateTime to = Optional.ofNullable(filter.getTo()).orElse(HISTORY_END);
+            operations = operationRepository.findHistory(
+                    accountId, filter.getType(), filter.getCurrencyCode(), from, to, page);
+        } else {
+            CursorPosition last = decodeCursor(cursor);
+            operations = operationRepository.findHistoryBefore(
+                    accountId, filter.getType(), filter.getCurrencyCode(), from,
+                    last.getCompletedAt(), last.getOperationId(), page);
+        }
+
+        String nextCursor = null;
+        if (operations.size() > pageSize) {
+            operations = operations.subList(0, pageSize);
+            nextCursor = encodeCursor(operations.get(pageSize - 1));
+        }
+        return OperationHistoryDto.builder()
+                .operations(operationMapper.viewsToOperationDtos(operations))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private String encodeCursor(OperationView operation) {
+        String position = operation.getCompletedAt() + CURSOR_SEPARATOR + operation.getOperationId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CursorPosition decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(CURSOR_SEPARATOR);
+            LocalDateTime completedAt = LocalDateTime.parse(position.substring(0, separator));
+            UUID operationId = UUID.fromString(position.substring(separator + 1));
+            return new CursorPosition(completedAt, operationId);
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException("cursor " + cursor + " is invalid");
+        }
+    }
+
+    @Value
+    private static class CursorPosition {
+        LocalDateTime completedAt;
+        UUID operationId;
+    }
+}
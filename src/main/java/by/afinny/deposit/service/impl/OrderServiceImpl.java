@@ -9,6 +9,7 @@ import by.afinny.deposit.mapper.CardMapper;
 import by.afinny.deposit.repository.AccountRepository;
 import by.afinny.deposit.repository.CardRepository;
 import by.afinny.deposit.repository.ProductRepository;
+import by.afinny.deposit.service.IdempotencyService;
 import by.afinny.deposit.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,11 +25,14 @@ import java.util.UUID;
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
+    private static final String NEW_CARD_KEY_PREFIX = "new-card:";
+
     private final ApplicationEventPublisher eventPublisher;
     private final CardMapper cardMapper;
     private final CardRepository cardRepository;
     private final AccountRepository accountRepository;
     private final ProductRepository productRepository;
+    private final IdempotencyService idempotencyService;
 
     @Override
     public void orderNewCard(UUID clientId, RequestNewCardDto requestNewCardDto) {
@@ -42,12 +46,21 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public void createNewCard(ConsumerNewCardEvent consumerNewCardEvent) {
         log.info("createNewCard() method invoke with event: {}", consumerNewCardEvent);
+        String messageKey = NEW_CARD_KEY_PREFIX + consumerNewCardEvent.getCardNumber();
+        if (idempotencyService.isProcessed(messageKey)) {
+            log.info("Card " + consumerNewCardEvent.getCardNumber() + " was already created, event skipped");
+            return;
+        }
         Card card = cardMapper.toCard(consumerNewCardEvent);
 
         Account account = getAccount(consumerNewCardEvent);
         card.setAccount(account);
 
         cardRepository.save(card);
+        if (card.getBalance() != null && card.getBalance().signum() != 0) {
+            accountRepository.addToBalance(account.getId(), card.getBalance());
+        }
+        idempotencyService.markProcessed(messageKey);
     }
 
     private Account getAccount(ConsumerNewCardEvent consumerNewCardEvent) {
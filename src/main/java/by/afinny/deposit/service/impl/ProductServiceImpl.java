@@ -1,5 +1,6 @@
 package by.afinny.deposit.service.impl;
 
+import by.afinny.deposit.config.redis.RedisConfig;
 import by.afinny.deposit.dto.ProductDto;
 import by.afinny.deposit.entity.Product;
 import by.afinny.deposit.mapper.ProductMapper;
@@ -7,10 +8,15 @@ import by.afinny.deposit.repository.ProductRepository;
 import by.afinny.deposit.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,10 +27,36 @@ public class ProductServiceImpl implements ProductService {
     private final ProductMapper productMapper;
 
     @Override
-    @Cacheable(value = "allActiveDepositProducts")
+    @Cacheable(value = RedisConfig.ALL_ACTIVE_DEPOSIT_PRODUCTS, sync = true)
     public List<ProductDto> getActiveDepositProducts() {
         log.info("getActiveDepositProducts() method invoked.");
-        List<Product> activeProducts = productRepository.findByIsActiveTrue();
+        return findActiveDepositProducts();
+    }
+
+    @Override
+    @CachePut(value = RedisConfig.ALL_ACTIVE_DEPOSIT_PRODUCTS)
+    public List<ProductDto> refreshActiveDepositProducts() {
+        log.info("refreshActiveDepositProducts() method invoked.");
+        return findActiveDepositProducts();
+    }
+
+    @Override
+    @CacheEvict(value = RedisConfig.ALL_ACTIVE_DEPOSIT_PRODUCTS, allEntries = true)
+    public void evictActiveDepositProducts() {
+        log.info("evictActiveDepositProducts() method invoked.");
+    }
+
+    @Override
+    public Optional<Instant> getNextActivityBoundary() {
+        log.info("getNextActivityBoundary() method invoked.");
+        Instant now = Instant.now();
+        return Stream.of(productRepository.findNextActiveSinceAfter(now), productRepository.findNextActiveUntilAfter(now))
+                .flatMap(Optional::stream)
+                .min(Instant::compareTo);
+    }
+
+    private List<ProductDto> findActiveDepositProducts() {
+        List<Product> activeProducts = productRepository.findActiveAt(Instant.now());
         return productMapper.productsToProductsDto(activeProducts);
     }
 }
@@ -0,0 +1,21 @@
+CREATE UNIQUE INDEX IF NOT EXISTS card_card_number_uindex
+    ON card (card_number);
+
+CREATE INDEX IF NOT EXISTS card_account_id_index
+    ON card (account_id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS account_account_number_uindex
+    ON account (account_number);
+
+CREATE INDEX IF NOT EXISTS account_client_id_active_index
+    ON account (client_id)
+    WHERE is_active;
+
+CREATE INDEX IF NOT EXISTS account_client_id_currency_code_index
+    ON account (client_id, currency_code);
+
+CREATE INDEX IF NOT EXISTS agreement_account_id_index
+    ON agreement (account_id);
+
+CREATE INDEX IF NOT EXISTS operation_account_id_index
+    ON operation (account_id);
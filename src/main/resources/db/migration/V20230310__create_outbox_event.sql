@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS outbox_event
+(
+    id            BIGSERIAL        PRIMARY KEY,
+    aggregate_key VARCHAR(64),
+    topic         VARCHAR(255)     NOT NULL,
+    payload_type  VARCHAR(255)     NOT NULL,
+    payload       TEXT             NOT NULL,
+    created_at    TIMESTAMP        NOT NULL DEFAULT now()
+);
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS card_account_id_default_index
+    ON card (account_id)
+    WHERE is_default;
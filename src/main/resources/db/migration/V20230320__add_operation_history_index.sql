@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS operation_account_id_completed_at_id_index
+    ON operation (account_id, completed_at DESC, id DESC);
+
+DROP INDEX IF EXISTS operation_account_id_index;
@@ -0,0 +1,48 @@
+ALTER TABLE operation RENAME TO operation_unpartitioned;
+
+CREATE TABLE operation
+(
+    id                UUID                        NOT NULL,
+    account_id        UUID                        NOT NULL REFERENCES account (id),
+    completed_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    sum               NUMERIC(19, 4)              NOT NULL,
+    details           TEXT,
+    currency_code     CHAR(3)                     NOT NULL,
+    operation_type_id INTEGER                     REFERENCES operation_type (id),
+    PRIMARY KEY (id, completed_at)
+) PARTITION BY RANGE (completed_at);
+
+-- Catches rows outside of the monthly partitions; stays empty as long as the partitions are created ahead of time.
+CREATE TABLE operation_default PARTITION OF operation DEFAULT;
+
+-- One partition per month from the oldest existing operation up to three months ahead,
+-- named operation_yyyy_mm like the partitions created by OperationPartitionService.
+DO
+$$
+    DECLARE
+        partition_month DATE;
+    BEGIN
+        FOR partition_month IN
+            SELECT generate_series(
+                           date_trunc('month', coalesce((SELECT min(completed_at) FROM operation_unpartitioned), now())),
+                           date_trunc('month', now()) + INTERVAL '3 months',
+                           INTERVAL '1 month')::DATE
+            LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF operation FOR VALUES FROM (%L) TO (%L)',
+                               'operation_' || to_char(partition_month, 'YYYY_MM'),
+                               partition_month,
+                               (partition_month + INTERVAL '1 month')::DATE);
+            END LOOP;
+    END
+$$;
+
+INSERT INTO operation (id, account_id, completed_at, sum, details, currency_code, operation_type_id)
+SELECT id, account_id, completed_at, sum, details, currency_code, operation_type_id
+FROM operation_unpartitioned;
+
+DROP TABLE operation_unpartitioned;
+
+CREATE INDEX operation_account_id_completed_at_id_index
+    ON operation (account_id, completed_at DESC, id DESC);
+
+CREATE SCHEMA IF NOT EXISTS operation_archive;
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS processed_message
+(
+    message_key   VARCHAR(255)     PRIMARY KEY,
+    processed_at  TIMESTAMP        NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS processed_message_processed_at_index
+    ON processed_message (processed_at);
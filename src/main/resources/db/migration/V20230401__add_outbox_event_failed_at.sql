@@ -0,0 +1,6 @@
+ALTER TABLE outbox_event
+    ADD COLUMN IF NOT EXISTS failed_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS outbox_event_pending_index
+    ON outbox_event (id)
+    WHERE failed_at IS NULL;
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS outbox_event_failed_key_index
+    ON outbox_event (aggregate_key)
+    WHERE failed_at IS NOT NULL;
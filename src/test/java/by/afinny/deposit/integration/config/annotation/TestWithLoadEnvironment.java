@@ -0,0 +1,33 @@
+package by.afinny.deposit.integration.config.annotation;
+
+import by.afinny.deposit.integration.config.initializer.KafkaContainerInitializer;
+import by.afinny.deposit.integration.config.initializer.PostgresContainerInitializer;
+import by.afinny.deposit.integration.config.initializer.RedisContainerInitializer;
+import by.afinny.deposit.integration.config.initializer.UserServiceStubInitializer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "kafka.enabled=true",
+                "spring.jpa.show-sql=false",
+                "user-client.cache.ttl=30s",
+                "user-client.cache.negative-ttl=10s"
+        }
+)
+@Testcontainers
+@ActiveProfiles("integration")
+@ContextConfiguration(initializers = {PostgresContainerInitializer.class, KafkaContainerInitializer.class,
+        RedisContainerInitializer.class, UserServiceStubInitializer.class})
+public @interface TestWithLoadEnvironment {
+}
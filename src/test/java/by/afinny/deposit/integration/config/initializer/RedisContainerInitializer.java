@@ -0,0 +1,26 @@
+package by.afinny.deposit.integration.config.initializer;
+
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+public class RedisContainerInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    private static final String REDIS_VERSION = "latest";
+    private static final DockerImageName REDIS_IMAGE = DockerImageName.parse("redis:" + REDIS_VERSION);
+    private static final int REDIS_PORT = 6379;
+
+    public static final GenericContainer<?> redis = new GenericContainer<>(REDIS_IMAGE)
+            .withExposedPorts(REDIS_PORT);
+
+    @Override
+    public void initialize(ConfigurableApplicationContext applicationContext) {
+        redis.start();
+        TestPropertyValues.of(
+                "spring.redis.host=" + redis.getHost(),
+                "spring.redis.port=" + redis.getMappedPort(REDIS_PORT)
+        ).applyTo(applicationContext.getEnvironment());
+    }
+}
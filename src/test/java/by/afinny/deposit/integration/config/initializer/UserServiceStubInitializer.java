@@ -0,0 +1,22 @@
+package by.afinny.deposit.integration.config.initializer;
+
+import by.afinny.deposit.utils.UserServiceStub;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Registers {@link UserServiceStub} as the only USER-SERVICE instance, so that the Feign client reaches it through
+ * the load balancer like the real service.
+ */
+public class UserServiceStubInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    public static final UserServiceStub userService = new UserServiceStub();
+
+    @Override
+    public void initialize(ConfigurableApplicationContext applicationContext) {
+        TestPropertyValues.of(
+                "spring.cloud.discovery.client.simple.instances.USER-SERVICE[0].uri=" + userService.getBaseUrl()
+        ).applyTo(applicationContext.getEnvironment());
+    }
+}
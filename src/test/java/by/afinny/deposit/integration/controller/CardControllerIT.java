@@ -26,8 +26,6 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
-import static by.afinny.deposit.entity.constant.CardStatus.BLOCKED;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -145,7 +143,8 @@ public class CardControllerIT {
                 .andExpect(status().isOk())
                 .andReturn();
         List<AccountWithCardInfoDto> accountsWithCardsDto = mappingUtils.getObjectListFromJson(result.getResponse().getContentAsString(), AccountWithCardInfoDto.class);
-        List<AccountWithCardInfoDto> accountsWithCardsDtoDB = getActiveDepositsFromAccounts(accounts);
+        List<AccountWithCardInfoDto> accountsWithCardsDtoDB = accountMapper.viewsToAccountsWithCardsDto(cardRepository
+                .findCardInfoByActiveAccountsOfClient(CLIENT_ID));
         //VERIFY
         verifyActiveProducts(accountsWithCardsDto, accountsWithCardsDtoDB);
     }
@@ -160,7 +159,7 @@ public class CardControllerIT {
                 .andReturn();
         ViewCardDto viewCardDto = mappingUtils.getObjectFromJson(result.getResponse().getContentAsString(), ViewCardDto.class);
         ViewCardDto viewCardDtoDB = cardMapper.toViewCardDto(cardRepository
-                .findByAccountClientIdAndId(CLIENT_ID, card.getId())
+                .findViewCardByAccountClientIdAndId(CLIENT_ID, card.getId())
                 .orElseThrow());
         //VERIFY
         verifyViewCardDto(viewCardDto, viewCardDtoDB);
@@ -188,7 +187,9 @@ public class CardControllerIT {
                 .andExpect(status().isOk())
                 .andReturn();
         CardInfoDto cardInfoDto = mappingUtils.getObjectFromJson(result.getResponse().getContentAsString(), CardInfoDto.class);
-        CardInfoDto cardInfoDtoDB = cardMapper.toCardInfoDto(card);
+        CardInfoDto cardInfoDtoDB = cardMapper.toCardInfoDto(cardRepository
+                .findCardInfoByAccountClientIdAndIdAndStatusNot(CLIENT_ID, card.getId(), CardStatus.CLOSED)
+                .orElseThrow());
         //VERIFY
         verifyCardInfoDto(cardInfoDto, cardInfoDtoDB);
     }
@@ -259,15 +260,6 @@ public class CardControllerIT {
                 .isEmpty();
     }
 
-    private List<AccountWithCardInfoDto> getActiveDepositsFromAccounts(List<Account> accounts) {
-        List<Card> cards = accounts
-                .stream()
-                .flatMap(a -> a.getCards().stream())
-                .filter(c -> c.getStatus() != BLOCKED)
-                .collect(Collectors.toList());
-        return accountMapper.toAccountsWithCardsDto(cards);
-    }
-
     private void verifyViewCardDto(ViewCardDto result, ViewCardDto actual) {
         assertSoftly(softAssertions -> {
             softAssertions.assertThat(result.getCardId())
@@ -200,7 +200,7 @@ public class DepositControllerIT {
                 .andExpect(status().isOk())
                 .andReturn();
         List<ActiveDepositDto> depositDto = mappingUtils.getObjectListFromJson(result.getResponse().getContentAsString(), ActiveDepositDto.class);
-        List<ActiveDepositDto> depositDtoDB = depositMapper.toActiveDepositsDto(agreements);
+        List<ActiveDepositDto> depositDtoDB = depositMapper.viewsToActiveDepositsDto(agreementRepository.findActiveDepositsByClientId(CLIENT_ID));
         //VERIFY
         verifyDeposits(depositDto, depositDtoDB);
     }
@@ -255,7 +255,7 @@ public class DepositControllerIT {
                 .andExpect(status().isOk())
                 .andReturn();
         ActiveDepositDto depositDto = mappingUtils.getObjectFromJson(result.getResponse().getContentAsString(), ActiveDepositDto.class);
-        ActiveDepositDto depositDtoDB = depositMapper.toActiveDepositDto(agreement);
+        ActiveDepositDto depositDtoDB = depositMapper.viewsToActiveDepositsDto(agreementRepository.findActiveDepositsByClientId(CLIENT_ID)).get(0);
         //VERIFY
         verifyDepositDto(depositDto, depositDtoDB);
     }
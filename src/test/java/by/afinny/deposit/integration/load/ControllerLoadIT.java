@@ -0,0 +1,145 @@
+package by.afinny.deposit.integration.load;
+
+import by.afinny.deposit.dto.userservice.ClientByPhoneDto;
+import by.afinny.deposit.integration.config.annotation.TestWithLoadEnvironment;
+import by.afinny.deposit.integration.config.initializer.UserServiceStubInitializer;
+import by.afinny.deposit.integration.load.LoadTestDataSeeder.SampleClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+/**
+ * Measures throughput and latency of the read endpoints of the card, deposit and product controllers against
+ * seeded production-like volumes, one endpoint at a time. Run with {@code mvn -Pload-test verify}; the results are
+ * written to {@code target/load-test/report.json} and the run fails if an endpoint misses its thresholds or
+ * regressed against {@code -Dload.baseline=<earlier report>}.
+ */
+@TestWithLoadEnvironment
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("ControllerLoadIT")
+class ControllerLoadIT {
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Environment environment;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private LoadTestProperties properties;
+    private List<SampleClient> clients;
+    private Map<String, EndpointResult> baseline;
+    private LoadGenerator loadGenerator;
+    private final List<EndpointResult> results = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() throws IOException {
+        properties = Binder.get(environment).bind("load", LoadTestProperties.class)
+                .orElseGet(LoadTestProperties::new);
+        LoadTestDataSeeder seeder = new LoadTestDataSeeder(jdbcTemplate);
+        seeder.seed(properties.getSeed());
+        clients = seeder.sampleClients(properties.getSeed().getSampleClients());
+
+        UserServiceStubInitializer.userService.setDelay(properties.getUserServiceDelay());
+        clients.forEach(client -> UserServiceStubInitializer.userService.stubClient(client.getMobilePhone(),
+                ClientByPhoneDto.builder()
+                        .clientId(client.getClientId())
+                        .firstName("Ivan")
+                        .lastName("Ivanov")
+                        .middleName("Ivanovich").build()));
+
+        baseline = properties.getBaseline() == null
+                ? Map.of()
+                : Arrays.stream(objectMapper.readValue(new File(properties.getBaseline()), EndpointResult[].class))
+                .collect(Collectors.toMap(EndpointResult::getEndpoint, Function.identity()));
+        loadGenerator = new LoadGenerator(properties.getConcurrency());
+    }
+
+    @AfterAll
+    void writeReport() throws IOException {
+        loadGenerator.close();
+        File report = new File(properties.getReport());
+        report.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(report, results);
+    }
+
+    Stream<Arguments> endpoints() {
+        return Stream.of(
+                endpoint("active-cards", client -> "/auth/deposit-cards?clientId=" + client.getClientId()),
+                endpoint("card", client -> "/auth/deposit-cards/" + client.getCardId()
+                        + "?clientId=" + client.getClientId()),
+                endpoint("active-deposits", client -> "/auth/deposits?clientId=" + client.getClientId()),
+                endpoint("deposit", client -> "/auth/deposits/" + client.getAgreementId()
+                        + "?clientId=" + client.getClientId() + "&cardId=" + client.getCardId()),
+                endpoint("deposit-products", client -> "/auth/deposit-products"),
+                endpoint("client-by-phone", client -> "/auth/accounts?clientId=" + client.getClientId()
+                        + "&mobilePhone=" + client.getMobilePhone() + "&currency_code=RUB")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("endpoints")
+    @DisplayName("Every endpoint should meet its latency and throughput thresholds")
+    void endpoint_shouldMeetThresholds(String endpoint, Function<SampleClient, String> path)
+            throws InterruptedException {
+        //ACT
+        EndpointResult result = loadGenerator.run(endpoint, () -> uri(path.apply(randomClient())),
+                properties.getWarmup(), properties.getDuration());
+        results.add(result);
+
+        //VERIFY
+        LoadTestProperties.Threshold threshold = properties.getThreshold(endpoint);
+        EndpointResult previous = baseline.get(endpoint);
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(result.getErrors()).as("errors of %s", endpoint).isZero();
+            softAssertions.assertThat(result.getP99()).as("p99 of %s, ms", endpoint)
+                    .isLessThanOrEqualTo(threshold.getP99().toMillis());
+            softAssertions.assertThat(result.getRps()).as("rps of %s", endpoint)
+                    .isGreaterThanOrEqualTo(threshold.getMinRps());
+            if (previous != null) {
+                softAssertions.assertThat(result.getP99()).as("p99 of %s against the baseline, ms", endpoint)
+                        .isLessThanOrEqualTo(previous.getP99() * (1 + properties.getMaxRegression()));
+                softAssertions.assertThat(result.getRps()).as("rps of %s against the baseline", endpoint)
+                        .isGreaterThanOrEqualTo(previous.getRps() * (1 - properties.getMaxRegression()));
+            }
+        });
+    }
+
+    private static Arguments endpoint(String name, Function<SampleClient, String> path) {
+        return Arguments.of(name, path);
+    }
+
+    private SampleClient randomClient() {
+        return clients.get(ThreadLocalRandom.current().nextInt(clients.size()));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
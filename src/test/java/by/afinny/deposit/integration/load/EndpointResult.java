@@ -0,0 +1,25 @@
+package by.afinny.deposit.integration.load;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Measurement of one endpoint, as written to and read back from the load-test report. Latencies are in
+ * milliseconds.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class EndpointResult {
+
+    private String endpoint;
+    private long requests;
+    private long errors;
+    private double rps;
+    private double p50;
+    private double p99;
+    private double max;
+}
@@ -0,0 +1,142 @@
+package by.afinny.deposit.integration.load;
+
+import by.afinny.deposit.config.execution.ExecutionMode;
+import by.afinny.deposit.dto.userservice.ClientByPhoneDto;
+import by.afinny.deposit.integration.config.annotation.TestWithLoadEnvironment;
+import by.afinny.deposit.integration.config.initializer.UserServiceStubInitializer;
+import by.afinny.deposit.integration.load.LoadTestDataSeeder.SampleClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+/**
+ * Throughput ceiling of the execution modes, see {@link ExecutionMode}, measured on the client-by-phone endpoint,
+ * which waits on the user service before it takes a connection. Every mode boots an application of its own on the
+ * same seeded database and is loaded by more workers than Tomcat has threads; the user client cache and bulkhead
+ * are opened up, so that every request reaches the user service. The results are written to
+ * {@code target/load-test/execution-modes.json}. The virtual mode is skipped, rather than measured as its bounded
+ * fallback, unless the tests run on a JDK with virtual threads: {@code mvn -Pload-test verify
+ * -Dit.test=ExecutionModeLoadIT -Dload.jvm=<JDK 21+>/bin/java}.
+ */
+@TestWithLoadEnvironment
+@TestPropertySource(properties = {
+        "user-client.cache.ttl=0s",
+        "user-client.cache.negative-ttl=0s",
+        "user-client.bulkhead.max-concurrent-calls=100000"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("ExecutionModeLoadIT")
+class ExecutionModeLoadIT {
+
+    private static final String ENDPOINT = "client-by-phone";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Environment environment;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private LoadTestProperties properties;
+    private List<SampleClient> clients;
+    private final List<EndpointResult> results = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() {
+        properties = Binder.get(environment).bind("load", LoadTestProperties.class)
+                .orElseGet(LoadTestProperties::new);
+        LoadTestDataSeeder seeder = new LoadTestDataSeeder(jdbcTemplate);
+        seeder.seed(properties.getSeed());
+        clients = seeder.sampleClients(properties.getSeed().getSampleClients());
+
+        UserServiceStubInitializer.userService.setDelay(properties.getExecutionModes().getUserServiceDelay());
+        clients.forEach(client -> UserServiceStubInitializer.userService.stubClient(client.getMobilePhone(),
+                ClientByPhoneDto.builder()
+                        .clientId(client.getClientId())
+                        .firstName("Ivan")
+                        .lastName("Ivanov")
+                        .middleName("Ivanovich").build()));
+    }
+
+    @AfterAll
+    void writeReport() throws IOException {
+        File report = new File(properties.getExecutionModes().getReport());
+        report.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(report, results);
+    }
+
+    @Nested
+    @DisplayName("platform")
+    class Platform extends ModeLoad {
+    }
+
+    @Nested
+    @DisplayName("bounded")
+    @TestPropertySource(properties = "execution.mode=bounded")
+    class Bounded extends ModeLoad {
+    }
+
+    @Nested
+    @DisplayName("virtual")
+    @TestPropertySource(properties = "execution.mode=virtual")
+    @EnabledIf("by.afinny.deposit.config.execution.RequestExecutors#isVirtualThreadsAvailable")
+    class Virtual extends ModeLoad {
+    }
+
+    abstract class ModeLoad {
+
+        @LocalServerPort
+        private int port;
+        @Autowired
+        private Environment modeEnvironment;
+
+        @Test
+        @DisplayName("The endpoint should be served without errors at the ceiling of the mode")
+        void endpoint_shouldBeServedWithoutErrors() throws InterruptedException {
+            //ARRANGE
+            String mode = modeEnvironment.getProperty("execution.mode", "platform");
+            String name = ENDPOINT + "@" + mode;
+
+            //ACT
+            EndpointResult result;
+            try (LoadGenerator loadGenerator = new LoadGenerator(properties.getExecutionModes().getConcurrency())) {
+                result = loadGenerator.run(name, this::randomRequest, properties.getWarmup(), properties.getDuration());
+            }
+            results.add(result);
+
+            //VERIFY
+            LoadTestProperties.Threshold threshold = properties.getThreshold(name);
+            assertSoftly(softAssertions -> {
+                softAssertions.assertThat(result.getErrors()).as("errors of %s", name).isZero();
+                softAssertions.assertThat(result.getRps()).as("rps of %s", name)
+                        .isGreaterThanOrEqualTo(threshold.getMinRps());
+            });
+        }
+
+        private URI randomRequest() {
+            SampleClient client = clients.get(ThreadLocalRandom.current().nextInt(clients.size()));
+            return URI.create("http://localhost:" + port + "/auth/accounts?clientId=" + client.getClientId()
+                    + "&mobilePhone=" + client.getMobilePhone() + "&currency_code=RUB");
+        }
+    }
+}
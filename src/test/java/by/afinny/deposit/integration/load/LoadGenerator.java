@@ -0,0 +1,109 @@
+package by.afinny.deposit.integration.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Closed-model HTTP load: {@code concurrency} workers send requests back to back, each one as soon as the previous
+ * one was answered. Latencies are recorded in microseconds; the warmup is run the same way and discarded.
+ */
+@Slf4j
+public class LoadGenerator implements AutoCloseable {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final int concurrency;
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+
+    public LoadGenerator(int concurrency) {
+        this.concurrency = concurrency;
+        this.executor = Executors.newFixedThreadPool(concurrency);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+    }
+
+    public EndpointResult run(String endpoint, Supplier<URI> requests, Duration warmup, Duration duration)
+            throws InterruptedException {
+        load(requests, warmup, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3), new AtomicLong());
+
+        Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        load(requests, duration, latencies, errors);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        EndpointResult result = new EndpointResult(endpoint, latencies.getTotalCount(), errors.get(),
+                latencies.getTotalCount() / seconds,
+                latencies.getValueAtPercentile(50) / 1000.0,
+                latencies.getValueAtPercentile(99) / 1000.0,
+                latencies.getMaxValue() / 1000.0);
+        log.info(result.toString());
+        return result;
+    }
+
+    private void load(Supplier<URI> requests, Duration duration, Histogram latencies, AtomicLong errors)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<?>> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    send(requests.get(), latencies, errors);
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load worker failed", e.getCause());
+            }
+        }
+    }
+
+    private void send(URI uri, Histogram latencies, AtomicLong errors) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                errors.incrementAndGet();
+            }
+        } catch (IOException e) {
+            errors.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        latencies.recordValue(Math.min((System.nanoTime() - start) / 1000, MAX_LATENCY_MICROS));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,94 @@
+package by.afinny.deposit.integration.load;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Seeds the database with production-like volumes. Rows are generated by Postgres itself, one
+ * {@code INSERT ... SELECT generate_series} per table, which fills millions of operations in seconds rather than
+ * the minutes that batched inserts from here would take. Account {@code n} has the account number {@code n}, its
+ * cards the numbers {@code n * cardsPerClient + i} and one active agreement.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LoadTestDataSeeder {
+
+    private static final int CARD_PRODUCTS = 5;
+    private static final int DEPOSIT_PRODUCTS = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void seed(LoadTestProperties.Seed seed) {
+        long start = System.nanoTime();
+        jdbcTemplate.execute("TRUNCATE TABLE account, product, agreement, operation, card_product, card, "
+                + "outbox_event, processed_message CASCADE");
+        jdbcTemplate.update("INSERT INTO card_product (id, card_name, payment_system, premium_status, service_price, "
+                + "product_price, currency_code, is_active, card_duration) "
+                + "SELECT g, 'Card ' || g, CASE WHEN g % 2 = 0 THEN 'VISA' ELSE 'MASTERCARD' END, 'CLASSIC', 0, 0, "
+                + "'RUB', true, 36 FROM generate_series(1, ?) g", CARD_PRODUCTS);
+        jdbcTemplate.update("INSERT INTO product (id, name, schema_name, is_capitalization, amount_min, amount_max, "
+                + "currency_code, is_active, is_revocable, min_interest_rate, max_interest_rate, min_duration_months, "
+                + "max_duration_months) "
+                + "SELECT g, 'Deposit ' || g, 'FIXED', g % 2 = 0, 1000, 10000000, 'RUB', true, true, 5, 9, 3, 36 "
+                + "FROM generate_series(1, ?) g", DEPOSIT_PRODUCTS);
+        jdbcTemplate.update("INSERT INTO account (id, account_number, client_id, currency_code, current_balance, "
+                + "open_date, close_date, is_active, blocked_sum) "
+                + "SELECT gen_random_uuid(), lpad(g::text, 20, '0'), gen_random_uuid(), 'RUB', 100000, "
+                + "current_date - 365, current_date + 3650, true, 0 FROM generate_series(0, ? - 1) g",
+                seed.getClients());
+        jdbcTemplate.update("INSERT INTO card (id, card_number, account_id, transaction_limit, status, "
+                + "expiration_date, holder_name, is_default, card_product_id, balance) "
+                + "SELECT gen_random_uuid(), lpad((a.account_number::bigint * ? + i)::text, 16, '0'), a.id, 100000, "
+                + "'ACTIVE', current_date + 1000, 'IVAN IVANOV', i = 0, 1 + (a.account_number::bigint + i) % ?, "
+                + "50000 FROM account a CROSS JOIN generate_series(0, ? - 1) i",
+                seed.getCardsPerClient(), CARD_PRODUCTS, seed.getCardsPerClient());
+        jdbcTemplate.update("INSERT INTO agreement (id, agreement_number, account_id, product_id, interest_rate, "
+                + "start_date, end_date, initial_amount, current_balance, is_active, auto_renewal) "
+                + "SELECT gen_random_uuid(), 'AG' || lpad(a.account_number::bigint::text, 18, '0'), a.id, "
+                + "1 + a.account_number::bigint % ?, 7.5, now() - interval '30 days', now() + interval '335 days', "
+                + "100000, 100000, true, false FROM account a", DEPOSIT_PRODUCTS);
+        jdbcTemplate.update("INSERT INTO operation (id, account_id, completed_at, sum, details, currency_code, "
+                + "operation_type_id) "
+                + "SELECT gen_random_uuid(), a.id, localtimestamp - (g % 365) * interval '1 day' "
+                + "- (g % 86400) * interval '1 second', (g % 100000) / 100.0, 'load test', 'RUB', 1 + g % 4 "
+                + "FROM generate_series(0, ? - 1) g "
+                + "JOIN account a ON a.account_number = lpad((g % ?)::text, 20, '0')",
+                seed.getOperations(), seed.getClients());
+        jdbcTemplate.execute("ANALYZE");
+        log.info("Seeded " + seed.getClients() + " clients, " + (long) seed.getClients() * seed.getCardsPerClient()
+                + " cards and " + seed.getOperations() + " operations in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Random clients to send the requests for, each with its default card and its agreement.
+     */
+    public List<SampleClient> sampleClients(int size) {
+        return jdbcTemplate.query("SELECT a.account_number, a.client_id, c.id AS card_id, ag.id AS agreement_id "
+                        + "FROM account a "
+                        + "JOIN card c ON c.account_id = a.id AND c.is_default "
+                        + "JOIN agreement ag ON ag.account_id = a.id "
+                        + "ORDER BY random() LIMIT ?",
+                (resultSet, rowNum) -> new SampleClient(
+                        "79" + resultSet.getString("account_number").substring(11),
+                        resultSet.getObject("client_id", UUID.class),
+                        resultSet.getObject("card_id", UUID.class),
+                        resultSet.getObject("agreement_id", UUID.class)),
+                size);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class SampleClient {
+
+        private final String mobilePhone;
+        private final UUID clientId;
+        private final UUID cardId;
+        private final UUID agreementId;
+    }
+}
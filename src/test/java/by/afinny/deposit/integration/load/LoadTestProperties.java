@@ -0,0 +1,65 @@
+package by.afinny.deposit.integration.load;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of the load test, bound from the {@code load.*} properties. Every one of them can be overridden on the
+ * command line, e.g. {@code -Dload.seed.operations=5000000 -Dload.thresholds.active-cards.p99=200ms}.
+ */
+@Getter
+@Setter
+public class LoadTestProperties {
+
+    private Seed seed = new Seed();
+    private int concurrency = 32;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration userServiceDelay = Duration.ofMillis(20);
+    private String report = "target/load-test/report.json";
+    private Threshold defaultThreshold = new Threshold();
+    private Map<String, Threshold> thresholds = new HashMap<>();
+    /**
+     * Report of an earlier run; if set, an endpoint whose p99 grew or whose throughput dropped by more than
+     * {@code maxRegression} fails the run.
+     */
+    private String baseline;
+    private double maxRegression = 0.2;
+    private ExecutionModes executionModes = new ExecutionModes();
+
+    public Threshold getThreshold(String endpoint) {
+        return thresholds.getOrDefault(endpoint, defaultThreshold);
+    }
+
+    @Getter
+    @Setter
+    public static class Seed {
+        private int clients = 50_000;
+        private int cardsPerClient = 2;
+        private int operations = 2_000_000;
+        private int sampleClients = 10_000;
+    }
+
+    /**
+     * Settings of {@link ExecutionModeLoadIT}: more workers than Tomcat has threads, and a slower user service, so
+     * that the threads blocked on it are what limits the platform mode.
+     */
+    @Getter
+    @Setter
+    public static class ExecutionModes {
+        private int concurrency = 800;
+        private Duration userServiceDelay = Duration.ofMillis(50);
+        private String report = "target/load-test/execution-modes.json";
+    }
+
+    @Getter
+    @Setter
+    public static class Threshold {
+        private Duration p99 = Duration.ofMillis(500);
+        private double minRps = 50;
+    }
+}
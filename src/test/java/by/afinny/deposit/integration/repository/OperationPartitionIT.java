@@ -0,0 +1,48 @@
+package by.afinny.deposit.integration.repository;
+
+import by.afinny.deposit.integration.config.annotation.TestWithPostgresContainer;
+import by.afinny.deposit.service.OperationPartitionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestWithPostgresContainer
+@TestPropertySource(properties = "operation.partitions.enabled=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("OperationPartitionIT")
+class OperationPartitionIT {
+
+    @Autowired
+    private OperationPartitionService operationPartitionService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("A query for one month should be pruned to that month's partition")
+    void monthQuery_shouldScanSinglePartition() {
+        //ARRANGE
+        operationPartitionService.createFuturePartitions();
+        YearMonth month = YearMonth.now();
+        String partition = "operation_" + month.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+
+        //ACT
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM operation WHERE account_id = '0d357c23-c7c5-4c3f-8389-d85064f71f76' "
+                        + "AND completed_at >= '" + month.atDay(1) + "' AND completed_at < '" + month.plusMonths(1).atDay(1) + "'",
+                String.class);
+
+        //VERIFY
+        assertThat(String.join("\n", plan))
+                .contains(partition)
+                .doesNotContain("operation_default");
+    }
+}
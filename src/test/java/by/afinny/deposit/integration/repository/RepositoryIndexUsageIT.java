@@ -0,0 +1,106 @@
+package by.afinny.deposit.integration.repository;
+
+import by.afinny.deposit.integration.config.annotation.TestWithPostgresContainer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestWithPostgresContainer
+@Sql(scripts = {"/truncate.sql", "classpath:db/migration/V20230301__add_lookup_indexes.sql",
+        "classpath:db/migration/V20230315__add_card_default_index.sql",
+        "classpath:db/migration/V20230320__add_operation_history_index.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("RepositoryIndexUsageIT")
+class RepositoryIndexUsageIT {
+
+    private static final String CLIENT_ID = "0d357c23-c7c5-4c3f-8389-d85064f71f76";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> repositoryLookups() {
+        return Stream.of(
+                Arguments.of("CardRepository.findByCardNumber",
+                        "SELECT * FROM card c WHERE c.card_number = '1111222233334444'",
+                        List.of("card_card_number_uindex")),
+                Arguments.of("CardRepository.findByAccountClientIdAndCardNumber",
+                        "SELECT c.* FROM card c JOIN account a ON a.id = c.account_id "
+                                + "WHERE a.client_id = '" + CLIENT_ID + "' AND c.card_number = '1111222233334444'",
+                        List.of("card_card_number_uindex")),
+                Arguments.of("AccountRepository.findByAccountNumber",
+                        "SELECT * FROM account a WHERE a.account_number = '0987654321'",
+                        List.of("account_account_number_uindex")),
+                Arguments.of("AccountRepository.findByClientIdAndIsActiveTrue",
+                        "SELECT * FROM account a WHERE a.client_id = '" + CLIENT_ID + "' AND a.is_active = true",
+                        List.of("account_client_id_active_index")),
+                Arguments.of("AgreementRepository.findByAccountClientIdAndIsActiveTrue",
+                        "SELECT ag.* FROM agreement ag JOIN account a ON a.id = ag.account_id "
+                                + "WHERE a.client_id = '" + CLIENT_ID + "' AND ag.is_active = true",
+                        List.of("account_client_id", "agreement_account_id_index")),
+                Arguments.of("AgreementRepository.findActiveDepositsByClientId",
+                        "SELECT ag.id, c.card_number FROM agreement ag JOIN account a ON a.id = ag.account_id "
+                                + "LEFT JOIN card c ON c.account_id = a.id AND c.is_default "
+                                + "WHERE a.client_id = '" + CLIENT_ID + "' AND ag.is_active = true",
+                        List.of("agreement_account_id_index", "card_account_id_default_index")),
+                Arguments.of("OperationRepository.findHistoryBefore",
+                        "SELECT o.id FROM operation o JOIN operation_type t ON t.id = o.operation_type_id "
+                                + "WHERE o.account_id = '" + CLIENT_ID + "' "
+                                + "AND o.completed_at <= '2023-03-01 12:00:00' "
+                                + "AND (o.completed_at < '2023-03-01 12:00:00' OR o.id < '" + CLIENT_ID + "') "
+                                + "ORDER BY o.completed_at DESC, o.id DESC LIMIT 21",
+                        List.of("operation_default_account_id_completed_at_id_idx"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryLookups")
+    @DisplayName("Every repository lookup should be answered by an index")
+    void repositoryLookup_shouldUseIndex(String method, String sql, List<String> expectedIndexes) {
+        //ACT
+        String plan = explain(sql);
+
+        //VERIFY
+        assertThat(plan)
+                .as("plan for %s", method)
+                .doesNotContain("Seq Scan");
+        expectedIndexes.forEach(index -> assertThat(plan)
+                .as("plan for %s", method)
+                .contains(index));
+    }
+
+    /**
+     * Seq scans are disabled for the session, because on the nearly empty test tables the planner would
+     * otherwise always prefer them. The test therefore proves that an index is usable, not that it is cheaper.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                List<String> lines = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+                    while (resultSet.next()) {
+                        lines.add(resultSet.getString(1));
+                    }
+                } finally {
+                    statement.execute("RESET enable_seqscan");
+                }
+                return String.join("\n", lines);
+            }
+        });
+    }
+}
@@ -25,7 +25,6 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import static by.afinny.deposit.entity.constant.CardStatus.BLOCKED;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -192,7 +191,7 @@ public class AccountServiceImplIT {
         //ACT
         ViewCardDto viewCardDtoResult = accountService.getViewCardByCardId(CLIENT_ID, card.getId());
         ViewCardDto viewCardDtoActual = cardMapper.toViewCardDto(cardRepository
-                .findByAccountClientIdAndId(CLIENT_ID, card.getId())
+                .findViewCardByAccountClientIdAndId(CLIENT_ID, card.getId())
                 .orElseThrow());
         //VERIFY
         verifyViewCardDto(viewCardDtoResult, viewCardDtoActual);
@@ -226,21 +225,8 @@ public class AccountServiceImplIT {
                 Arguments.of(UUID.randomUUID(), UUID.randomUUID()));
     }
 
-    private List<AccountWithCardInfoDto> getActiveCardsFromAccounts(List<Account> accounts) {
-        List<Card> cards = accounts
-                .stream()
-                .flatMap(a -> a.getCards().stream())
-                .filter(c -> c.getStatus() != BLOCKED)
-                .collect(Collectors.toList());
-        return accountMapper.toAccountsWithCardsDto(cards);
-    }
-
     private List<AccountWithCardInfoDto> getActiveCardsFromAccounts(UUID clientId) {
-        List<Account> accounts = accountRepository.findByClientIdAndIsActiveTrue(clientId);
-        if(accounts.isEmpty()) {
-            throw new EntityNotFoundException("There are no active accounts by id " + clientId);
-        }
-        return getActiveCardsFromAccounts(accounts);
+        return accountMapper.viewsToAccountsWithCardsDto(cardRepository.findCardInfoByActiveAccountsOfClient(clientId));
     }
 
     private void verifyActiveCards(List<AccountWithCardInfoDto> result, List<AccountWithCardInfoDto> actual) {
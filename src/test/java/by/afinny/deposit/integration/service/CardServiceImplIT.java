@@ -7,6 +7,7 @@ import by.afinny.deposit.entity.CardProduct;
 import by.afinny.deposit.entity.constant.*;
 import by.afinny.deposit.exception.CardStatusesAreEqualsException;
 import by.afinny.deposit.exception.EntityNotFoundException;
+import by.afinny.deposit.exception.InsufficientFundsException;
 import by.afinny.deposit.integration.config.annotation.TestWithPostgresContainer;
 import by.afinny.deposit.repository.AccountRepository;
 import by.afinny.deposit.repository.CardProductRepository;
@@ -18,7 +19,14 @@ import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.context.jdbc.Sql;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
 import static org.assertj.core.api.ThrowableAssert.catchThrowable;
@@ -246,4 +254,50 @@ public class CardServiceImplIT {
         //VERIFY
         Assertions.assertThat(cardInfoDto).isNotNull();
     }
+
+    @Test
+    @DisplayName("Concurrent write-offs should never lose an update nor overdraw the card")
+    void writeOffSum_concurrentPayments_shouldDebitExactly() throws InterruptedException {
+        //ARRANGE
+        int payments = 2000;
+        card.setBalance(new BigDecimal("1000.0000"));
+        card = cardRepository.save(card);
+        CreatePaymentDepositDto payment = CreatePaymentDepositDto.builder()
+                .remitterCardNumber(CARD_NUMBER)
+                .sum(BigDecimal.ONE)
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+
+        //ACT
+        for (int i = 0; i < payments; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    cardService.writeOffSum(CLIENT_ID, payment);
+                    succeeded.incrementAndGet();
+                } catch (InsufficientFundsException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        //VERIFY
+        Card foundCard = cardRepository.findById(card.getId())
+                .orElseThrow(() -> new EntityNotFoundException("Card with id " + card.getId() + " wasn't found"));
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(unexpected).isEmpty();
+            softAssertions.assertThat(succeeded.get()).isEqualTo(1000);
+            softAssertions.assertThat(rejected.get()).isEqualTo(payments - 1000);
+            softAssertions.assertThat(foundCard.getBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+        });
+    }
 }
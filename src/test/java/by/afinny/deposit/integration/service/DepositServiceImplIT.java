@@ -141,7 +141,7 @@ public class DepositServiceImplIT {
         agreementRepository.save(agreement);
         //ACT
         List<ActiveDepositDto> depositDtoResult = depositService.getActiveDeposits(CLIENT_ID);
-        List<ActiveDepositDto> depositDtoActual = depositMapper.toActiveDepositsDto(agreementRepository.findByAccountClientIdAndIsActiveTrue(CLIENT_ID));
+        List<ActiveDepositDto> depositDtoActual = depositMapper.viewsToActiveDepositsDto(agreementRepository.findActiveDepositsByClientId(CLIENT_ID));
         //VERIFY
         verifyDeposits(depositDtoResult, depositDtoActual);
     }
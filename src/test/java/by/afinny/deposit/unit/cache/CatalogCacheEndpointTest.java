@@ -0,0 +1,46 @@
+package by.afinny.deposit.unit.cache;
+
+import by.afinny.deposit.config.cache.CatalogCacheEndpoint;
+import by.afinny.deposit.service.CatalogCacheService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class CatalogCacheEndpointTest {
+
+    @Mock
+    private CatalogCacheService catalogCacheService;
+    @InjectMocks
+    private CatalogCacheEndpoint catalogCacheEndpoint;
+
+    @Test
+    @DisplayName("Write operation should refresh the catalogs")
+    void refresh_shouldRefreshCatalogs() {
+        //ACT
+        catalogCacheEndpoint.refresh();
+
+        //VERIFY
+        verify(catalogCacheService).refreshCatalogs();
+        verify(catalogCacheService, never()).evictCatalogs();
+    }
+
+    @Test
+    @DisplayName("Delete operation should evict the catalogs")
+    void evict_shouldEvictCatalogs() {
+        //ACT
+        catalogCacheEndpoint.evict();
+
+        //VERIFY
+        verify(catalogCacheService).evictCatalogs();
+        verify(catalogCacheService, never()).refreshCatalogs();
+    }
+}
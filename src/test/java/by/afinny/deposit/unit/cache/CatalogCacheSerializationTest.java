@@ -0,0 +1,101 @@
+package by.afinny.deposit.unit.cache;
+
+import by.afinny.deposit.config.redis.SmileRedisSerializer;
+import by.afinny.deposit.config.redis.VersionedCacheKeyPrefix;
+import by.afinny.deposit.dto.CardProductDto;
+import by.afinny.deposit.dto.ProductDto;
+import by.afinny.deposit.entity.constant.CurrencyCode;
+import by.afinny.deposit.entity.constant.SchemaName;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+/**
+ * Compares the Smile cache format with the JDK serialization that {@code RedisCacheConfiguration.defaultCacheConfig()}
+ * used before. Decode and encode times are measured by {@code CatalogCacheSerializationBenchmark}.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CatalogCacheSerializationTest {
+
+    private static final int PRODUCTS = 50;
+
+    private final List<ProductDto> products = IntStream.range(0, PRODUCTS)
+            .mapToObj(this::createProduct)
+            .collect(Collectors.toList());
+
+    @Test
+    @DisplayName("Smile payload should round-trip and be smaller than the JDK-serialized one")
+    void smileSerializer_shouldBeSmallerThanJdkSerialization() {
+        //ARRANGE
+        RedisSerializer<Object> jdkSerializer = new JdkSerializationRedisSerializer();
+        RedisSerializer<List<ProductDto>> smileSerializer = SmileRedisSerializer.listOf(ProductDto.class);
+
+        //ACT
+        byte[] jdkPayload = jdkSerializer.serialize(products);
+        byte[] smilePayload = smileSerializer.serialize(products);
+        List<ProductDto> decoded = smileSerializer.deserialize(smilePayload);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(smilePayload.length).isLessThan(jdkPayload.length / 2);
+            softAssertions.assertThat(decoded)
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(products);
+        });
+    }
+
+    @Test
+    @DisplayName("Empty payload should be read as a cache miss")
+    void smileSerializer_shouldReadEmptyPayloadAsNull() {
+        //ACT & VERIFY
+        assertThat(SmileRedisSerializer.listOf(ProductDto.class).deserialize(new byte[0])).isNull();
+    }
+
+    @Test
+    @DisplayName("Key prefix should carry the configured version and change with the cached type")
+    void keyPrefix_shouldBeVersionedPerType() {
+        //ARRANGE
+        VersionedCacheKeyPrefix productPrefix = new VersionedCacheKeyPrefix("deposit", "1", ProductDto.class);
+        VersionedCacheKeyPrefix cardProductPrefix = new VersionedCacheKeyPrefix("deposit", "1", CardProductDto.class);
+
+        //ACT
+        String productKey = productPrefix.compute("allActiveDepositProducts");
+        String cardProductKey = cardProductPrefix.compute("allActiveDepositProducts");
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(productKey).matches("deposit:allActiveDepositProducts:v1-[0-9a-f]{8}::");
+            softAssertions.assertThat(productKey).isEqualTo(
+                    new VersionedCacheKeyPrefix("deposit", "1", ProductDto.class).compute("allActiveDepositProducts"));
+            softAssertions.assertThat(cardProductKey).isNotEqualTo(productKey);
+        });
+    }
+
+    private ProductDto createProduct(int id) {
+        return ProductDto.builder()
+                .id(id)
+                .name("Deposit " + id)
+                .minInterestRate(new BigDecimal("3.50"))
+                .maxInterestRate(new BigDecimal("7.25"))
+                .interestRateEarly(new BigDecimal("0.01"))
+                .currencyCode(CurrencyCode.values()[id % CurrencyCode.values().length])
+                .isRevocable(id % 2 == 0)
+                .schemaName(SchemaName.FIXED)
+                .isCapitalization(true)
+                .minDurationMonths(3)
+                .maxDurationMonths(36)
+                .amountMin(new BigDecimal("1000.00"))
+                .amountMax(new BigDecimal("1000000.00"))
+                .build();
+    }
+}
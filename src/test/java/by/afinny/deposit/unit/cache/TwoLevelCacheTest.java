@@ -0,0 +1,184 @@
+package by.afinny.deposit.unit.cache;
+
+import by.afinny.deposit.config.cache.NearCacheProperties;
+import by.afinny.deposit.config.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class TwoLevelCacheTest {
+
+    private static final String CACHE_NAME = "allCardProducts";
+    private static final String KEY = "SimpleKey []";
+
+    private ConcurrentMapCacheManager sharedCacheManager;
+    private TwoLevelCacheManager cacheManager;
+    private MeterRegistry meterRegistry;
+    private List<String> invalidations;
+
+    @BeforeEach
+    void setUp() {
+        sharedCacheManager = new ConcurrentMapCacheManager(CACHE_NAME);
+        meterRegistry = new SimpleMeterRegistry();
+        invalidations = new ArrayList<>();
+        cacheManager = new TwoLevelCacheManager(sharedCacheManager, new NearCacheProperties(), meterRegistry);
+        cacheManager.setInvalidationPublisher((cacheName, key) -> invalidations.add(cacheName + ":" + key));
+    }
+
+    @Test
+    @DisplayName("Read should fall through to the shared cache once and then be served from the near-cache")
+    void get_shouldPopulateNearCacheFromSharedCache() {
+        //ARRANGE
+        sharedCacheManager.getCache(CACHE_NAME).put(KEY, "products");
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+
+        //ACT
+        Cache.ValueWrapper first = cache.get(KEY);
+        sharedCacheManager.getCache(CACHE_NAME).evict(KEY);
+        Cache.ValueWrapper second = cache.get(KEY);
+        Cache.ValueWrapper missing = cache.get("other");
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(first.get()).isEqualTo("products");
+            softAssertions.assertThat(second.get()).isEqualTo("products");
+            softAssertions.assertThat(missing).isNull();
+            softAssertions.assertThat(count("l1", "hit")).isEqualTo(1);
+            softAssertions.assertThat(count("l1", "miss")).isEqualTo(2);
+            softAssertions.assertThat(count("l2", "hit")).isEqualTo(1);
+            softAssertions.assertThat(count("l2", "miss")).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("Writes should go to both levels and be announced to other instances")
+    void put_shouldWriteThroughAndPublishInvalidation() {
+        //ARRANGE
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+
+        //ACT
+        cache.put(KEY, "products");
+        cache.evict("other");
+        cache.clear();
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(sharedCacheManager.getCache(CACHE_NAME).get(KEY)).isNull();
+            softAssertions.assertThat(invalidations)
+                    .containsExactly(CACHE_NAME + ":" + KEY, CACHE_NAME + ":other", CACHE_NAME + ":null");
+        });
+    }
+
+    @Test
+    @DisplayName("Remote invalidation should drop the near-cache copy and re-read the shared cache")
+    void evictLocal_shouldReloadFromSharedCache() {
+        //ARRANGE
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        cache.put(KEY, "products");
+        sharedCacheManager.getCache(CACHE_NAME).put(KEY, "updated products");
+
+        //ACT
+        cacheManager.evictLocal(CACHE_NAME, KEY);
+
+        //VERIFY
+        assertThat(cache.get(KEY, String.class)).isEqualTo("updated products");
+    }
+
+    @Test
+    @DisplayName("Values loaded on a miss should be populated in both levels without an invalidation")
+    void get_ifLoadedOnMiss_thenDoNotPublishInvalidation() {
+        //ARRANGE
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+
+        //ACT
+        String loaded = cache.get(KEY, () -> "products");
+        Cache.ValueWrapper existing = cache.putIfAbsent("other", "card products");
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(loaded).isEqualTo("products");
+            softAssertions.assertThat(existing).isNull();
+            softAssertions.assertThat(sharedCacheManager.getCache(CACHE_NAME).get(KEY).get()).isEqualTo("products");
+            softAssertions.assertThat(sharedCacheManager.getCache(CACHE_NAME).get("other").get())
+                    .isEqualTo("card products");
+            softAssertions.assertThat(invalidations).isEmpty();
+        });
+    }
+
+    @Test
+    @DisplayName("Loader failure should be wrapped and nothing should be cached")
+    void get_shouldWrapLoaderFailure() {
+        //ARRANGE
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+
+        //ACT & VERIFY
+        assertThatThrownBy(() -> cache.get(KEY, () -> {
+            throw new IllegalStateException("database is down");
+        })).isInstanceOf(Cache.ValueRetrievalException.class);
+        assertThat(cache.get(KEY, () -> "products")).isEqualTo("products");
+        assertThat(sharedCacheManager.getCache(CACHE_NAME).get(KEY).get()).isEqualTo("products");
+    }
+
+    @Test
+    @DisplayName("Concurrent misses of a key should run the loader once")
+    void get_ifConcurrentMisses_thenLoadOnce() throws Exception {
+        //ARRANGE
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+
+        //ACT
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.get(KEY, () -> {
+                    loads.incrementAndGet();
+                    Thread.sleep(100);
+                    return "products";
+                });
+            }));
+        }
+        start.countDown();
+        List<String> values = new ArrayList<>();
+        for (Future<String> result : results) {
+            values.add(result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(values).containsOnly("products");
+            softAssertions.assertThat(loads.get()).isEqualTo(1);
+        });
+    }
+
+    private double count(String level, String result) {
+        return meterRegistry.get("cache.level.gets")
+                .tag("cache", CACHE_NAME)
+                .tag("level", level)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+}
@@ -16,6 +16,7 @@ import by.afinny.deposit.entity.constant.DigitalWallet;
 import by.afinny.deposit.entity.constant.PaymentSystem;
 import by.afinny.deposit.exception.CardStatusesAreEqualsException;
 import by.afinny.deposit.exception.EntityNotFoundException;
+import by.afinny.deposit.exception.InsufficientFundsException;
 import by.afinny.deposit.service.impl.AccountServiceImpl;
 import by.afinny.deposit.service.impl.CardServiceImpl;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -425,6 +426,22 @@ class CardControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("if card balance doesn't cover the sum then return status BAD_REQUEST")
+    void writeOffSum_ifInsufficientFunds_then400_BAD_REQUEST() throws Exception {
+        //ARRANGE
+        when(cardService.writeOffSum(any(UUID.class), any(CreatePaymentDepositDto.class)))
+                .thenThrow(new InsufficientFundsException("Card with card number " +
+                        createPaymentDepositDto.getRemitterCardNumber() + " has insufficient funds"));
+
+        //ACT & VERIFY
+        mockMvc.perform(
+                        patch(URL_WRITE_OFF_SUM + CLIENT_ID)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(asJsonString(createPaymentDepositDto)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("if card wasn't successfully found then return status INTERNAL_SERVER_ERROR")
     void writeOffSum_ifNotFoundCard_then500_INTERNAL_SERVER_ERROR() throws Exception {
@@ -0,0 +1,117 @@
+package by.afinny.deposit.unit.controller;
+
+import by.afinny.deposit.controller.OperationController;
+import by.afinny.deposit.dto.OperationDto;
+import by.afinny.deposit.dto.OperationHistoryDto;
+import by.afinny.deposit.dto.OperationHistoryFilterDto;
+import by.afinny.deposit.entity.constant.CurrencyCode;
+import by.afinny.deposit.exception.InvalidCursorException;
+import by.afinny.deposit.exception.handler.ExceptionHandlerController;
+import by.afinny.deposit.service.OperationService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(OperationController.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ActiveProfiles("test")
+class OperationControllerTest {
+
+    @MockBean
+    private OperationService operationService;
+
+    private MockMvc mockMvc;
+
+    private final UUID CLIENT_ID = UUID.randomUUID();
+    private final UUID ACCOUNT_ID = UUID.randomUUID();
+
+    @BeforeAll
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new OperationController(operationService))
+                .setControllerAdvice(new ExceptionHandlerController())
+                .build();
+    }
+
+    @Test
+    @DisplayName("If history was found then return the page with status OK")
+    void getOperationHistory_shouldReturnPage() throws Exception {
+        //ARRANGE
+        OperationHistoryDto history = OperationHistoryDto.builder()
+                .operations(List.of(OperationDto.builder()
+                        .operationId(UUID.randomUUID())
+                        .sum(BigDecimal.TEN)
+                        .type("PAYMENT")
+                        .build()))
+                .nextCursor("cursor")
+                .build();
+        ArgumentCaptor<OperationHistoryFilterDto> filterCaptor = ArgumentCaptor.forClass(OperationHistoryFilterDto.class);
+        when(operationService.getOperationHistory(eq(CLIENT_ID), eq(ACCOUNT_ID), filterCaptor.capture(), eq("previous"), eq(50)))
+                .thenReturn(history);
+
+        //ACT & VERIFY
+        mockMvc.perform(get(OperationController.URL_OPERATIONS, ACCOUNT_ID)
+                        .param("clientId", CLIENT_ID.toString())
+                        .param("type", "PAYMENT")
+                        .param("currencyCode", "RUB")
+                        .param("from", "2023-03-01T00:00:00")
+                        .param("cursor", "previous")
+                        .param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("cursor"))
+                .andExpect(jsonPath("$.operations[0].type").value("PAYMENT"));
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(filterCaptor.getValue().getType()).isEqualTo("PAYMENT");
+            softAssertions.assertThat(filterCaptor.getValue().getCurrencyCode()).isEqualTo(CurrencyCode.RUB);
+            softAssertions.assertThat(filterCaptor.getValue().getFrom()).isEqualTo(LocalDateTime.of(2023, 3, 1, 0, 0));
+            softAssertions.assertThat(filterCaptor.getValue().getTo()).isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("If limit is not passed then request the default page size")
+    void getOperationHistory_withoutLimit_shouldUseDefault() throws Exception {
+        //ACT
+        mockMvc.perform(get(OperationController.URL_OPERATIONS, ACCOUNT_ID)
+                        .param("clientId", CLIENT_ID.toString()))
+                .andExpect(status().isOk());
+
+        //VERIFY
+        verify(operationService).getOperationHistory(eq(CLIENT_ID), eq(ACCOUNT_ID), any(OperationHistoryFilterDto.class), eq(null), eq(20));
+    }
+
+    @Test
+    @DisplayName("If cursor is invalid then return status BAD REQUEST")
+    void getOperationHistory_ifCursorInvalid_thenReturnBadRequest() throws Exception {
+        //ARRANGE
+        when(operationService.getOperationHistory(eq(CLIENT_ID), eq(ACCOUNT_ID), any(OperationHistoryFilterDto.class), eq("broken"), anyInt()))
+                .thenThrow(new InvalidCursorException("cursor broken is invalid"));
+
+        //ACT & VERIFY
+        mockMvc.perform(get(OperationController.URL_OPERATIONS, ACCOUNT_ID)
+                        .param("clientId", CLIENT_ID.toString())
+                        .param("cursor", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,38 @@
+package by.afinny.deposit.unit.entity;
+
+import by.afinny.deposit.entity.generator.TimeOrderedUuidGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    @DisplayName("Generated ids should be version 7 and strictly increasing in unsigned byte order")
+    void next_shouldGenerateIncreasingVersion7Ids() {
+        //ARRANGE
+        long before = System.currentTimeMillis();
+
+        //ACT
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(TimeOrderedUuidGenerator.next());
+        }
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(ids).allMatch(id -> id.version() == 7 && id.variant() == 2);
+            softAssertions.assertThat(ids).doesNotHaveDuplicates();
+            softAssertions.assertThat(ids).isSortedAccordingTo(Comparator
+                    .comparing((UUID id) -> id.getMostSignificantBits(), Long::compareUnsigned)
+                    .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned));
+            softAssertions.assertThat(ids.get(0).getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(before);
+        });
+    }
+}
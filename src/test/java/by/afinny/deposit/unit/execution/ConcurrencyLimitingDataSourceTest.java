@@ -0,0 +1,93 @@
+package by.afinny.deposit.unit.execution;
+
+import by.afinny.deposit.config.execution.ConcurrencyLimitingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class ConcurrencyLimitingDataSourceTest {
+
+    @Mock
+    private DataSource targetDataSource;
+    @Mock
+    private Connection targetConnection;
+
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConcurrencyLimitingDataSource(targetDataSource, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("A permit should be held while the connection is open and released once on close")
+    void getConnection_shouldHoldPermitUntilClosed() throws SQLException {
+        //ARRANGE
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+
+        //ACT
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        int availableWhileOpen = dataSource.getAvailablePermits();
+        first.close();
+        first.close();
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(availableWhileOpen)
+                    .isZero();
+            softAssertions.assertThat(dataSource.getAvailablePermits())
+                    .isEqualTo(1);
+            softAssertions.assertThat(second)
+                    .isNotEqualTo(first);
+        });
+        verify(targetConnection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("A thread should fail after the acquire timeout if all permits are taken")
+    void getConnection_ifNoPermitInTime_thenThrow() throws SQLException {
+        //ARRANGE
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        //ACT & VERIFY
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    @Test
+    @DisplayName("The permit should be released if the pool fails to hand out a connection")
+    void getConnection_ifPoolFails_thenReleasePermit() throws SQLException {
+        //ARRANGE
+        when(targetDataSource.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+
+        //ACT
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessage("pool exhausted");
+
+        //VERIFY
+        assertSoftly(softAssertions -> softAssertions.assertThat(dataSource.getAvailablePermits())
+                .isEqualTo(2));
+    }
+}
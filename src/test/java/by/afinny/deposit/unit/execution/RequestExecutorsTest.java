@@ -0,0 +1,70 @@
+package by.afinny.deposit.unit.execution;
+
+import by.afinny.deposit.config.execution.ExecutionMode;
+import by.afinny.deposit.config.execution.ExecutionProperties;
+import by.afinny.deposit.config.execution.RequestExecutors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class RequestExecutorsTest {
+
+    @Test
+    @DisplayName("The bounded mode should run on a pool of the configured size")
+    void create_ifBounded_thenPoolOfMaxThreads() throws Exception {
+        //ARRANGE
+        ExecutionProperties.Bounded bounded = new ExecutionProperties.Bounded();
+        bounded.setMaxThreads(8);
+        bounded.setQueueCapacity(16);
+
+        //ACT
+        ExecutorService executor = RequestExecutors.create(ExecutionMode.BOUNDED, bounded);
+        String threadName = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(executor)
+                    .isInstanceOfSatisfying(ThreadPoolExecutor.class, pool -> {
+                        softAssertions.assertThat(pool.getMaximumPoolSize()).isEqualTo(8);
+                        softAssertions.assertThat(pool.getQueue().remainingCapacity()).isEqualTo(16);
+                    });
+            softAssertions.assertThat(threadName)
+                    .startsWith("http-exec-");
+        });
+    }
+
+    @Test
+    @DisplayName("The virtual mode should use virtual threads where the JDK has them, a bounded pool otherwise")
+    void create_ifVirtual_thenVirtualThreadsOrBoundedFallback() throws Exception {
+        //ACT
+        ExecutorService executor = RequestExecutors.create(ExecutionMode.VIRTUAL, new ExecutionProperties.Bounded());
+        String threadName = executor.submit(() -> Thread.currentThread().toString()).get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            if (RequestExecutors.isVirtualThreadsAvailable()) {
+                softAssertions.assertThat(threadName).startsWith("VirtualThread");
+            } else {
+                softAssertions.assertThat(executor).isInstanceOf(ThreadPoolExecutor.class);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("The platform mode should be left to Tomcat")
+    void create_ifPlatform_thenThrow() {
+        //ACT & VERIFY
+        assertThatThrownBy(() -> RequestExecutors.create(ExecutionMode.PLATFORM, new ExecutionProperties.Bounded()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
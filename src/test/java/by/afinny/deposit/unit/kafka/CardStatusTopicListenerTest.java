@@ -3,6 +3,7 @@ package by.afinny.deposit.unit.kafka;
 import by.afinny.deposit.dto.kafka.CardEvent;
 import by.afinny.deposit.entity.constant.CardStatus;
 import by.afinny.deposit.integration.CardStatusTopicListener;
+import by.afinny.deposit.integration.RetryMetrics;
 import by.afinny.deposit.service.CardService;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -28,6 +29,8 @@ class CardStatusTopicListenerTest {
 
     @Mock
     private CardService cardService;
+    @Mock
+    private RetryMetrics retryMetrics;
 
     @InjectMocks
     private CardStatusTopicListener cardStatusTopicListener;
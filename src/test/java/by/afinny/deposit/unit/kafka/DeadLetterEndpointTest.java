@@ -0,0 +1,142 @@
+package by.afinny.deposit.unit.kafka;
+
+import by.afinny.deposit.integration.DeadLetterEndpoint;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class DeadLetterEndpointTest {
+
+    private static final String TOPIC = "master_to_deposit_early_withdrawal";
+    private static final String DLT = TOPIC + "-failed-dlt";
+    private static final TopicPartition PARTITION = new TopicPartition(DLT, 0);
+
+    @Mock
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+    @Mock
+    private ConsumerFactory<String, byte[]> deadLetterConsumerFactory;
+    @Mock
+    private KafkaOperations<String, Object> kafkaTemplate;
+
+    private MockConsumer<String, byte[]> consumer;
+    private DeadLetterEndpoint deadLetterEndpoint;
+
+    @BeforeEach
+    void setUp() {
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(container.getContainerProperties()).thenReturn(new ContainerProperties(DLT));
+        when(kafkaListenerEndpointRegistry.getListenerContainers()).thenReturn(List.of(container));
+
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+            @Override
+            public synchronized void close() {
+                // kept open, so that the committed offsets can be verified
+            }
+        };
+        consumer.updatePartitions(DLT, List.of(new PartitionInfo(DLT, 0, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        consumer.updateEndOffsets(Map.of(PARTITION, 3L));
+
+        deadLetterEndpoint = new DeadLetterEndpoint(kafkaListenerEndpointRegistry, deadLetterConsumerFactory, kafkaTemplate);
+    }
+
+    @Test
+    @DisplayName("Replay should re-drive up to limit records to the original topic and commit them")
+    void replay_shouldSendRecordsToOriginalTopicAndCommit() {
+        //ARRANGE
+        when(deadLetterConsumerFactory.createConsumer(DeadLetterEndpoint.REPLAY_GROUP, null)).thenReturn(consumer);
+        SettableListenableFuture<SendResult<String, Object>> sendResult = new SettableListenableFuture<>();
+        sendResult.set(null);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(sendResult);
+        consumer.schedulePollTask(() -> {
+            for (long offset = 0; offset < 3; offset++) {
+                ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(DLT, 0, offset, "key", "{}".getBytes(StandardCharsets.UTF_8));
+                record.headers().add(new RecordHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE, "failed".getBytes(StandardCharsets.UTF_8)));
+                record.headers().add(new RecordHeader("eventId", "42".getBytes(StandardCharsets.UTF_8)));
+                consumer.addRecord(record);
+            }
+        });
+
+        //ACT
+        int replayed = deadLetterEndpoint.replay(DLT, 2);
+
+        //VERIFY
+        ArgumentCaptor<ProducerRecord<String, Object>> recordCaptor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(recordCaptor.capture());
+        ProducerRecord<String, Object> sent = recordCaptor.getValue();
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(replayed).isEqualTo(2);
+            softAssertions.assertThat(sent.topic()).isEqualTo(TOPIC);
+            softAssertions.assertThat(sent.key()).isEqualTo("key");
+            softAssertions.assertThat(sent.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE)).isNull();
+            softAssertions.assertThat(sent.headers().lastHeader("eventId")).isNotNull();
+            softAssertions.assertThat(consumer.committed(Set.of(PARTITION)).get(PARTITION))
+                    .isEqualTo(new OffsetAndMetadata(2));
+        });
+    }
+
+    @Test
+    @DisplayName("Only dead-letter topics of the listeners should be replayed")
+    void replay_ifTopicIsNotDeadLetterTopic_thenThrow() {
+        //ACT
+        ThrowingCallable replayInvocation = () -> deadLetterEndpoint.replay(TOPIC, 10);
+
+        //VERIFY
+        assertThatThrownBy(replayInvocation).isInstanceOf(IllegalArgumentException.class);
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    @DisplayName("Pending records should be counted from the last replayed offset")
+    void pending_shouldCountRecordsNotReplayedYet() {
+        //ARRANGE
+        when(deadLetterConsumerFactory.createConsumer(DeadLetterEndpoint.REPLAY_GROUP, null)).thenReturn(consumer);
+        consumer.assign(Set.of(PARTITION));
+        consumer.commitSync(Map.of(PARTITION, new OffsetAndMetadata(1)));
+
+        //ACT
+        Map<String, Long> pending = deadLetterEndpoint.pending();
+
+        //VERIFY
+        assertThat(pending).containsExactly(Map.entry(DLT, 2L));
+    }
+}
@@ -0,0 +1,79 @@
+package by.afinny.deposit.unit.kafka;
+
+import by.afinny.deposit.integration.DeadLetterEndpoint;
+import by.afinny.deposit.integration.DeadLetterMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class DeadLetterMetricsTest {
+
+    private static final String DLT = "master_to_deposit_early_withdrawal-failed-dlt";
+
+    @Mock
+    private DeadLetterEndpoint deadLetterEndpoint;
+
+    private MeterRegistry meterRegistry;
+    private DeadLetterMetrics deadLetterMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deadLetterMetrics = new DeadLetterMetrics(deadLetterEndpoint, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Gauge should follow the pending records of every dead-letter topic")
+    void refresh_shouldPublishPendingRecordsPerTopic() {
+        //ARRANGE
+        when(deadLetterEndpoint.pending()).thenReturn(Map.of(DLT, 3L), Map.of(DLT, 1L));
+
+        //ACT
+        deadLetterMetrics.refresh();
+        double first = pending();
+        deadLetterMetrics.refresh();
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(first).isEqualTo(3);
+            softAssertions.assertThat(pending()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("Last sizes should be kept if the broker can't be reached")
+    void refresh_ifBrokerUnavailable_thenKeepLastSizes() {
+        //ARRANGE
+        when(deadLetterEndpoint.pending())
+                .thenReturn(Map.of(DLT, 3L))
+                .thenThrow(new TimeoutException("Timeout expired while fetching topic metadata"));
+
+        //ACT
+        deadLetterMetrics.refresh();
+        deadLetterMetrics.refresh();
+
+        //VERIFY
+        assertSoftly(softAssertions -> softAssertions.assertThat(pending()).isEqualTo(3));
+    }
+
+    private double pending() {
+        return meterRegistry.get(DeadLetterMetrics.PENDING_DEAD_LETTERS_METRIC)
+                .tag("topic", DLT)
+                .gauge()
+                .value();
+    }
+}
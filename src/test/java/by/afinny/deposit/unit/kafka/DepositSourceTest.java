@@ -2,23 +2,19 @@ package by.afinny.deposit.unit.kafka;
 
 import by.afinny.deposit.dto.RequestNewDepositDto;
 import by.afinny.deposit.integration.DepositSource;
+import by.afinny.deposit.integration.OutboxWriter;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
-import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.Message;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 
-import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
 
 @SpringBootTest
@@ -30,7 +26,7 @@ class DepositSourceTest {
     private DepositSource source;
 
     @MockBean
-    private KafkaTemplate<String, ?> kafkaTemplate;
+    private OutboxWriter outboxWriter;
 
     @Value("${kafka.topics.deposit-service-producer.path}")
     private String KAFKA_TOPIC;
@@ -49,19 +45,12 @@ class DepositSourceTest {
     }
 
     @Test
-    @DisplayName("verify sending message to kafka broker")
+    @DisplayName("verify writing message to outbox")
     void sendMessageAboutDeposit() {
-        //ARRANGE
-        ArgumentCaptor<Message<?>> messageCaptor = ArgumentCaptor.forClass(Message.class);
-
         //ACT
         source.sendMessageAboutDeposit(requestNewDepositDto);
 
         //VERIFY
-        verify(kafkaTemplate).send(messageCaptor.capture());
-        Message<?> message = messageCaptor.getValue();
-
-        assertThat(message.getPayload()).isEqualTo(requestNewDepositDto);
-        assertThat(message.getHeaders()).containsEntry(KafkaHeaders.TOPIC, KAFKA_TOPIC);
+        verify(outboxWriter).write(KAFKA_TOPIC, requestNewDepositDto);
     }
 }
\ No newline at end of file
@@ -2,8 +2,9 @@ package by.afinny.deposit.unit.kafka;
 
 import by.afinny.deposit.entity.Agreement;
 import by.afinny.deposit.integration.DepositTopicListener;
+import by.afinny.deposit.integration.RetryMetrics;
 import by.afinny.deposit.service.DepositService;
-import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -14,12 +15,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
-@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
 @ActiveProfiles("test")
 class DepositTopicListenerTest {
 
@@ -28,21 +34,51 @@ class DepositTopicListenerTest {
 
     @Mock
     private DepositService depositService;
+    @Mock
+    private RetryMetrics retryMetrics;
 
     private Agreement agreement;
 
-    @BeforeAll
+    @BeforeEach
     void setUp() {
         agreement = Agreement.builder().build();
     }
 
     @Test
-    @DisplayName("Verify received message")
-    void receiveDeposit_shouldInvokeSaveAgreement() {
+    @DisplayName("Verify received messages are saved as one batch")
+    void receiveDeposit_shouldInvokeSaveAgreements() {
+        //ACT
+        depositTopicListener.receiveDeposit(List.of(new GenericMessage<>(agreement), new GenericMessage<>(agreement)));
+
+        //VERIFY
+        verify(depositService, times(1)).saveAgreements(List.of(agreement, agreement));
+        verify(depositService, never()).saveAgreement(any(Agreement.class));
+    }
+
+    @Test
+    @DisplayName("If the batch fails then every message should be saved on its own")
+    void receiveDeposit_ifBatchFails_thenInvokeSaveAgreementForEachMessage() {
+        //ARRANGE
+        doThrow(RuntimeException.class).when(depositService).saveAgreements(anyList());
+
+        //ACT
+        depositTopicListener.receiveDeposit(List.of(new GenericMessage<>(agreement), new GenericMessage<>(agreement)));
+
+        //VERIFY
+        verify(depositService, times(2)).saveAgreement(agreement);
+    }
+
+    @Test
+    @DisplayName("Record that failed in a batch should be saved on its own and counted as a retry")
+    void receiveFailedDeposit_shouldInvokeSaveAgreement() {
+        //ARRANGE
+        GenericMessage<Agreement> message = new GenericMessage<>(agreement);
+
         //ACT
-        depositTopicListener.receiveDeposit(new GenericMessage<>(agreement));
+        depositTopicListener.receiveFailedDeposit(message);
 
         //VERIFY
-        verify(depositService, times(1)).saveAgreement(any(Agreement.class));
+        verify(depositService).saveAgreement(agreement);
+        verify(retryMetrics).recordDelivery(message);
     }
-}
\ No newline at end of file
+}
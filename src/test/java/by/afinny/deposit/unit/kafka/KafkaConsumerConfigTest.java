@@ -0,0 +1,161 @@
+package by.afinny.deposit.unit.kafka;
+
+import by.afinny.deposit.config.kafka.KafkaConsumerConfig;
+import by.afinny.deposit.config.kafka.properties.KafkaConfigProperties;
+import by.afinny.deposit.integration.KafkaTopicMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class KafkaConsumerConfigTest {
+
+    private KafkaConsumerConfig kafkaConsumerConfig;
+    private KafkaOperations<String, Object> kafkaTemplate;
+
+    @BeforeEach
+    void setUp() {
+        KafkaConfigProperties.Topic withdrawListener = new KafkaConfigProperties.Topic();
+        withdrawListener.setPath("master_to_deposit_early_withdrawal");
+        withdrawListener.setEnabled(true);
+        withdrawListener.setConcurrency(4);
+        withdrawListener.setBatchSize(500);
+        withdrawListener.setFetchMinBytes(DataSize.ofKilobytes(64));
+        withdrawListener.setMaxPollInterval(Duration.ofMinutes(10));
+        withdrawListener.setAckMode(ContainerProperties.AckMode.RECORD);
+
+        KafkaConfigProperties config = new KafkaConfigProperties();
+        config.setBootstrapServers("localhost:9092");
+        config.setKafkaProperties(new KafkaProperties());
+        config.setTopics(Map.of("withdraw-listener", withdrawListener));
+
+        kafkaTemplate = mock(KafkaOperations.class);
+        kafkaConsumerConfig = new KafkaConsumerConfig(config, new KafkaTopicMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.invokeMethod(kafkaConsumerConfig, "createKafkaProperties");
+    }
+
+    @Test
+    @DisplayName("Topic tuning should be applied to the consumer and container factories of the topic")
+    void factoryForWithdrawDeposit_shouldApplyTopicTuning() {
+        //ACT
+        DefaultKafkaConsumerFactory<String, Object> consumerFactory = kafkaConsumerConfig.consumerFactoryForWithdrawDeposit();
+        CommonErrorHandler errorHandler = kafkaConsumerConfig.failedBatchRecordErrorHandler(kafkaTemplate);
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = kafkaConsumerConfig.factoryForWithdrawDeposit(consumerFactory, errorHandler);
+
+        //VERIFY
+        Map<String, Object> consumerProperties = consumerFactory.getConfigurationProperties();
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(consumerProperties.get(ConsumerConfig.MAX_POLL_RECORDS_CONFIG))
+                    .isEqualTo(500);
+            softAssertions.assertThat(consumerProperties.get(ConsumerConfig.FETCH_MIN_BYTES_CONFIG))
+                    .isEqualTo(65536);
+            softAssertions.assertThat(consumerProperties.get(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG))
+                    .isEqualTo(600000);
+            softAssertions.assertThat(ReflectionTestUtils.getField(factory, "concurrency"))
+                    .isEqualTo(4);
+            softAssertions.assertThat(factory.getContainerProperties().getAckMode())
+                    .isEqualTo(ContainerProperties.AckMode.RECORD);
+            softAssertions.assertThat(factory.isBatchListener())
+                    .isTrue();
+            softAssertions.assertThat(ReflectionTestUtils.getField(factory, "commonErrorHandler"))
+                    .isSameAs(errorHandler);
+        });
+    }
+
+    @Test
+    @DisplayName("Records that fail in a batch should be retried by a record listener with the topic tuning")
+    void factoryForFailedWithdrawDeposit_shouldBeRecordListener() {
+        //ACT
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = kafkaConsumerConfig.factoryForFailedWithdrawDeposit(
+                kafkaConsumerConfig.consumerFactoryForWithdrawDeposit());
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(factory.isBatchListener())
+                    .isNotEqualTo(Boolean.TRUE);
+            softAssertions.assertThat(ReflectionTestUtils.getField(factory, "commonErrorHandler"))
+                    .isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("The record a batch failed on should be published to the failed topic at once")
+    void failedBatchRecordErrorHandler_shouldPublishFailedRecordToFailedTopic() {
+        //ARRANGE
+        ConsumerRecord<String, Object> first = new ConsumerRecord<>("master_to_deposit_early_withdrawal", 0, 10L, "key", "first");
+        ConsumerRecord<String, Object> failed = new ConsumerRecord<>("master_to_deposit_early_withdrawal", 0, 11L, "key", "failed");
+        ConsumerRecords<String, Object> records = new ConsumerRecords<>(
+                Map.of(new TopicPartition("master_to_deposit_early_withdrawal", 0), List.of(first, failed)));
+        SettableListenableFuture<SendResult<String, Object>> sendResult = new SettableListenableFuture<>();
+        sendResult.set(null);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(sendResult);
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(container.getContainerProperties()).thenReturn(new ContainerProperties("master_to_deposit_early_withdrawal"));
+
+        //ACT
+        kafkaConsumerConfig.failedBatchRecordErrorHandler(kafkaTemplate).handleBatch(
+                new BatchListenerFailedException("failed", new IllegalStateException(), 1),
+                records, mock(Consumer.class), container, () -> { });
+
+        //VERIFY
+        ArgumentCaptor<ProducerRecord<String, Object>> recordCaptor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(recordCaptor.capture());
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(recordCaptor.getValue().topic())
+                    .isEqualTo("master_to_deposit_early_withdrawal-failed");
+            softAssertions.assertThat(recordCaptor.getValue().value())
+                    .isEqualTo("failed");
+        });
+    }
+
+    @Test
+    @DisplayName("Topics without tuning should keep Kafka and Spring defaults")
+    void factoryNewCard_ifTopicIsNotTuned_thenKeepDefaults() {
+        //ACT
+        DefaultKafkaConsumerFactory<String, Object> consumerFactory = kafkaConsumerConfig.consumerFactoryNewCard();
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = kafkaConsumerConfig.factoryNewCard();
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(consumerFactory.getConfigurationProperties())
+                    .doesNotContainKeys(ConsumerConfig.MAX_POLL_RECORDS_CONFIG,
+                            ConsumerConfig.FETCH_MIN_BYTES_CONFIG,
+                            ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG);
+            softAssertions.assertThat(ReflectionTestUtils.getField(factory, "concurrency"))
+                    .isNull();
+            softAssertions.assertThat(factory.getContainerProperties().getAckMode())
+                    .isEqualTo(ContainerProperties.AckMode.BATCH);
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package by.afinny.deposit.unit.kafka;
+
+import by.afinny.deposit.config.kafka.KafkaProducerConfig;
+import by.afinny.deposit.config.kafka.properties.KafkaConfigProperties;
+import by.afinny.deposit.config.kafka.properties.ProducerPreset;
+import by.afinny.deposit.integration.KafkaTopicMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class KafkaProducerConfigTest {
+
+    private KafkaConfigProperties config;
+    private MeterRegistry meterRegistry;
+    private KafkaProducerConfig kafkaProducerConfig;
+
+    @BeforeEach
+    void setUp() {
+        config = new KafkaConfigProperties();
+        config.setBootstrapServers("localhost:9092");
+        config.setKafkaProperties(new KafkaProperties());
+        meterRegistry = new SimpleMeterRegistry();
+        kafkaProducerConfig = new KafkaProducerConfig(config, meterRegistry, new KafkaTopicMetrics(meterRegistry));
+        ReflectionTestUtils.invokeMethod(kafkaProducerConfig, "createKafkaProperties");
+    }
+
+    @Test
+    @DisplayName("High-throughput preset should enable idempotence, zstd compression and batching")
+    void producerFactory_withHighThroughputPreset_shouldApplyPreset() {
+        //ARRANGE
+        config.getProducer().setPreset(ProducerPreset.HIGH_THROUGHPUT);
+
+        //ACT
+        Map<String, Object> props = kafkaProducerConfig.producerFactoryForWithdrawDeposit().getConfigurationProperties();
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(props.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG)).isEqualTo(true);
+            softAssertions.assertThat(props.get(ProducerConfig.ACKS_CONFIG)).isEqualTo("all");
+            softAssertions.assertThat(props.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION)).isEqualTo(5);
+            softAssertions.assertThat(props.get(ProducerConfig.COMPRESSION_TYPE_CONFIG)).isEqualTo("zstd");
+            softAssertions.assertThat(props.get(ProducerConfig.LINGER_MS_CONFIG)).isEqualTo(20);
+            softAssertions.assertThat(props.get(ProducerConfig.BATCH_SIZE_CONFIG)).isEqualTo(262144);
+        });
+    }
+
+    @Test
+    @DisplayName("Explicitly set properties should override the preset")
+    void producerFactory_withOverrides_shouldOverridePreset() {
+        //ARRANGE
+        config.getProducer().setPreset(ProducerPreset.LOW_LATENCY);
+        config.getProducer().setCompressionType("zstd");
+        config.getProducer().setLinger(Duration.ofMillis(5));
+
+        //ACT
+        Map<String, Object> props = kafkaProducerConfig.producerFactoryForWithdrawDeposit().getConfigurationProperties();
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(props.get(ProducerConfig.COMPRESSION_TYPE_CONFIG)).isEqualTo("zstd");
+            softAssertions.assertThat(props.get(ProducerConfig.LINGER_MS_CONFIG)).isEqualTo(5);
+            softAssertions.assertThat(props.get(ProducerConfig.BATCH_SIZE_CONFIG)).isEqualTo(16384);
+        });
+    }
+
+    @Test
+    @DisplayName("Without tuning only the client defaults should apply")
+    void producerFactory_withoutTuning_shouldKeepClientDefaults() {
+        //ACT
+        Map<String, Object> props = kafkaProducerConfig.producerFactoryForWithdrawDeposit().getConfigurationProperties();
+
+        //VERIFY
+        assertThat(props).doesNotContainKeys(ProducerConfig.COMPRESSION_TYPE_CONFIG,
+                ProducerConfig.LINGER_MS_CONFIG,
+                ProducerConfig.BATCH_SIZE_CONFIG,
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG);
+    }
+
+    @Test
+    @DisplayName("Producer metrics listener and batch fill ratio gauge should be registered")
+    void kafkaTemplate_shouldRegisterProducerMetrics() {
+        //ACT
+        DefaultKafkaProducerFactory<String, Object> producerFactory = kafkaProducerConfig.producerFactoryForWithdrawDeposit();
+        kafkaProducerConfig.kafkaTemplate(producerFactory);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(producerFactory.getListeners())
+                    .hasAtLeastOneElementOfType(MicrometerProducerListener.class);
+            softAssertions.assertThat(meterRegistry.find(KafkaProducerConfig.BATCH_FILL_RATIO_METRIC).gauge())
+                    .isNotNull();
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package by.afinny.deposit.unit.kafka;
+
+import by.afinny.deposit.integration.KafkaTopicMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.kafka.support.ProducerListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+import static org.mockito.Mockito.mock;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class KafkaTopicMetricsTest {
+
+    private static final String TOPIC = "master_to_deposit_early_withdrawal";
+
+    private MockClock clock;
+    private MeterRegistry meterRegistry;
+    private KafkaTopicMetrics kafkaTopicMetrics;
+    private Consumer<String, Object> consumer;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MockClock();
+        clock.add(1, TimeUnit.HOURS);
+        meterRegistry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+        kafkaTopicMetrics = new KafkaTopicMetrics(meterRegistry);
+        consumer = mock(Consumer.class);
+    }
+
+    @Test
+    @DisplayName("A record should be timed from its timestamp until received and while processed")
+    void recordInterceptor_shouldRecordLagAndProcessingTime() {
+        //ARRANGE
+        RecordInterceptor<String, Object> interceptor = kafkaTopicMetrics.recordInterceptor();
+        ConsumerRecord<String, Object> record = record(clock.wallTime() - 250);
+
+        //ACT
+        interceptor.intercept(record, consumer);
+        clock.add(40, TimeUnit.MILLISECONDS);
+        interceptor.success(record, consumer);
+        interceptor.intercept(record, consumer);
+        interceptor.failure(record, new IllegalStateException(), consumer);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(meterRegistry.get(KafkaTopicMetrics.CONSUME_LAG_METRIC)
+                            .tag("topic", TOPIC).timer().max(TimeUnit.MILLISECONDS))
+                    .isEqualTo(290.0);
+            softAssertions.assertThat(meterRegistry.get(KafkaTopicMetrics.PROCESSING_METRIC)
+                            .tags("topic", TOPIC, "outcome", KafkaTopicMetrics.SUCCESS).timer()
+                            .totalTime(TimeUnit.MILLISECONDS))
+                    .isEqualTo(40.0);
+            softAssertions.assertThat(meterRegistry.get(KafkaTopicMetrics.PROCESSING_METRIC)
+                            .tags("topic", TOPIC, "outcome", KafkaTopicMetrics.FAILURE).timer().count())
+                    .isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("Every record of a batch should record its lag, the batch its processing time once")
+    void batchInterceptor_shouldRecordLagPerRecordAndProcessingPerBatch() {
+        //ARRANGE
+        BatchInterceptor<String, Object> interceptor = kafkaTopicMetrics.batchInterceptor();
+        ConsumerRecords<String, Object> records = new ConsumerRecords<>(Map.of(new TopicPartition(TOPIC, 0),
+                List.of(record(clock.wallTime() - 100), record(clock.wallTime() - 10))));
+
+        //ACT
+        interceptor.intercept(records, consumer);
+        clock.add(5, TimeUnit.MILLISECONDS);
+        interceptor.success(records, consumer);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(meterRegistry.get(KafkaTopicMetrics.CONSUME_LAG_METRIC)
+                            .tag("topic", TOPIC).timer().count())
+                    .isEqualTo(2);
+            softAssertions.assertThat(meterRegistry.get(KafkaTopicMetrics.PROCESSING_METRIC)
+                            .tags("topic", TOPIC, "outcome", KafkaTopicMetrics.SUCCESS).timer().count())
+                    .isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("Publish latency should be recorded for records stamped by the producer only")
+    void producerListener_shouldRecordPublishLatency() {
+        //ARRANGE
+        ProducerListener<String, Object> listener = kafkaTopicMetrics.producerListener();
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition(TOPIC, 0), 0L, 0,
+                clock.wallTime() - 15, 0, 0);
+
+        //ACT
+        listener.onSuccess(new ProducerRecord<>(TOPIC, "key", "value"), metadata);
+        listener.onSuccess(new ProducerRecord<>(TOPIC, null, clock.wallTime() - 60_000, "key", "value"), metadata);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(meterRegistry.get(KafkaTopicMetrics.PUBLISH_METRIC)
+                            .tag("topic", TOPIC).timer().count())
+                    .isEqualTo(1);
+            softAssertions.assertThat(meterRegistry.get(KafkaTopicMetrics.PUBLISH_METRIC)
+                            .tag("topic", TOPIC).timer().max(TimeUnit.MILLISECONDS))
+                    .isEqualTo(15.0);
+        });
+    }
+
+    private ConsumerRecord<String, Object> record(long timestamp) {
+        return new ConsumerRecord<>(TOPIC, 0, 0L, timestamp, TimestampType.CREATE_TIME, 0, 0, "key", "value",
+                new RecordHeaders(), Optional.empty());
+    }
+}
@@ -0,0 +1,109 @@
+package by.afinny.deposit.unit.kafka;
+
+import by.afinny.deposit.config.kafka.KafkaMessageKeyConfig;
+import by.afinny.deposit.dto.kafka.AutoRenewalEvent;
+import by.afinny.deposit.dto.kafka.CardEvent;
+import by.afinny.deposit.dto.kafka.ProducerNewCardEvent;
+import by.afinny.deposit.dto.kafka.ProducerWithdrawEvent;
+import by.afinny.deposit.entity.constant.CardStatus;
+import by.afinny.deposit.integration.MessageKeyResolver;
+import org.apache.kafka.clients.producer.internals.DefaultPartitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class MessageKeyResolverTest {
+
+    private static final String TOPIC = "deposit_to_master_update_status_card";
+    private static final int PARTITIONS = 12;
+    private static final UUID CARD_ID = UUID.fromString("3f2c1e8a-5b7d-4c6e-9a1f-2d3b4c5e6f70");
+
+    private MessageKeyResolver messageKeyResolver;
+
+    @BeforeEach
+    void setUp() {
+        KafkaMessageKeyConfig config = new KafkaMessageKeyConfig();
+        messageKeyResolver = new MessageKeyResolver(List.of(
+                config.cardEventKeyStrategy(),
+                config.autoRenewalEventKeyStrategy(),
+                config.producerWithdrawEventKeyStrategy(),
+                config.producerNewCardEventKeyStrategy(),
+                config.requestNewDepositKeyStrategy(),
+                config.newPinCodeDebitCardKeyStrategy()));
+    }
+
+    @Test
+    @DisplayName("Every event should be keyed by the id of its aggregate")
+    void resolveKey_shouldReturnAggregateId() {
+        //ARRANGE
+        UUID agreementId = UUID.randomUUID();
+        UUID clientId = UUID.randomUUID();
+
+        //ACT & VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(messageKeyResolver.resolveKey(new CardEvent(CARD_ID, CardStatus.ACTIVE)))
+                    .isEqualTo(CARD_ID.toString());
+            softAssertions.assertThat(messageKeyResolver.resolveKey(new AutoRenewalEvent(agreementId, true)))
+                    .isEqualTo(agreementId.toString());
+            softAssertions.assertThat(messageKeyResolver.resolveKey(new ProducerWithdrawEvent(agreementId, "013459876")))
+                    .isEqualTo(agreementId.toString());
+            softAssertions.assertThat(messageKeyResolver.resolveKey(new ProducerNewCardEvent(clientId, null)))
+                    .isEqualTo(clientId.toString());
+        });
+    }
+
+    @Test
+    @DisplayName("Events of one card should always go to the same partition")
+    void resolveKey_eventsOfOneCard_shouldBePartitionedTogether() {
+        //ARRANGE
+        DefaultPartitioner partitioner = new DefaultPartitioner();
+        Cluster cluster = createCluster();
+
+        //ACT
+        Set<Integer> partitions = IntStream.range(0, 100)
+                .mapToObj(i -> new CardEvent(CARD_ID, CardStatus.values()[i % CardStatus.values().length]))
+                .map(messageKeyResolver::resolveKey)
+                .map(key -> partitioner.partition(TOPIC, key, key.getBytes(StandardCharsets.UTF_8), null, null, cluster))
+                .collect(Collectors.toSet());
+
+        //VERIFY
+        assertThat(partitions).containsExactly(11);
+    }
+
+    @Test
+    @DisplayName("Events without a key strategy should be sent without a key")
+    void resolveKey_ifNoStrategy_thenReturnNull() {
+        //ACT & VERIFY
+        assertThat(messageKeyResolver.resolveKey("event")).isNull();
+    }
+
+    @Test
+    @DisplayName("Events without an aggregate id should be sent without a key")
+    void resolveKey_ifAggregateIdIsNull_thenReturnNull() {
+        //ACT & VERIFY
+        assertThat(messageKeyResolver.resolveKey(new CardEvent(null, CardStatus.ACTIVE))).isNull();
+    }
+
+    private Cluster createCluster() {
+        Node node = new Node(0, "localhost", 9092);
+        List<PartitionInfo> partitions = IntStream.range(0, PARTITIONS)
+                .mapToObj(partition -> new PartitionInfo(TOPIC, partition, node, new Node[]{node}, new Node[]{node}))
+                .collect(Collectors.toList());
+        return new Cluster("deposit", List.of(node), partitions, Set.of(), Set.of());
+    }
+}
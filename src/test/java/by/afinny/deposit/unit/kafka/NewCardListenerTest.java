@@ -2,8 +2,9 @@ package by.afinny.deposit.unit.kafka;
 
 import by.afinny.deposit.dto.kafka.ConsumerNewCardEvent;
 import by.afinny.deposit.integration.NewCardListener;
+import by.afinny.deposit.integration.RetryMetrics;
 import by.afinny.deposit.service.OrderService;
-import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
@@ -16,9 +17,10 @@ import org.springframework.test.context.ActiveProfiles;
 
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
-@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
 @ActiveProfiles("test")
 class NewCardListenerTest {
 
@@ -27,10 +29,12 @@ class NewCardListenerTest {
 
     @Mock
     private OrderService orderService;
+    @Mock
+    private RetryMetrics retryMetrics;
 
     private ConsumerNewCardEvent event;
 
-    @BeforeAll
+    @BeforeEach
     void setUp() {
         event = ConsumerNewCardEvent.builder().build();
     }
@@ -44,4 +48,18 @@ class NewCardListenerTest {
         //VERIFY
         verify(orderService, times(1)).createNewCard(event);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Record moved to the dead-letter topic should only be counted")
+    void onDeadLetter_shouldRecordDeadLetter() {
+        //ARRANGE
+        GenericMessage<ConsumerNewCardEvent> message = new GenericMessage<>(event);
+
+        //ACT
+        newCardListener.onDeadLetter(message);
+
+        //VERIFY
+        verify(retryMetrics).recordDeadLetter(message);
+        verifyNoInteractions(orderService);
+    }
+}
@@ -55,7 +55,15 @@ public class NewPinCodeDebitCardSourceTest {
         Message<?> message = messageCaptor.getValue();
 
         assertThat(message.getPayload()).isEqualTo(newPinCodeDebitCardDto);
-        assertThat(message.getHeaders()).containsEntry(KafkaHeaders.TOPIC, KAFKA_TOPIC);
+        assertThat(message.getHeaders()).containsEntry(KafkaHeaders.TOPIC, KAFKA_TOPIC)
+                .containsEntry(KafkaHeaders.MESSAGE_KEY, "545465");
+    }
+
+    @Test
+    @DisplayName("verify the new PIN is not part of the logged dto")
+    void toString_shouldNotContainNewPin() {
+        //VERIFY
+        assertThat(newPinCodeDebitCardDto.toString()).doesNotContain("7879");
     }
 }
 
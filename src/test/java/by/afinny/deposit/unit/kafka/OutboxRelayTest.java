@@ -0,0 +1,260 @@
+package by.afinny.deposit.unit.kafka;
+
+import by.afinny.deposit.config.kafka.properties.KafkaConfigProperties;
+import by.afinny.deposit.dto.kafka.CardEvent;
+import by.afinny.deposit.entity.OutboxEvent;
+import by.afinny.deposit.entity.constant.CardStatus;
+import by.afinny.deposit.integration.OutboxRelay;
+import by.afinny.deposit.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.messaging.Message;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class OutboxRelayTest {
+
+    private static final String TOPIC = "deposit_to_master_update_status_card";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PreparedStatement statement;
+    @Mock
+    private ResultSet resultSet;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OutboxRelay outboxRelay;
+    private CardEvent cardEvent;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaTemplate, objectMapper, new KafkaConfigProperties(),
+                jdbcTemplate);
+        cardEvent = CardEvent.builder()
+                .cardId(UUID.randomUUID())
+                .cardStatus(CardStatus.BLOCKED)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Events should be sent in the order they were written, keyed and deleted once acknowledged")
+    void relay_shouldSendEventsInOrderAndDeleteThem() throws JsonProcessingException, SQLException {
+        //ARRANGE
+        List<OutboxEvent> outboxEvents = List.of(createOutboxEvent(1L), createOutboxEvent(2L));
+        lockAcquired(true);
+        when(outboxEventRepository.findRelayable(any(Pageable.class))).thenReturn(outboxEvents);
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(acknowledged(), acknowledged());
+        ArgumentCaptor<Message<?>> messageCaptor = ArgumentCaptor.forClass(Message.class);
+
+        //ACT
+        outboxRelay.relay();
+
+        //VERIFY
+        verify(kafkaTemplate, times(2)).send(messageCaptor.capture());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        List<Message<?>> messages = messageCaptor.getAllValues();
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(messages.get(0).getPayload())
+                    .usingRecursiveComparison()
+                    .isEqualTo(cardEvent);
+            softAssertions.assertThat(messages.get(0).getHeaders())
+                    .containsEntry(KafkaHeaders.TOPIC, TOPIC)
+                    .containsEntry(KafkaHeaders.MESSAGE_KEY, cardEvent.getCardId().toString());
+            softAssertions.assertThat((byte[]) messages.get(0).getHeaders().get(OutboxRelay.EVENT_ID_HEADER))
+                    .isEqualTo("1".getBytes(StandardCharsets.UTF_8));
+            softAssertions.assertThat((byte[]) messages.get(1).getHeaders().get(OutboxRelay.EVENT_ID_HEADER))
+                    .isEqualTo("2".getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    @Test
+    @DisplayName("If an event wasn't acknowledged then the acknowledged events of other keys should still be deleted")
+    void relay_ifSendFails_thenDeleteAcknowledgedEventsOfOtherKeys() throws JsonProcessingException, SQLException {
+        //ARRANGE
+        List<OutboxEvent> outboxEvents = List.of(createOutboxEvent(1L, "a"), createOutboxEvent(2L, "b"),
+                createOutboxEvent(3L, "c"));
+        lockAcquired(true);
+        when(outboxEventRepository.findRelayable(any(Pageable.class))).thenReturn(outboxEvents);
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(acknowledged(), failed(), acknowledged());
+
+        //ACT
+        outboxRelay.relay();
+
+        //VERIFY
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 3L));
+        verify(outboxEventRepository, never()).markFailed(anyList(), any(LocalDateTime.class));
+        verify(connection).prepareStatement("SELECT pg_advisory_unlock(?)");
+    }
+
+    @Test
+    @DisplayName("If an event wasn't acknowledged then the later events of its key should wait and follow it next time")
+    void relay_ifSendOfKeyFails_thenKeepOrderOfKeyOnNextRun() throws JsonProcessingException, SQLException {
+        //ARRANGE
+        OutboxEvent first = createOutboxEvent(1L);
+        OutboxEvent second = createOutboxEvent(2L);
+        OutboxEvent third = createOutboxEvent(3L);
+        lockAcquired(true);
+        when(outboxEventRepository.findRelayable(any(Pageable.class)))
+                .thenReturn(List.of(first, second, third), List.of(second, third));
+        when(kafkaTemplate.send(any(Message.class)))
+                .thenReturn(acknowledged(), failed(), acknowledged(), acknowledged());
+        ArgumentCaptor<Message<?>> messageCaptor = ArgumentCaptor.forClass(Message.class);
+
+        //ACT
+        outboxRelay.relay();
+        outboxRelay.relay();
+
+        //VERIFY
+        verify(kafkaTemplate, times(4)).send(messageCaptor.capture());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(2L, 3L));
+        assertSoftly(softAssertions -> softAssertions.assertThat(eventIds(messageCaptor.getAllValues()))
+                .containsExactly("1", "2", "2", "3"));
+    }
+
+    @Test
+    @DisplayName("An event that can't be deserialized should be marked as failed and hold back only its own key")
+    void relay_ifEventCantBeDeserialized_thenMarkItFailedAndHoldBackItsKey() throws JsonProcessingException, SQLException {
+        //ARRANGE
+        OutboxEvent broken = createOutboxEvent(2L, "a");
+        broken.setPayloadType("by.afinny.deposit.dto.kafka.RemovedEvent");
+        List<OutboxEvent> outboxEvents = List.of(createOutboxEvent(1L, "a"), broken, createOutboxEvent(3L, "a"),
+                createOutboxEvent(4L, "b"));
+        lockAcquired(true);
+        when(outboxEventRepository.findRelayable(any(Pageable.class))).thenReturn(outboxEvents);
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(acknowledged(), acknowledged());
+        ArgumentCaptor<Message<?>> messageCaptor = ArgumentCaptor.forClass(Message.class);
+
+        //ACT
+        outboxRelay.relay();
+
+        //VERIFY
+        verify(kafkaTemplate, times(2)).send(messageCaptor.capture());
+        verify(outboxEventRepository).markFailed(eq(List.of(2L)), any(LocalDateTime.class));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 4L));
+        assertSoftly(softAssertions -> softAssertions.assertThat(eventIds(messageCaptor.getAllValues()))
+                .containsExactly("1", "4"));
+    }
+
+    @Test
+    @DisplayName("If another instance holds the relay lock then nothing should be sent")
+    void relay_ifLockIsHeld_thenDoNothing() throws SQLException {
+        //ARRANGE
+        lockAcquired(false);
+
+        //ACT
+        outboxRelay.relay();
+
+        //VERIFY
+        verify(outboxEventRepository, never()).findRelayable(any(Pageable.class));
+        verify(kafkaTemplate, never()).send(any(Message.class));
+        verify(connection, never()).prepareStatement("SELECT pg_advisory_unlock(?)");
+    }
+
+    @Test
+    @DisplayName("The relay should run on a thread of its own, apart from the shared scheduler")
+    void start_shouldRelayOnOwnThread() throws SQLException {
+        //ARRANGE
+        List<String> threadNames = new CopyOnWriteArrayList<>();
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation -> {
+            threadNames.add(Thread.currentThread().getName());
+            return null;
+        });
+
+        //ACT
+        outboxRelay.start();
+        verify(jdbcTemplate, timeout(5000).atLeastOnce()).execute(any(ConnectionCallback.class));
+        outboxRelay.destroy();
+
+        //VERIFY
+        assertSoftly(softAssertions -> softAssertions.assertThat(threadNames)
+                .allMatch(name -> name.startsWith("outbox-relay-")));
+    }
+
+    private void lockAcquired(boolean acquired) throws SQLException {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0, ConnectionCallback.class).doInConnection(connection));
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBoolean(1)).thenReturn(acquired);
+    }
+
+    private OutboxEvent createOutboxEvent(Long id) throws JsonProcessingException {
+        return createOutboxEvent(id, cardEvent.getCardId().toString());
+    }
+
+    private OutboxEvent createOutboxEvent(Long id, String aggregateKey) throws JsonProcessingException {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(TOPIC)
+                .aggregateKey(aggregateKey)
+                .payloadType(CardEvent.class.getName())
+                .payload(objectMapper.writeValueAsString(cardEvent))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static List<String> eventIds(List<Message<?>> messages) {
+        return messages.stream()
+                .map(message -> new String((byte[]) message.getHeaders().get(OutboxRelay.EVENT_ID_HEADER),
+                        StandardCharsets.UTF_8))
+                .collect(Collectors.toList());
+    }
+
+    private SettableListenableFuture<SendResult<String, Object>> failed() {
+        SettableListenableFuture<SendResult<String, Object>> future = new SettableListenableFuture<>();
+        future.setException(new IllegalStateException("broker is unavailable"));
+        return future;
+    }
+
+    private SettableListenableFuture<SendResult<String, Object>> acknowledged() {
+        SettableListenableFuture<SendResult<String, Object>> future = new SettableListenableFuture<>();
+        future.set(new SendResult<>(null, null));
+        return future;
+    }
+}
@@ -0,0 +1,74 @@
+package by.afinny.deposit.unit.kafka;
+
+import by.afinny.deposit.dto.kafka.CardEvent;
+import by.afinny.deposit.entity.OutboxEvent;
+import by.afinny.deposit.entity.constant.CardStatus;
+import by.afinny.deposit.integration.MessageKeyResolver;
+import by.afinny.deposit.integration.OutboxWriter;
+import by.afinny.deposit.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class OutboxWriterTest {
+
+    private static final String TOPIC = "deposit_to_master_update_status_card";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private MessageKeyResolver messageKeyResolver;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OutboxWriter outboxWriter;
+
+    @BeforeEach
+    void setUp() {
+        outboxWriter = new OutboxWriter(outboxEventRepository, objectMapper, messageKeyResolver);
+    }
+
+    @Test
+    @DisplayName("Event should be stored as JSON together with its type, topic and key")
+    void write_shouldSaveOutboxEvent() {
+        //ARRANGE
+        CardEvent cardEvent = CardEvent.builder()
+                .cardId(UUID.randomUUID())
+                .cardStatus(CardStatus.ACTIVE)
+                .build();
+        ArgumentCaptor<OutboxEvent> outboxEventCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        when(messageKeyResolver.resolveKey(cardEvent)).thenReturn(cardEvent.getCardId().toString());
+
+        //ACT
+        outboxWriter.write(TOPIC, cardEvent);
+
+        //VERIFY
+        verify(outboxEventRepository).save(outboxEventCaptor.capture());
+        OutboxEvent outboxEvent = outboxEventCaptor.getValue();
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(outboxEvent.getTopic())
+                    .isEqualTo(TOPIC);
+            softAssertions.assertThat(outboxEvent.getAggregateKey())
+                    .isEqualTo(cardEvent.getCardId().toString());
+            softAssertions.assertThat(outboxEvent.getPayloadType())
+                    .isEqualTo(CardEvent.class.getName());
+            softAssertions.assertThat(outboxEvent.getPayload())
+                    .contains(cardEvent.getCardId().toString(), CardStatus.ACTIVE.name());
+            softAssertions.assertThat(outboxEvent.getCreatedAt())
+                    .isNotNull();
+        });
+    }
+}
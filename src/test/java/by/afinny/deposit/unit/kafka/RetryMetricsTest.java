@@ -0,0 +1,72 @@
+package by.afinny.deposit.unit.kafka;
+
+import by.afinny.deposit.integration.RetryMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class RetryMetricsTest {
+
+    private MeterRegistry meterRegistry;
+    private RetryMetrics retryMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retryMetrics = new RetryMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deliveries from the retry and failed topics should be counted, first deliveries should not")
+    void recordDelivery_shouldCountOnlyRetries() {
+        //ACT
+        retryMetrics.recordDelivery(message("master_to_deposit_card_order", false));
+        retryMetrics.recordDelivery(message("master_to_deposit_card_order-retry-0", true));
+        retryMetrics.recordDelivery(message("master_to_deposit_early_withdrawal-failed", false));
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(meterRegistry.find(RetryMetrics.RETRIES_METRIC)
+                            .tag("topic", "master_to_deposit_card_order").counter())
+                    .isNull();
+            softAssertions.assertThat(meterRegistry.get(RetryMetrics.RETRIES_METRIC)
+                            .tag("topic", "master_to_deposit_card_order-retry-0").counter().count())
+                    .isEqualTo(1.0);
+            softAssertions.assertThat(meterRegistry.get(RetryMetrics.RETRIES_METRIC)
+                            .tag("topic", "master_to_deposit_early_withdrawal-failed").counter().count())
+                    .isEqualTo(1.0);
+        });
+    }
+
+    @Test
+    @DisplayName("Records moved to a dead-letter topic should be counted by topic")
+    void recordDeadLetter_shouldCountByTopic() {
+        //ACT
+        retryMetrics.recordDeadLetter(message("master_to_deposit_card_order-dlt", true));
+        retryMetrics.recordDeadLetter(message("master_to_deposit_card_order-dlt", true));
+
+        //VERIFY
+        assertSoftly(softAssertions -> softAssertions.assertThat(meterRegistry.get(RetryMetrics.DEAD_LETTERS_METRIC)
+                        .tag("topic", "master_to_deposit_card_order-dlt").counter().count())
+                .isEqualTo(2.0));
+    }
+
+    private Message<String> message(String topic, boolean retried) {
+        MessageBuilder<String> builder = MessageBuilder.withPayload("{}")
+                .setHeader(KafkaHeaders.RECEIVED_TOPIC, topic);
+        if (retried) {
+            builder.setHeader(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS, 2);
+        }
+        return builder.build();
+    }
+}
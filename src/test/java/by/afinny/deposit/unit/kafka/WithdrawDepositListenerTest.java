@@ -3,22 +3,35 @@ package by.afinny.deposit.unit.kafka;
 import by.afinny.deposit.dto.kafka.ConsumerWithdrawEvent;
 import by.afinny.deposit.entity.OperationType;
 import by.afinny.deposit.entity.constant.CurrencyCode;
+import by.afinny.deposit.exception.EntityNotFoundException;
+import by.afinny.deposit.integration.RetryMetrics;
 import by.afinny.deposit.integration.WithdrawDepositListener;
 import by.afinny.deposit.service.AgreementService;
 import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +41,8 @@ class WithdrawDepositListenerTest {
 
     @Mock
     private AgreementService agreementService;
+    @Mock
+    private RetryMetrics retryMetrics;
 
     @InjectMocks
     private WithdrawDepositListener withdrawDepositListener;
@@ -52,20 +67,90 @@ class WithdrawDepositListenerTest {
     }
 
     @Test
-    @DisplayName("Verify received message")
-    void onRequestUpdateAgreementStatusAndInsertOperationEvent_shouldInvokeModifyAgreementAndInsertOperation() {
+    @DisplayName("Verify received messages are processed as one batch")
+    void onRequestUpdateAgreementStatusAndInsertOperationEvent_shouldInvokeModifyAgreementsAndCreateOperations() {
+        //ARRANGE
+        ArgumentCaptor<List<ConsumerWithdrawEvent>> consumerWithdrawEventsArgumentCaptor
+                = ArgumentCaptor.forClass(List.class);
+
+        //ACT
+        withdrawDepositListener.onRequestUpdateAgreementStatusAndInsertOperationEvent(List.of(new GenericMessage<>(event)));
+
+        //VERIFY
+        verify(agreementService).modifyAgreementsAndCreateOperations(consumerWithdrawEventsArgumentCaptor.capture());
+        verify(agreementService, never()).modifyAgreementAndCreateOperation(any(ConsumerWithdrawEvent.class));
+        assertThat(consumerWithdrawEventsArgumentCaptor.getValue()).hasSize(1);
+        verifyEvent(consumerWithdrawEventsArgumentCaptor.getValue().get(0));
+    }
+
+    @Test
+    @DisplayName("If the batch fails then every message should be processed on its own")
+    void onRequestUpdateAgreementStatusAndInsertOperationEvent_ifBatchFails_thenProcessEachMessage() {
         //ARRANGE
+        doThrow(EntityNotFoundException.class).when(agreementService).modifyAgreementsAndCreateOperations(anyList());
         ArgumentCaptor<ConsumerWithdrawEvent> consumerWithdrawEventArgumentCaptor
                 = ArgumentCaptor.forClass(ConsumerWithdrawEvent.class);
 
         //ACT
-        withdrawDepositListener.onRequestUpdateAgreementStatusAndInsertOperationEvent(new GenericMessage<>(event));
+        withdrawDepositListener.onRequestUpdateAgreementStatusAndInsertOperationEvent(
+                List.of(new GenericMessage<>(event), new GenericMessage<>(event)));
 
         //VERIFY
-        verify(agreementService).modifyAgreementAndCreateOperation(consumerWithdrawEventArgumentCaptor.capture());
+        verify(agreementService, times(2)).modifyAgreementAndCreateOperation(consumerWithdrawEventArgumentCaptor.capture());
         verifyEvent(consumerWithdrawEventArgumentCaptor.getValue());
     }
 
+    @Test
+    @DisplayName("If a single message fails then report its index to the container")
+    void onRequestUpdateAgreementStatusAndInsertOperationEvent_ifMessageFails_thenThrowBatchListenerFailedException() {
+        //ARRANGE
+        ConsumerWithdrawEvent failedEvent = ConsumerWithdrawEvent.builder()
+                .agreementId(UUID.randomUUID())
+                .build();
+        doThrow(EntityNotFoundException.class).when(agreementService).modifyAgreementsAndCreateOperations(anyList());
+        lenient().doThrow(EntityNotFoundException.class).when(agreementService).modifyAgreementAndCreateOperation(failedEvent);
+
+        //ACT
+        ThrowingCallable listenerInvocation = () -> withdrawDepositListener.onRequestUpdateAgreementStatusAndInsertOperationEvent(
+                List.of(new GenericMessage<>(event), new GenericMessage<>(failedEvent), new GenericMessage<>(event)));
+
+        //VERIFY
+        assertThatThrownBy(listenerInvocation)
+                .isInstanceOf(BatchListenerFailedException.class)
+                .hasCauseInstanceOf(EntityNotFoundException.class)
+                .extracting(exception -> ((BatchListenerFailedException) exception).getIndex())
+                .isEqualTo(1);
+        verify(agreementService).modifyAgreementAndCreateOperation(event);
+    }
+
+    @Test
+    @DisplayName("Record that failed in a batch should be retried on its own and counted as a retry")
+    void onFailedWithdrawEvent_shouldInvokeModifyAgreementAndCreateOperation() {
+        //ARRANGE
+        GenericMessage<ConsumerWithdrawEvent> message = new GenericMessage<>(event);
+
+        //ACT
+        withdrawDepositListener.onFailedWithdrawEvent(message);
+
+        //VERIFY
+        verify(agreementService).modifyAgreementAndCreateOperation(event);
+        verify(retryMetrics).recordDelivery(message);
+    }
+
+    @Test
+    @DisplayName("Record moved to the dead-letter topic should only be counted")
+    void onDeadLetter_shouldRecordDeadLetter() {
+        //ARRANGE
+        GenericMessage<ConsumerWithdrawEvent> message = new GenericMessage<>(event);
+
+        //ACT
+        withdrawDepositListener.onDeadLetter(message);
+
+        //VERIFY
+        verify(retryMetrics).recordDeadLetter(message);
+        verify(agreementService, never()).modifyAgreementAndCreateOperation(any(ConsumerWithdrawEvent.class));
+    }
+
     private void verifyEvent(ConsumerWithdrawEvent consumerWithdrawEvent) {
         SoftAssertions softAssertions = new SoftAssertions();
         softAssertions.assertThat(consumerWithdrawEvent.getAccountNumber())
@@ -1,7 +1,6 @@
 package by.afinny.deposit.unit.mapper;
 
 import by.afinny.deposit.dto.DepositDto;
-import by.afinny.deposit.dto.ActiveDepositDto;
 import by.afinny.deposit.dto.RefillDebitCardDto;
 import by.afinny.deposit.entity.Account;
 import by.afinny.deposit.entity.Agreement;
@@ -22,8 +21,6 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.UUID;
 
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
 
@@ -39,10 +36,6 @@ class DepositMapperTest {
     private Agreement agreement;
     private Product product;
     private DepositDto depositDto;
-    private Agreement agr;
-    private Card defaultCard;
-    private List<Agreement> agreements;
-    private List<ActiveDepositDto> activeDepositDtoList;
     private Account account;
     private RefillDebitCardDto refillDebitCardDto;
     private Operation operation;
@@ -64,33 +57,6 @@ class DepositMapperTest {
                 .isCapitalization(true)
                 .isRevocable(true).build();
 
-        defaultCard = Card.builder()
-                .cardNumber("1111222233334444")
-                .isDefault(true)
-                .build();
-        Card notDefaultCard = Card.builder()
-                .cardNumber("4444333322221111")
-                .isDefault(false)
-                .build();
-        agr = Agreement.builder()
-                .id(UUID.randomUUID())
-                .number("number")
-                .interestRate(new BigDecimal("10.00"))
-                .startDate(LocalDateTime.now())
-                .endDate(LocalDateTime.now().plusDays(1))
-                .initialAmount(new BigDecimal("1000000.00"))
-                .currentBalance(new BigDecimal("10000.00"))
-                .isActive(true)
-                .account(Account.builder()
-                        .accountNumber("accountNumber")
-                        .cards(List.of(defaultCard, notDefaultCard))
-                        .build())
-                .product(Product.builder()
-                        .name("product test name")
-                        .currencyCode(CurrencyCode.RUB)
-                        .build())
-                .autoRenewal(true).build();
-        agreements = List.of(agr);
         account = Account.builder()
                 .accountNumber("123")
                 .build();
@@ -111,15 +77,6 @@ class DepositMapperTest {
         verifyProductFields();
     }
 
-    @Test
-    @DisplayName("Verify deposit dto fields setting")
-    void toDepositsDto_shouldReturnCorrectMappingData() {
-        //ACT
-        activeDepositDtoList = depositMapper.toActiveDepositsDto(agreements);
-        //VERIFY
-        verifyProductField();
-    }
-
     @Test
     @DisplayName("Check fields RefillDebitCardDto and Operation are equals")
     void toOperation_checkCorrectMappingData(){
@@ -130,19 +87,6 @@ class DepositMapperTest {
         verifyOperationFields();
     }
 
-    private void verifyProductField() {
-        ActiveDepositDto resultActiveDepositDto = activeDepositDtoList.get(0);
-        assertSoftly(softAssertions -> {
-            softAssertions.assertThat(resultActiveDepositDto.getAgreementId()).isEqualTo(agr.getId());
-            softAssertions.assertThat(resultActiveDepositDto.getStartDate()).isEqualTo(agr.getStartDate());
-            softAssertions.assertThat(resultActiveDepositDto.getEndDate()).isEqualTo(agr.getEndDate());
-            softAssertions.assertThat(resultActiveDepositDto.getCurrentBalance()).isEqualTo(agr.getCurrentBalance());
-            softAssertions.assertThat(resultActiveDepositDto.getProductName()).isEqualTo(agr.getProduct().getName());
-            softAssertions.assertThat(resultActiveDepositDto.getCurrencyCode()).isEqualTo(agr.getProduct().getCurrencyCode());
-            softAssertions.assertThat(resultActiveDepositDto.getCardNumber()).isEqualTo(defaultCard.getCardNumber());
-        });
-    }
-
     private void verifyCardFields() {
         assertSoftly(softAssertions -> softAssertions.assertThat(depositDto.getCardNumber()).isEqualTo(card.getCardNumber()));
     }
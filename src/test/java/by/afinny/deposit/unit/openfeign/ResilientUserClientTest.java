@@ -0,0 +1,245 @@
+package by.afinny.deposit.unit.openfeign;
+
+import by.afinny.deposit.config.userservice.UserClientProperties;
+import by.afinny.deposit.dto.userservice.ClientByPhoneDto;
+import by.afinny.deposit.exception.UserServiceUnavailableException;
+import by.afinny.deposit.openfeign.userservice.CircuitBreaker;
+import by.afinny.deposit.openfeign.userservice.ResilientUserClient;
+import by.afinny.deposit.utils.UserServiceStub;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class ResilientUserClientTest {
+
+    private static final String MOBILE_PHONE = "79999999999";
+    private static final String OTHER_MOBILE_PHONE = "79998887766";
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(5);
+
+    private UserServiceStub userServiceStub;
+    private UserClientProperties properties;
+    private MeterRegistry meterRegistry;
+    private ClientByPhoneDto clientByPhoneDto;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        userServiceStub = new UserServiceStub();
+        properties = new UserClientProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newSingleThreadExecutor();
+        clientByPhoneDto = ClientByPhoneDto.builder()
+                .clientId(UUID.randomUUID())
+                .firstName("Ivan")
+                .lastName("Ivanov")
+                .middleName("Ivanovich").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userServiceStub.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Client found by phone should be cached and then returned without a call")
+    void getClientByPhone_ifCached_thenDoNotCall() {
+        //ARRANGE
+        userServiceStub.stubClient(MOBILE_PHONE, clientByPhoneDto);
+        ResilientUserClient userClient = createUserClient(READ_TIMEOUT);
+
+        //ACT
+        Optional<ClientByPhoneDto> first = userClient.getClientByPhone(MOBILE_PHONE);
+        Optional<ClientByPhoneDto> second = userClient.getClientByPhone(MOBILE_PHONE);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(first).get()
+                    .extracting(ClientByPhoneDto::getClientId).isEqualTo(clientByPhoneDto.getClientId());
+            softAssertions.assertThat(second).get()
+                    .extracting(ClientByPhoneDto::getClientId).isEqualTo(clientByPhoneDto.getClientId());
+            softAssertions.assertThat(userServiceStub.getRequestCount()).isEqualTo(1);
+            softAssertions.assertThat(meterRegistry.get("cache.gets").tag("cache", ResilientUserClient.CACHE_NAME)
+                    .tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+        });
+    }
+
+    @Test
+    @DisplayName("Phone without a client should be cached as absent")
+    void getClientByPhone_ifNotFound_thenCacheAbsence() {
+        //ARRANGE
+        ResilientUserClient userClient = createUserClient(READ_TIMEOUT);
+
+        //ACT
+        Optional<ClientByPhoneDto> first = userClient.getClientByPhone(MOBILE_PHONE);
+        Optional<ClientByPhoneDto> second = userClient.getClientByPhone(MOBILE_PHONE);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(first).isEmpty();
+            softAssertions.assertThat(second).isEmpty();
+            softAssertions.assertThat(userServiceStub.getRequestCount()).isEqualTo(1);
+            softAssertions.assertThat(callCount("not_found")).isEqualTo(1.0);
+        });
+    }
+
+    @Test
+    @DisplayName("If USER-SERVICE fails, then the stale client should be returned")
+    void getClientByPhone_ifServerError_thenReturnStaleClient() {
+        //ARRANGE
+        properties.getCache().setTtl(Duration.ZERO);
+        userServiceStub.stubClient(MOBILE_PHONE, clientByPhoneDto);
+        ResilientUserClient userClient = createUserClient(READ_TIMEOUT);
+        userClient.getClientByPhone(MOBILE_PHONE);
+        userServiceStub.stubStatus(MOBILE_PHONE, 500);
+
+        //ACT
+        Optional<ClientByPhoneDto> client = userClient.getClientByPhone(MOBILE_PHONE);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(client).get()
+                    .extracting(ClientByPhoneDto::getClientId).isEqualTo(clientByPhoneDto.getClientId());
+            softAssertions.assertThat(userServiceStub.getRequestCount()).isEqualTo(2);
+            softAssertions.assertThat(callCount("failure")).isEqualTo(1.0);
+            softAssertions.assertThat(meterRegistry.get(ResilientUserClient.FALLBACKS_METRIC)
+                    .tag("result", "stale").counter().count()).isEqualTo(1.0);
+        });
+    }
+
+    @Test
+    @DisplayName("If USER-SERVICE doesn't answer within the read timeout, then throw UserServiceUnavailableException")
+    void getClientByPhone_ifTimeout_thenThrowUserServiceUnavailableException() {
+        //ARRANGE
+        userServiceStub.stubClient(MOBILE_PHONE, clientByPhoneDto);
+        userServiceStub.setDelay(Duration.ofSeconds(2));
+        ResilientUserClient userClient = createUserClient(Duration.ofMillis(100));
+
+        //ACT
+        ThrowingCallable getClient = () -> userClient.getClientByPhone(MOBILE_PHONE);
+
+        //VERIFY
+        assertThatThrownBy(getClient).isInstanceOf(UserServiceUnavailableException.class);
+        assertThat(callCount("failure")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Client errors of USER-SERVICE should be passed on and not open the circuit breaker")
+    void getClientByPhone_ifClientError_thenRethrowAndKeepCircuitClosed() {
+        //ARRANGE
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(1);
+        userServiceStub.stubStatus(MOBILE_PHONE, 400);
+        ResilientUserClient userClient = createUserClient(READ_TIMEOUT);
+
+        //ACT
+        ThrowingCallable getClient = () -> userClient.getClientByPhone(MOBILE_PHONE);
+
+        //VERIFY
+        assertThatThrownBy(getClient).isInstanceOf(FeignException.BadRequest.class);
+        assertThat(userClient.getCircuitBreakerState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("If the failure rate reaches the threshold, then the circuit breaker should reject calls")
+    void getClientByPhone_ifFailureRateReached_thenOpenCircuit() {
+        //ARRANGE
+        properties.getCircuitBreaker().setSlidingWindowSize(2);
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(2);
+        userServiceStub.stubStatus(MOBILE_PHONE, 503);
+        userServiceStub.stubStatus(OTHER_MOBILE_PHONE, 503);
+        ResilientUserClient userClient = createUserClient(READ_TIMEOUT);
+        assertThatThrownBy(() -> userClient.getClientByPhone(MOBILE_PHONE))
+                .isInstanceOf(UserServiceUnavailableException.class);
+        assertThatThrownBy(() -> userClient.getClientByPhone(OTHER_MOBILE_PHONE))
+                .isInstanceOf(UserServiceUnavailableException.class);
+
+        //ACT
+        ThrowingCallable getClient = () -> userClient.getClientByPhone(MOBILE_PHONE);
+
+        //VERIFY
+        assertThatThrownBy(getClient).isInstanceOf(UserServiceUnavailableException.class);
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(userClient.getCircuitBreakerState()).isEqualTo(CircuitBreaker.State.OPEN);
+            softAssertions.assertThat(userServiceStub.getRequestCount()).isEqualTo(2);
+            softAssertions.assertThat(callCount("circuit_open")).isEqualTo(1.0);
+            softAssertions.assertThat(meterRegistry.get(ResilientUserClient.CIRCUIT_BREAKER_STATE_METRIC)
+                    .tag("state", "open").gauge().value()).isEqualTo(1.0);
+        });
+    }
+
+    @Test
+    @DisplayName("If the trial calls of the half-open circuit breaker succeed, then it should close")
+    void getClientByPhone_ifTrialCallsSucceed_thenCloseCircuit() {
+        //ARRANGE
+        properties.getCircuitBreaker().setSlidingWindowSize(1);
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(1);
+        properties.getCircuitBreaker().setWaitDurationInOpenState(Duration.ZERO);
+        properties.getCircuitBreaker().setPermittedCallsInHalfOpenState(1);
+        userServiceStub.stubStatus(MOBILE_PHONE, 500);
+        userServiceStub.stubClient(OTHER_MOBILE_PHONE, clientByPhoneDto);
+        ResilientUserClient userClient = createUserClient(READ_TIMEOUT);
+        assertThatThrownBy(() -> userClient.getClientByPhone(MOBILE_PHONE))
+                .isInstanceOf(UserServiceUnavailableException.class);
+        assertThat(userClient.getCircuitBreakerState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        //ACT
+        Optional<ClientByPhoneDto> client = userClient.getClientByPhone(OTHER_MOBILE_PHONE);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(client).isPresent();
+            softAssertions.assertThat(userClient.getCircuitBreakerState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        });
+    }
+
+    @Test
+    @DisplayName("If all concurrent calls are taken, then the bulkhead should reject the call")
+    void getClientByPhone_ifBulkheadFull_thenThrowUserServiceUnavailableException() throws Exception {
+        //ARRANGE
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        userServiceStub.stubClient(MOBILE_PHONE, clientByPhoneDto);
+        userServiceStub.setDelay(Duration.ofMillis(500));
+        ResilientUserClient userClient = createUserClient(READ_TIMEOUT);
+        CompletableFuture<Optional<ClientByPhoneDto>> slowCall =
+                CompletableFuture.supplyAsync(() -> userClient.getClientByPhone(MOBILE_PHONE), executor);
+        assertThat(userServiceStub.awaitRequest(Duration.ofSeconds(5))).isTrue();
+
+        //ACT
+        ThrowingCallable getClient = () -> userClient.getClientByPhone(OTHER_MOBILE_PHONE);
+
+        //VERIFY
+        assertThatThrownBy(getClient).isInstanceOf(UserServiceUnavailableException.class);
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(slowCall.join()).isPresent();
+            softAssertions.assertThat(callCount("bulkhead_full")).isEqualTo(1.0);
+            softAssertions.assertThat(meterRegistry.get(ResilientUserClient.BULKHEAD_AVAILABLE_METRIC)
+                    .gauge().value()).isEqualTo(1.0);
+        });
+    }
+
+    private ResilientUserClient createUserClient(Duration readTimeout) {
+        return new ResilientUserClient(userServiceStub.createClient(readTimeout), properties, meterRegistry);
+    }
+
+    private double callCount(String outcome) {
+        return meterRegistry.get(ResilientUserClient.CALLS_METRIC).tag("outcome", outcome).counter().count();
+    }
+}
@@ -3,6 +3,7 @@ package by.afinny.deposit.unit.repo;
 import by.afinny.deposit.entity.Account;
 import by.afinny.deposit.entity.constant.CurrencyCode;
 import by.afinny.deposit.repository.AccountRepository;
+import by.afinny.deposit.repository.projection.AccountView;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -16,6 +17,7 @@ import org.springframework.test.context.jdbc.Sql;
 import javax.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
@@ -69,6 +71,24 @@ class AccountRepositoryTest {
         verifyClient(foundAccount);
     }
 
+    @Test
+    @DisplayName("If active account exists then return its projection")
+    void findViewsByClientIdAndIsActiveTrue() {
+        //ARRANGE
+        accountRepository.save(account);
+
+        //ACT
+        List<AccountView> foundAccounts = accountRepository.findViewsByClientIdAndIsActiveTrue(account.getClientId());
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(foundAccounts).hasSize(1);
+            softAssertions.assertThat(foundAccounts.get(0).getAccountNumber()).isEqualTo(account.getAccountNumber());
+            softAssertions.assertThat(foundAccounts.get(0).getCurrencyCode()).isEqualTo(account.getCurrencyCode());
+            softAssertions.assertThat(foundAccounts.get(0).getIsActive()).isTrue();
+        });
+    }
+
     private void verifyClient(Account foundAccount) {
         assertSoftly(softAssertions -> {
             softAssertions.assertThat(foundAccount.getClientId()).isEqualTo(account.getClientId());
@@ -2,12 +2,21 @@ package by.afinny.deposit.unit.repo;
 
 import by.afinny.deposit.entity.Account;
 import by.afinny.deposit.entity.Agreement;
+import by.afinny.deposit.entity.Card;
+import by.afinny.deposit.entity.CardProduct;
 import by.afinny.deposit.entity.Product;
+import by.afinny.deposit.entity.constant.CardStatus;
 import by.afinny.deposit.entity.constant.CurrencyCode;
+import by.afinny.deposit.entity.constant.DigitalWallet;
+import by.afinny.deposit.entity.constant.PaymentSystem;
+import by.afinny.deposit.entity.constant.PremiumStatus;
 import by.afinny.deposit.entity.constant.SchemaName;
 import by.afinny.deposit.repository.AccountRepository;
 import by.afinny.deposit.repository.AgreementRepository;
+import by.afinny.deposit.repository.CardProductRepository;
+import by.afinny.deposit.repository.CardRepository;
 import by.afinny.deposit.repository.ProductRepository;
+import by.afinny.deposit.repository.projection.ActiveDepositView;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -45,6 +54,10 @@ class AgreementRepositoryTest {
     private AccountRepository accountRepository;
     @Autowired
     ProductRepository productRepository;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private CardProductRepository cardProductRepository;
 
     private final UUID CLIENT_ID = UUID.randomUUID();
 
@@ -119,9 +132,14 @@ class AgreementRepositoryTest {
 
     @AfterEach
     void cleanUp() {
+        cardRepository.deleteAll();
+        cardProductRepository.deleteAll();
         productRepository.deleteAll();
         agreementRepository.deleteAll();
         accountRepository.deleteAll();
+        product.setId(null);
+        account.setId(null);
+        agreement.setId(null);
     }
 
     @Test
@@ -168,6 +186,51 @@ class AgreementRepositoryTest {
         verifyClient(foundAgreement);
     }
 
+    @Test
+    @DisplayName("Active deposits should be returned with the number of the account's default card")
+    void findActiveDepositsByClientId_thenReturnAgreementsWithDefaultCard() {
+        //ARRANGE
+        product.setId(productRepository.save(product).getId());
+        account.setId(accountRepository.save(account).getId());
+        agreement.setId(agreementRepository.save(agreement).getId());
+        saveCard("1000000000000001", false);
+        saveCard("1000000000000002", true);
+        //ACT
+        List<ActiveDepositView> activeDeposits = agreementRepository.findActiveDepositsByClientId(account.getClientId());
+        //VERIFY
+        assertThat(activeDeposits).hasSize(1);
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(activeDeposits.get(0).getAgreementId()).isEqualTo(agreement.getId());
+            softAssertions.assertThat(activeDeposits.get(0).getProductName()).isEqualTo(product.getName());
+            softAssertions.assertThat(activeDeposits.get(0).getCurrencyCode()).isEqualTo(product.getCurrencyCode());
+            softAssertions.assertThat(activeDeposits.get(0).getCurrentBalance()).isEqualByComparingTo(agreement.getCurrentBalance());
+            softAssertions.assertThat(activeDeposits.get(0).getCardNumber()).isEqualTo("1000000000000002");
+        });
+    }
+
+    private void saveCard(String cardNumber, boolean isDefault) {
+        CardProduct cardProduct = cardProductRepository.save(CardProduct.builder()
+                .cardName("card " + cardNumber)
+                .paymentSystem(PaymentSystem.VISA)
+                .premiumStatus(PremiumStatus.CLASSIC)
+                .servicePrice(BigDecimal.ZERO)
+                .productPrice(BigDecimal.ZERO)
+                .currencyCode(CurrencyCode.USD)
+                .isActive(true)
+                .build());
+        cardRepository.save(Card.builder()
+                .cardNumber(cardNumber)
+                .expirationDate(LocalDate.now().plusYears(3))
+                .holderName("HOLDER NAME")
+                .status(CardStatus.ACTIVE)
+                .digitalWallet(DigitalWallet.MIRPAY)
+                .isDefault(isDefault)
+                .balance(BigDecimal.TEN)
+                .cardProduct(cardProduct)
+                .account(account)
+                .build());
+    }
+
     private void verifyProductFields(List<Agreement> agreements) {
         Agreement foundActiveAgreement = agreements.get(0);
         assertSoftly(softAssertions -> {
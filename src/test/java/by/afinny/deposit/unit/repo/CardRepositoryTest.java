@@ -0,0 +1,279 @@
+package by.afinny.deposit.unit.repo;
+
+import by.afinny.deposit.dto.AccountWithCardInfoDto;
+import by.afinny.deposit.dto.CreatePaymentDepositDto;
+import by.afinny.deposit.entity.Account;
+import by.afinny.deposit.entity.Card;
+import by.afinny.deposit.entity.CardProduct;
+import by.afinny.deposit.entity.constant.CardStatus;
+import by.afinny.deposit.entity.constant.CurrencyCode;
+import by.afinny.deposit.entity.constant.DigitalWallet;
+import by.afinny.deposit.entity.constant.PaymentSystem;
+import by.afinny.deposit.entity.constant.PremiumStatus;
+import by.afinny.deposit.repository.AccountRepository;
+import by.afinny.deposit.repository.CardProductRepository;
+import by.afinny.deposit.repository.CardRepository;
+import by.afinny.deposit.repository.projection.AccountBalanceView;
+import by.afinny.deposit.repository.projection.CardInfoView;
+import by.afinny.deposit.repository.projection.ViewCardView;
+import by.afinny.deposit.service.AccountService;
+import by.afinny.deposit.service.CardService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD,
+        scripts = {"/schema-h2.sql"}
+)
+@ActiveProfiles("test")
+class CardRepositoryTest {
+
+    private static final UUID CLIENT_ID = UUID.fromString("0d357c23-c7c5-4c3f-8389-d85064f71f76");
+
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private CardProductRepository cardProductRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        cardRepository.deleteAll();
+        cardProductRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Cards with product and account currency should be read in one statement for any number of cards")
+    void getActiveAccountsWithCard_shouldExecuteOneStatementRegardlessOfCardCount() {
+        //ARRANGE
+        Account rubAccount = saveAccount("1111111111", CurrencyCode.RUB);
+        saveCard(rubAccount, "1000000000000001");
+
+        //ACT
+        statistics.clear();
+        List<AccountWithCardInfoDto> oneCard = accountService.getActiveAccountsWithCard(CLIENT_ID);
+        long statementsForOneCard = statistics.getPrepareStatementCount();
+
+        Account usdAccount = saveAccount("2222222222", CurrencyCode.USD);
+        for (int i = 2; i <= 6; i++) {
+            saveCard(i % 2 == 0 ? usdAccount : rubAccount, "100000000000000" + i);
+        }
+        statistics.clear();
+        List<AccountWithCardInfoDto> sixCards = accountService.getActiveAccountsWithCard(CLIENT_ID);
+        long statementsForSixCards = statistics.getPrepareStatementCount();
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(oneCard).hasSize(1);
+            softAssertions.assertThat(sixCards).hasSize(6);
+            softAssertions.assertThat(statementsForOneCard).isEqualTo(1);
+            softAssertions.assertThat(statementsForSixCards).isEqualTo(statementsForOneCard);
+            softAssertions.assertThat(sixCards)
+                    .filteredOn(card -> card.getCardNumber().equals("1000000000000002"))
+                    .singleElement()
+                    .satisfies(card -> {
+                        softAssertions.assertThat(card.getCurrencyCode()).isEqualTo(CurrencyCode.USD);
+                        softAssertions.assertThat(card.getCardName()).isEqualTo("card 1000000000000002");
+                        softAssertions.assertThat(card.getPaymentSystem()).isEqualTo(PaymentSystem.VISA);
+                        softAssertions.assertThat(card.getCardBalance()).isEqualByComparingTo(BigDecimal.TEN);
+                    });
+        });
+    }
+
+    @Test
+    @DisplayName("Card read projections should return only the requested card columns")
+    void cardProjections_shouldReturnCardColumns() {
+        //ARRANGE
+        Account account = saveAccount("1111111111", CurrencyCode.EUR);
+        saveCard(account, "1000000000000001");
+        UUID cardId = cardRepository.findByCardNumber("1000000000000001").orElseThrow().getId();
+
+        //ACT
+        Optional<String> cardNumber = cardRepository.findCardNumberById(cardId);
+        Optional<CardInfoView> cardInfo = cardRepository
+                .findCardInfoByAccountClientIdAndIdAndStatusNot(CLIENT_ID, cardId, CardStatus.CLOSED);
+        Optional<CardInfoView> closedCardInfo = cardRepository
+                .findCardInfoByAccountClientIdAndIdAndStatusNot(CLIENT_ID, cardId, CardStatus.ACTIVE);
+        Optional<ViewCardView> viewCard = cardRepository.findViewCardByAccountClientIdAndId(CLIENT_ID, cardId);
+        Optional<ViewCardView> foreignViewCard = cardRepository.findViewCardByAccountClientIdAndId(UUID.randomUUID(), cardId);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(cardNumber).contains("1000000000000001");
+            softAssertions.assertThat(cardInfo).hasValueSatisfying(info -> {
+                softAssertions.assertThat(info.getHolderName()).isEqualTo("HOLDER NAME");
+                softAssertions.assertThat(info.getStatus()).isEqualTo(CardStatus.ACTIVE);
+            });
+            softAssertions.assertThat(closedCardInfo).isEmpty();
+            softAssertions.assertThat(viewCard).hasValueSatisfying(view -> {
+                softAssertions.assertThat(view.getCardId()).isEqualTo(cardId);
+                softAssertions.assertThat(view.getAccountId()).isEqualTo(account.getId());
+                softAssertions.assertThat(view.getAccountNumber()).isEqualTo("1111111111");
+                softAssertions.assertThat(view.getCurrencyCode()).isEqualTo(CurrencyCode.EUR);
+                softAssertions.assertThat(view.getCardName()).isEqualTo("card 1000000000000001");
+                softAssertions.assertThat(view.getCardBalance()).isEqualByComparingTo(BigDecimal.TEN);
+            });
+            softAssertions.assertThat(foreignViewCard).isEmpty();
+        });
+    }
+
+    @Test
+    @DisplayName("Card debit should be applied to the account balance as a delta")
+    void writeOffSum_shouldSubtractSumFromAccountBalance() {
+        //ARRANGE
+        Account account = saveAccount("1111111111", CurrencyCode.RUB);
+        saveCard(account, "1000000000000001");
+        CreatePaymentDepositDto payment = CreatePaymentDepositDto.builder()
+                .remitterCardNumber("1000000000000001")
+                .sum(BigDecimal.valueOf(3))
+                .build();
+
+        //ACT
+        cardService.writeOffSum(CLIENT_ID, payment);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(cardRepository.findByCardNumber("1000000000000001").orElseThrow().getBalance())
+                    .isEqualByComparingTo(BigDecimal.valueOf(7));
+            softAssertions.assertThat(accountRepository.findById(account.getId()).orElseThrow().getCurrentBalance())
+                    .isEqualByComparingTo(BigDecimal.valueOf(7));
+        });
+    }
+
+    @Test
+    @DisplayName("Card credit should be applied as a delta to the current balance")
+    void creditBalance_shouldAddSumToCardBalance() {
+        //ARRANGE
+        Account account = saveAccount("1111111111", CurrencyCode.RUB);
+        saveCard(account, "1000000000000001");
+
+        //ACT
+        int credited = transactionTemplate.execute(status ->
+                cardRepository.creditBalance("1000000000000001", BigDecimal.valueOf(5)));
+        int missing = transactionTemplate.execute(status ->
+                cardRepository.creditBalance("1000000000000009", BigDecimal.valueOf(5)));
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(credited).isEqualTo(1);
+            softAssertions.assertThat(missing).isZero();
+            softAssertions.assertThat(cardRepository.findByCardNumber("1000000000000001").orElseThrow().getBalance())
+                    .isEqualByComparingTo(BigDecimal.valueOf(15));
+        });
+    }
+
+    @Test
+    @DisplayName("Account balances should be read in keyset batches and reset to the sum of card balances")
+    void findBalancesAfter_shouldReturnEveryAccountOnceAndResetRepairsMismatch() {
+        //ARRANGE
+        Account first = saveAccount("1111111111", CurrencyCode.RUB);
+        saveCard(first, "1000000000000001");
+        Account second = saveAccount("2222222222", CurrencyCode.USD);
+        saveCard(second, "1000000000000002");
+        Account third = saveAccount("3333333333", CurrencyCode.EUR);
+        saveCard(third, "1000000000000003");
+        third.setCurrentBalance(BigDecimal.valueOf(99));
+        accountRepository.save(third);
+
+        //ACT
+        List<AccountBalanceView> balances = new ArrayList<>();
+        List<AccountBalanceView> batch = accountRepository.findBalancesAfter(new UUID(0L, 0L), PageRequest.of(0, 2));
+        while (!batch.isEmpty()) {
+            balances.addAll(batch);
+            batch = accountRepository.findBalancesAfter(batch.get(batch.size() - 1).getAccountId(), PageRequest.of(0, 2));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            accountRepository.findLockedById(third.getId());
+            accountRepository.resetBalanceToCards(third.getId());
+        });
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(balances)
+                    .extracting(AccountBalanceView::getAccountId)
+                    .containsExactlyInAnyOrder(first.getId(), second.getId(), third.getId());
+            softAssertions.assertThat(balances)
+                    .filteredOn(balance -> balance.getCurrentBalance().compareTo(balance.getCardsBalance()) != 0)
+                    .extracting(AccountBalanceView::getAccountId)
+                    .containsExactly(third.getId());
+            softAssertions.assertThat(accountRepository.findById(third.getId()).orElseThrow().getCurrentBalance())
+                    .isEqualByComparingTo(BigDecimal.TEN);
+        });
+    }
+
+    private Account saveAccount(String accountNumber, CurrencyCode currencyCode) {
+        return accountRepository.save(Account.builder()
+                .accountNumber(accountNumber)
+                .clientId(CLIENT_ID)
+                .currencyCode(currencyCode)
+                .currentBalance(BigDecimal.TEN)
+                .openDate(LocalDate.now().minusMonths(2))
+                .closeDate(LocalDate.now().plusMonths(2))
+                .isActive(true)
+                .blockedSum(BigDecimal.ZERO)
+                .build());
+    }
+
+    private void saveCard(Account account, String cardNumber) {
+        CardProduct cardProduct = cardProductRepository.save(CardProduct.builder()
+                .cardName("card " + cardNumber)
+                .paymentSystem(PaymentSystem.VISA)
+                .premiumStatus(PremiumStatus.CLASSIC)
+                .servicePrice(BigDecimal.ZERO)
+                .productPrice(BigDecimal.ZERO)
+                .currencyCode(account.getCurrencyCode())
+                .isActive(true)
+                .build());
+        cardRepository.save(Card.builder()
+                .cardNumber(cardNumber)
+                .expirationDate(LocalDate.now().plusYears(3))
+                .holderName("HOLDER NAME")
+                .status(CardStatus.ACTIVE)
+                .digitalWallet(DigitalWallet.MIRPAY)
+                .isDefault(false)
+                .balance(BigDecimal.TEN)
+                .cardProduct(cardProduct)
+                .account(account)
+                .build());
+    }
+}
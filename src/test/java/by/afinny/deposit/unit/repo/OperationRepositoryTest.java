@@ -0,0 +1,191 @@
+package by.afinny.deposit.unit.repo;
+
+import by.afinny.deposit.dto.OperationDto;
+import by.afinny.deposit.dto.OperationHistoryDto;
+import by.afinny.deposit.dto.OperationHistoryFilterDto;
+import by.afinny.deposit.entity.Account;
+import by.afinny.deposit.entity.Operation;
+import by.afinny.deposit.entity.OperationType;
+import by.afinny.deposit.entity.constant.CurrencyCode;
+import by.afinny.deposit.repository.AccountRepository;
+import by.afinny.deposit.repository.OperationRepository;
+import by.afinny.deposit.service.OperationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Sql(
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD,
+        scripts = {"/schema-h2.sql"}
+)
+@ActiveProfiles("test")
+class OperationRepositoryTest {
+
+    private static final UUID CLIENT_ID = UUID.fromString("0d357c23-c7c5-4c3f-8389-d85064f71f76");
+    private static final LocalDateTime START = LocalDateTime.of(2023, 3, 1, 12, 0);
+
+    @Autowired
+    private OperationRepository operationRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private OperationService operationService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account account;
+    private OperationType payment;
+    private OperationType replenishment;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO operation_type (id, type, is_debit) VALUES (1, 'REPLENISHMENT', true)");
+        jdbcTemplate.update("INSERT INTO operation_type (id, type, is_debit) VALUES (2, 'PAYMENT', false)");
+        replenishment = OperationType.builder().id(1).type("REPLENISHMENT").debit(true).build();
+        payment = OperationType.builder().id(2).type("PAYMENT").debit(false).build();
+
+        account = accountRepository.save(Account.builder()
+                .accountNumber("0987654321")
+                .clientId(CLIENT_ID)
+                .currencyCode(CurrencyCode.RUB)
+                .currentBalance(BigDecimal.TEN)
+                .openDate(LocalDate.now().minusMonths(2))
+                .closeDate(LocalDate.now().plusMonths(2))
+                .isActive(true)
+                .blockedSum(BigDecimal.ZERO)
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        operationRepository.deleteAll();
+        accountRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM operation_type");
+    }
+
+    @Test
+    @DisplayName("Paging with the cursor should return every operation once, newest first")
+    void getOperationHistory_shouldReturnEveryOperationOnceNewestFirst() {
+        //ARRANGE
+        for (int i = 0; i < 5; i++) {
+            saveOperation(START.plusMinutes(i), CurrencyCode.RUB, payment);
+        }
+        saveOperation(START.plusMinutes(4), CurrencyCode.RUB, payment);
+        saveOperation(START.plusMinutes(4), CurrencyCode.RUB, payment);
+
+        //ACT
+        List<OperationHistoryDto> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            OperationHistoryDto page = operationService.getOperationHistory(
+                    CLIENT_ID, account.getId(), new OperationHistoryFilterDto(), cursor, 2);
+            pages.add(page);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        List<OperationDto> operations = pages.stream()
+                .flatMap(page -> page.getOperations().stream())
+                .collect(Collectors.toList());
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(pages).hasSize(4);
+            softAssertions.assertThat(operations)
+                    .hasSize(7)
+                    .extracting(OperationDto::getOperationId)
+                    .doesNotHaveDuplicates();
+            softAssertions.assertThat(operations)
+                    .extracting(OperationDto::getCompletedAt)
+                    .isSortedAccordingTo((first, second) -> second.compareTo(first));
+            softAssertions.assertThat(operations.get(0).getType()).isEqualTo("PAYMENT");
+        });
+    }
+
+    @Test
+    @DisplayName("Operations should be filtered by type, currency and date range")
+    void getOperationHistory_shouldApplyFilters() {
+        //ARRANGE
+        saveOperation(START, CurrencyCode.RUB, payment);
+        saveOperation(START.plusDays(1), CurrencyCode.RUB, replenishment);
+        saveOperation(START.plusDays(2), CurrencyCode.USD, payment);
+        saveOperation(START.plusDays(3), CurrencyCode.RUB, payment);
+        OperationHistoryFilterDto filter = OperationHistoryFilterDto.builder()
+                .type("PAYMENT")
+                .currencyCode(CurrencyCode.RUB)
+                .from(START)
+                .to(START.plusDays(2))
+                .build();
+
+        //ACT
+        OperationHistoryDto history = operationService.getOperationHistory(CLIENT_ID, account.getId(), filter, null, 10);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(history.getNextCursor()).isNull();
+            softAssertions.assertThat(history.getOperations())
+                    .extracting(OperationDto::getCompletedAt)
+                    .containsExactly(START);
+        });
+    }
+
+    @Test
+    @DisplayName("Bulk inserted operations should get time-ordered ids and be readable through the history")
+    void insertAll_shouldInsertOperationsWithIds() {
+        //ARRANGE
+        List<Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            operations.add(Operation.builder()
+                    .completedAt(START.plusMinutes(i))
+                    .sum(BigDecimal.valueOf(i + 1))
+                    .details("import " + i)
+                    .currencyCode(CurrencyCode.RUB)
+                    .type(replenishment)
+                    .account(account)
+                    .build());
+        }
+
+        //ACT
+        operationRepository.insertAll(operations);
+
+        //VERIFY
+        OperationHistoryDto history = operationService.getOperationHistory(
+                CLIENT_ID, account.getId(), new OperationHistoryFilterDto(), null, 10);
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(operations).allMatch(operation -> operation.getId() != null && operation.getId().version() == 7);
+            softAssertions.assertThat(history.getOperations())
+                    .extracting(OperationDto::getOperationId)
+                    .containsExactlyInAnyOrderElementsOf(operations.stream().map(Operation::getId).collect(Collectors.toList()));
+            softAssertions.assertThat(history.getOperations())
+                    .extracting(OperationDto::getType)
+                    .containsOnly("REPLENISHMENT");
+        });
+    }
+
+    private void saveOperation(LocalDateTime completedAt, CurrencyCode currencyCode, OperationType type) {
+        operationRepository.save(Operation.builder()
+                .completedAt(completedAt)
+                .sum(BigDecimal.ONE)
+                .currencyCode(currencyCode)
+                .type(type)
+                .account(account)
+                .build());
+    }
+}
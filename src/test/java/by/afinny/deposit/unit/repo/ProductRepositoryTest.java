@@ -15,7 +15,10 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
@@ -86,6 +89,52 @@ class ProductRepositoryTest {
         verifyProductFields(productList);
     }
 
+    @Test
+    @DisplayName("Only products inside their activity window should be active at the given time")
+    void findActiveAt_thenReturnProductsInsideActivityWindow() {
+        //ARRANGE
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        activeProduct.setActiveSince(now.minus(1, ChronoUnit.DAYS));
+        activeProduct.setActiveUntil(now.plus(1, ChronoUnit.DAYS));
+        Product savedActiveProduct = productRepository.save(activeProduct);
+        activeProduct.setId(savedActiveProduct.getId());
+        Product futureProduct = productRepository.save(copyOf(activeProduct, now.plus(2, ChronoUnit.DAYS), null));
+        productRepository.save(copyOf(activeProduct, null, now));
+        //ACT
+        List<Product> productList = productRepository.findActiveAt(now);
+        Optional<Instant> nextActiveSince = productRepository.findNextActiveSinceAfter(now);
+        Optional<Instant> nextActiveUntil = productRepository.findNextActiveUntilAfter(now);
+        //VERIFY
+        assertThat(productList).hasSize(1);
+        verifyProductFields(productList);
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(nextActiveSince).contains(futureProduct.getActiveSince());
+            softAssertions.assertThat(nextActiveUntil).contains(activeProduct.getActiveUntil());
+        });
+        activeProduct.setId(null);
+        activeProduct.setActiveSince(null);
+        activeProduct.setActiveUntil(null);
+    }
+
+    private Product copyOf(Product product, Instant activeSince, Instant activeUntil) {
+        return Product.builder()
+                .name(product.getName())
+                .interestRateEarly(product.getInterestRateEarly())
+                .isCapitalization(product.getIsCapitalization())
+                .amountMin(product.getAmountMin())
+                .amountMax(product.getAmountMax())
+                .isRevocable(product.getIsRevocable())
+                .isActive(true)
+                .minInterestRate(product.getMinInterestRate())
+                .maxInterestRate(product.getMaxInterestRate())
+                .minDurationMonths(product.getMinDurationMonths())
+                .maxDurationMonths(product.getMaxDurationMonths())
+                .schemaName(product.getSchemaName())
+                .currencyCode(product.getCurrencyCode())
+                .activeSince(activeSince)
+                .activeUntil(activeUntil).build();
+    }
+
     private void verifyProductFields(List<Product> products) {
         Product foundActiveProduct = products.get(0);
         assertSoftly(softAssertions -> {
@@ -0,0 +1,121 @@
+package by.afinny.deposit.unit.service;
+
+import by.afinny.deposit.config.account.AccountReconciliationProperties;
+import by.afinny.deposit.repository.AccountRepository;
+import by.afinny.deposit.repository.projection.AccountBalanceView;
+import by.afinny.deposit.service.impl.AccountBalanceReconciliationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class AccountBalanceReconciliationServiceTest {
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AccountReconciliationProperties properties;
+    private AccountBalanceReconciliationServiceImpl reconciliationService;
+
+    private final UUID firstId = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private final UUID secondId = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private final UUID thirdId = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    @BeforeEach
+    void setUp() {
+        properties = new AccountReconciliationProperties();
+        properties.setBatchSize(2);
+        properties.setRepair(true);
+        reconciliationService = new AccountBalanceReconciliationServiceImpl(accountRepository, properties,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("All batches should be checked and only mismatched balances repaired under the account lock")
+    void reconcileBalances_shouldWalkBatchesAndRepairMismatches() {
+        //ARRANGE
+        when(accountRepository.findBalancesAfter(MIN_ID, PageRequest.of(0, 2))).thenReturn(List.of(
+                balance(firstId, BigDecimal.TEN, BigDecimal.TEN),
+                balance(secondId, BigDecimal.ONE, BigDecimal.TEN)));
+        when(accountRepository.findBalancesAfter(secondId, PageRequest.of(0, 2))).thenReturn(List.of(
+                balance(thirdId, new BigDecimal("5.00"), new BigDecimal("5"))));
+
+        //ACT
+        int mismatched = reconciliationService.reconcileBalances();
+
+        //VERIFY
+        assertThat(mismatched).isEqualTo(1);
+        InOrder repair = inOrder(accountRepository);
+        repair.verify(accountRepository).findLockedById(secondId);
+        repair.verify(accountRepository).resetBalanceToCards(secondId);
+        verify(accountRepository, never()).resetBalanceToCards(firstId);
+        verify(accountRepository, never()).resetBalanceToCards(thirdId);
+    }
+
+    @Test
+    @DisplayName("Mismatched balances should only be reported by default")
+    void properties_shouldBeReportOnlyByDefault() {
+        //ACT & VERIFY
+        assertThat(new AccountReconciliationProperties().isRepair()).isFalse();
+    }
+
+    @Test
+    @DisplayName("If repair is disabled then mismatched balances should only be reported")
+    void reconcileBalances_ifRepairDisabled_thenDoNotRepair() {
+        //ARRANGE
+        properties.setRepair(false);
+        when(accountRepository.findBalancesAfter(MIN_ID, PageRequest.of(0, 2))).thenReturn(List.of(
+                balance(firstId, BigDecimal.ONE, BigDecimal.TEN)));
+
+        //ACT
+        int mismatched = reconciliationService.reconcileBalances();
+
+        //VERIFY
+        assertThat(mismatched).isEqualTo(1);
+        verify(accountRepository, never()).findLockedById(any(UUID.class));
+        verify(accountRepository, never()).resetBalanceToCards(any(UUID.class));
+    }
+
+    private AccountBalanceView balance(UUID accountId, BigDecimal currentBalance, BigDecimal cardsBalance) {
+        return new AccountBalanceView() {
+            @Override
+            public UUID getAccountId() {
+                return accountId;
+            }
+
+            @Override
+            public BigDecimal getCurrentBalance() {
+                return currentBalance;
+            }
+
+            @Override
+            public BigDecimal getCardsBalance() {
+                return cardsBalance;
+            }
+        };
+    }
+}
@@ -13,6 +13,9 @@ import by.afinny.deposit.mapper.AccountMapper;
 import by.afinny.deposit.mapper.CardMapper;
 import by.afinny.deposit.repository.AccountRepository;
 import by.afinny.deposit.repository.CardRepository;
+import by.afinny.deposit.repository.projection.AccountView;
+import by.afinny.deposit.repository.projection.AccountWithCardInfoView;
+import by.afinny.deposit.repository.projection.ViewCardView;
 import by.afinny.deposit.service.impl.AccountServiceImpl;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
@@ -35,6 +38,7 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @ExtendWith({MockitoExtension.class})
@@ -119,8 +123,9 @@ class AccountServiceTest {
     @DisplayName("If success then actual and expected amount of accounts and cards are equals")
     void getActiveAccountsWithCards_ifSuccess_thenReturnListAccounts() {
         //ARRANGE
-        when(accountRepository.findByClientIdAndIsActiveTrue(CLIENT_ID)).thenReturn(List.of(account));
-        when(accountMapper.toAccountsWithCardsDto(account.getCards())).thenReturn(activeAccountsWithCardsDto);
+        List<AccountWithCardInfoView> views = List.of(mock(AccountWithCardInfoView.class));
+        when(cardRepository.findCardInfoByActiveAccountsOfClient(CLIENT_ID)).thenReturn(views);
+        when(accountMapper.viewsToAccountsWithCardsDto(views)).thenReturn(activeAccountsWithCardsDto);
 
         //ACT
         List<AccountWithCardInfoDto> result = accountService.getActiveAccountsWithCard(CLIENT_ID);
@@ -134,7 +139,7 @@ class AccountServiceTest {
     @DisplayName("If not success then throw Runtime Exception")
     void getActiveAccountsWithCards_ifNotSuccess_thenThrow() {
         //ARRANGE
-        when(accountRepository.findByClientIdAndIsActiveTrue(CLIENT_ID)).thenThrow(RuntimeException.class);
+        when(cardRepository.findCardInfoByActiveAccountsOfClient(CLIENT_ID)).thenThrow(RuntimeException.class);
 
         //ACT
         ThrowingCallable throwingCallable = () -> accountService.getActiveAccountsWithCard(CLIENT_ID);
@@ -143,12 +148,41 @@ class AccountServiceTest {
         assertThatThrownBy(throwingCallable).isInstanceOf(RuntimeException.class);
     }
 
+    @Test
+    @DisplayName("If active accounts have no cards then return empty list")
+    void getActiveAccountsWithCards_ifNoCards_thenReturnEmptyList() {
+        //ARRANGE
+        when(cardRepository.findCardInfoByActiveAccountsOfClient(CLIENT_ID)).thenReturn(List.of());
+        when(accountRepository.existsByClientIdAndIsActiveTrue(CLIENT_ID)).thenReturn(true);
+
+        //ACT
+        List<AccountWithCardInfoDto> result = accountService.getActiveAccountsWithCard(CLIENT_ID);
+
+        //VERIFY
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("If there are no active accounts then throw EntityNotFoundException")
+    void getActiveAccountsWithCards_ifNoActiveAccounts_thenThrow() {
+        //ARRANGE
+        when(cardRepository.findCardInfoByActiveAccountsOfClient(CLIENT_ID)).thenReturn(List.of());
+        when(accountRepository.existsByClientIdAndIsActiveTrue(CLIENT_ID)).thenReturn(false);
+
+        //ACT
+        ThrowingCallable throwingCallable = () -> accountService.getActiveAccountsWithCard(CLIENT_ID);
+
+        //VERIFY
+        assertThatThrownBy(throwingCallable).isInstanceOf(EntityNotFoundException.class);
+    }
+
     @Test
     @DisplayName("If success then actual and expected amount of accounts are equals")
     void getActiveAccounts_ifSuccess_thenReturnListAccounts() {
         //ARRANGE
-        when(accountRepository.findByClientIdAndIsActiveTrue(CLIENT_ID)).thenReturn(List.of(account));
-        when(accountMapper.toAccountsDto(List.of(account))).thenReturn(activeAccountsDto);
+        List<AccountView> views = List.of(mock(AccountView.class));
+        when(accountRepository.findViewsByClientIdAndIsActiveTrue(CLIENT_ID)).thenReturn(views);
+        when(accountMapper.viewsToAccountsDto(views)).thenReturn(activeAccountsDto);
 
         //ACT
         List<AccountDto> result = accountService.getActiveAccounts(CLIENT_ID);
@@ -161,10 +195,10 @@ class AccountServiceTest {
     @DisplayName("If not success then throw Runtime Exception")
     void getActiveAccounts_ifNotSuccess_thenThrow() {
         //ARRANGE
-        when(accountRepository.findByClientIdAndIsActiveTrue(CLIENT_ID)).thenThrow(RuntimeException.class);
+        when(accountRepository.findViewsByClientIdAndIsActiveTrue(CLIENT_ID)).thenThrow(RuntimeException.class);
 
         //ACT
-        ThrowingCallable getActiveAccountsMethod = () -> accountService.getActiveAccountsWithCard(CLIENT_ID);
+        ThrowingCallable getActiveAccountsMethod = () -> accountService.getActiveAccounts(CLIENT_ID);
 
         //VERIFY
         assertThatThrownBy(getActiveAccountsMethod).isInstanceOf(RuntimeException.class);
@@ -174,8 +208,9 @@ class AccountServiceTest {
     @DisplayName("if card with incoming card number was found then return accountNumber")
     void getViewCardByCardId_shouldReturnAccountNumberDto(){
         //ARRANGE
-        when(cardRepository.findByAccountClientIdAndId(CLIENT_ID, CARD_ID)).thenReturn(Optional.of(card));
-        when(cardMapper.toViewCardDto(card)).thenReturn(viewCardDto);
+        ViewCardView view = mock(ViewCardView.class);
+        when(cardRepository.findViewCardByAccountClientIdAndId(CLIENT_ID, CARD_ID)).thenReturn(Optional.of(view));
+        when(cardMapper.toViewCardDto(view)).thenReturn(viewCardDto);
 
         //ACT
         ViewCardDto result = cardService.getViewCardByCardId(CLIENT_ID, CARD_ID);
@@ -189,7 +224,7 @@ class AccountServiceTest {
     @DisplayName("if card with incoming card number wasn't found then throws EntityNotFoundException")
     void getAccountByCardId_shouldThrow(){
         //ARRANGE
-        when(cardRepository.findByAccountClientIdAndId(CLIENT_ID, CARD_ID)).thenReturn(Optional.empty());
+        when(cardRepository.findViewCardByAccountClientIdAndId(CLIENT_ID, CARD_ID)).thenReturn(Optional.empty());
 
         //ACT
         ThrowingCallable getAccountByCardIdMethodInvocation = ()-> accountService.getViewCardByCardId(CLIENT_ID, CARD_ID);
@@ -13,6 +13,7 @@ import by.afinny.deposit.mapper.OperationMapper;
 import by.afinny.deposit.repository.AccountRepository;
 import by.afinny.deposit.repository.AgreementRepository;
 import by.afinny.deposit.repository.OperationRepository;
+import by.afinny.deposit.service.IdempotencyService;
 import by.afinny.deposit.service.impl.AgreementServiceImpl;
 import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +21,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
@@ -29,11 +32,14 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -54,8 +60,12 @@ class AgreementServiceTest {
     private OperationMapper operationMapper;
     @Mock
     private OperationRepository operationRepository;
+    @Mock
+    private IdempotencyService idempotencyService;
     @Spy
     private ApplicationEventPublisher eventPublisher;
+    @Captor
+    private ArgumentCaptor<List<Operation>> operationsCaptor;
 
     private final UUID agreementId = UUID.randomUUID();
     private final UUID clientId = UUID.randomUUID();
@@ -112,6 +122,22 @@ class AgreementServiceTest {
 
         //VERIFY
         assertThat(agreement.getIsActive()).isEqualTo(Boolean.FALSE);
+        verify(idempotencyService).markProcessed(withdrawKey(consumerWithdrawEvent));
+    }
+
+    @Test
+    @DisplayName("if withdraw event was already processed then skip it")
+    void modifyAgreementAndCreateOperation_ifAlreadyProcessed_thenSkip() {
+        //ARRANGE
+        when(idempotencyService.isProcessed(withdrawKey(consumerWithdrawEvent))).thenReturn(true);
+
+        //ACT
+        agreementService.modifyAgreementAndCreateOperation(consumerWithdrawEvent);
+
+        //VERIFY
+        assertThat(agreement.getIsActive()).isEqualTo(Boolean.TRUE);
+        verify(operationRepository, never()).save(any());
+        verify(idempotencyService, never()).markProcessed(any(String.class));
     }
 
     @Test
@@ -146,6 +172,91 @@ class AgreementServiceTest {
     }
 
 
+    @Test
+    @DisplayName("if all referenced entities were found then modify agreements and save operations in one batch")
+    void modifyAgreementsAndCreateOperations_shouldModifyAllAgreements() {
+        //ARRANGE
+        ConsumerWithdrawEvent laterEvent = withCompletedAt(LocalDateTime.now().toString());
+        List<ConsumerWithdrawEvent> events = List.of(consumerWithdrawEvent, laterEvent);
+        when(accountRepository.findByAccountNumberIn(Set.of(consumerWithdrawEvent.getAccountNumber())))
+                .thenReturn(List.of(account));
+        when(agreementRepository.findAllById(Set.of(agreementId))).thenReturn(List.of(agreement));
+        when(operationMapper.consumerWithdrawEventToOperation(any(ConsumerWithdrawEvent.class))).thenReturn(operation);
+
+        //ACT
+        agreementService.modifyAgreementsAndCreateOperations(events);
+
+        //VERIFY
+        verify(operationRepository).insertAll(operationsCaptor.capture());
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(agreement.getIsActive())
+                    .isEqualTo(Boolean.FALSE);
+            softAssertions.assertThat(account.getCurrentBalance())
+                    .isEqualTo(BigDecimal.valueOf(15000));
+            softAssertions.assertThat(operationsCaptor.getValue())
+                    .hasSize(2)
+                    .allMatch(savedOperation -> savedOperation.getAccount() == account);
+        });
+        verify(accountRepository, never()).findByAccountNumber(any(String.class));
+        verify(agreementRepository, never()).findById(any(UUID.class));
+        verify(idempotencyService).markProcessed(Set.of(withdrawKey(consumerWithdrawEvent), withdrawKey(laterEvent)));
+    }
+
+    @Test
+    @DisplayName("if events were already processed or repeat within the batch then create operations only once")
+    void modifyAgreementsAndCreateOperations_ifEventsRepeat_thenSkipThem() {
+        //ARRANGE
+        ConsumerWithdrawEvent processedEvent = withCompletedAt(LocalDateTime.now().minusDays(1).toString());
+        List<ConsumerWithdrawEvent> events = List.of(consumerWithdrawEvent, processedEvent, consumerWithdrawEvent);
+        when(idempotencyService.findProcessed(Set.of(withdrawKey(consumerWithdrawEvent), withdrawKey(processedEvent))))
+                .thenReturn(Set.of(withdrawKey(processedEvent)));
+        when(accountRepository.findByAccountNumberIn(Set.of(consumerWithdrawEvent.getAccountNumber())))
+                .thenReturn(List.of(account));
+        when(agreementRepository.findAllById(Set.of(agreementId))).thenReturn(List.of(agreement));
+        when(operationMapper.consumerWithdrawEventToOperation(consumerWithdrawEvent)).thenReturn(operation);
+
+        //ACT
+        agreementService.modifyAgreementsAndCreateOperations(events);
+
+        //VERIFY
+        verify(operationRepository).insertAll(operationsCaptor.capture());
+        assertThat(operationsCaptor.getValue()).hasSize(1);
+        verify(idempotencyService).markProcessed(Set.of(withdrawKey(consumerWithdrawEvent)));
+    }
+
+    @Test
+    @DisplayName("if the whole batch was already processed then touch nothing")
+    void modifyAgreementsAndCreateOperations_ifAllProcessed_thenDoNothing() {
+        //ARRANGE
+        when(idempotencyService.findProcessed(Set.of(withdrawKey(consumerWithdrawEvent))))
+                .thenReturn(Set.of(withdrawKey(consumerWithdrawEvent)));
+
+        //ACT
+        agreementService.modifyAgreementsAndCreateOperations(List.of(consumerWithdrawEvent));
+
+        //VERIFY
+        verify(agreementRepository, never()).findAllById(any());
+        verify(operationRepository, never()).insertAll(any());
+    }
+
+    @Test
+    @DisplayName("if any referenced agreement wasn't found then throw EntityNotFoundException and save nothing")
+    void modifyAgreementsAndCreateOperations_ifAgreementNotFound_thenThrow() {
+        //ARRANGE
+        when(accountRepository.findByAccountNumberIn(Set.of(consumerWithdrawEvent.getAccountNumber())))
+                .thenReturn(List.of(account));
+        when(agreementRepository.findAllById(Set.of(agreementId))).thenReturn(List.of());
+
+        //ACT
+        ThrowingCallable modifyAgreementsMethodInvocation = () -> agreementService
+                .modifyAgreementsAndCreateOperations(List.of(consumerWithdrawEvent));
+
+        //VERIFY
+        assertThatThrownBy(modifyAgreementsMethodInvocation)
+                .isInstanceOf(EntityNotFoundException.class);
+        verify(operationRepository, never()).insertAll(any());
+    }
+
     @Test
     @DisplayName("if agreement with incoming id wasn't found then save")
     void updateAutoRenewal_shouldUpdateAutoRenewal() {
@@ -168,4 +279,21 @@ class AgreementServiceTest {
         assertThatThrownBy(updateAutoRenewal).isInstanceOf(EntityNotFoundException.class);
         verify(agreementRepository, never()).save(agreement);
     }
-}
\ No newline at end of file
+
+    private ConsumerWithdrawEvent withCompletedAt(String completedAt) {
+        return ConsumerWithdrawEvent.builder()
+                .agreementId(consumerWithdrawEvent.getAgreementId())
+                .accountNumber(consumerWithdrawEvent.getAccountNumber())
+                .isActive(consumerWithdrawEvent.getIsActive())
+                .currentBalance(consumerWithdrawEvent.getCurrentBalance())
+                .completedAt(completedAt)
+                .sum(consumerWithdrawEvent.getSum())
+                .currencyCode(consumerWithdrawEvent.getCurrencyCode())
+                .type(consumerWithdrawEvent.getType())
+                .build();
+    }
+
+    private String withdrawKey(ConsumerWithdrawEvent event) {
+        return "withdraw:" + event.getAgreementId() + ":" + event.getCompletedAt();
+    }
+}
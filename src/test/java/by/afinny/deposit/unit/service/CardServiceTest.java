@@ -5,12 +5,15 @@ import by.afinny.deposit.dto.CardNumberDto;
 import by.afinny.deposit.dto.CardStatusDto;
 import by.afinny.deposit.dto.CreatePaymentDepositDto;
 import by.afinny.deposit.dto.NewPinCodeDebitCardDto;
+import by.afinny.deposit.entity.Account;
 import by.afinny.deposit.entity.Card;
 import by.afinny.deposit.entity.constant.CardStatus;
 import by.afinny.deposit.entity.constant.DigitalWallet;
 import by.afinny.deposit.exception.CardStatusesAreEqualsException;
 import by.afinny.deposit.exception.EntityNotFoundException;
+import by.afinny.deposit.exception.InsufficientFundsException;
 import by.afinny.deposit.mapper.CardMapper;
+import by.afinny.deposit.repository.AccountRepository;
 import by.afinny.deposit.repository.CardRepository;
 import by.afinny.deposit.service.impl.CardServiceImpl;
 import org.assertj.core.api.Assertions;
@@ -49,6 +52,8 @@ class CardServiceTest {
     private CardServiceImpl cardService;
     @Mock
     private CardRepository cardRepository;
+    @Mock
+    private AccountRepository accountRepository;
 
     @Spy
     private ApplicationEventPublisher publisher;
@@ -58,9 +63,9 @@ class CardServiceTest {
     private static final UUID CLIENT_ID = UUID.randomUUID();
     private final UUID CARD_ID = UUID.fromString("f0fca2da-e7d2-11ec-8fea-0242ac120002");
     private final CardStatus NEW_CARD_STATUS = CardStatus.ACTIVE;
+    private final UUID ACCOUNT_ID = UUID.randomUUID();
     private final String CARD_NUMBER = "1111222233334444";
     private Card card;
-    private Card card2;
     private Card cardNumber;
     private CardStatusDto cardStatusDto;
     private CardDebitLimitDto cardDebitLimitDto;
@@ -79,6 +84,10 @@ class CardServiceTest {
                 .holderName("holder_name")
                 .digitalWallet(DigitalWallet.GOOGLEPAY)
                 .isDefault(true)
+                .balance(BigDecimal.valueOf(250))
+                .account(Account.builder()
+                        .id(ACCOUNT_ID)
+                        .build())
                 .build();
 
         cardStatusDto = CardStatusDto.builder()
@@ -107,17 +116,6 @@ class CardServiceTest {
                 .remitterCardNumber("0000111100001111")
                 .sum(BigDecimal.valueOf(300.0))
                 .build();
-
-        card2 = Card.builder()
-                .id(UUID.randomUUID())
-                .cardNumber("0000111100001111")
-                .transactionLimit(BigDecimal.valueOf(100000.0))
-                .status(CardStatus.ACTIVE)
-                .expirationDate(LocalDate.of(2024, 1, 2))
-                .holderName("holder_name")
-                .isDefault(true)
-                .balance(BigDecimal.valueOf(10000.0))
-                .build();
     }
 
     @Test
@@ -235,7 +233,7 @@ class CardServiceTest {
     @DisplayName("if card with incoming card id was found then return card number")
     void getCardNumberByCardId_shouldReturnAccountNumberDto(){
         //ARRANGE
-        when(cardRepository.findById(CARD_ID)).thenReturn(Optional.of(cardNumber));
+        when(cardRepository.findCardNumberById(CARD_ID)).thenReturn(Optional.of(cardNumber.getCardNumber()));
         when(cardMapper.toCardNumberDto(cardNumber.getCardNumber())).thenReturn(cardNumberDto);
 
         //ACT
@@ -250,7 +248,7 @@ class CardServiceTest {
     @DisplayName("if card with incoming card number wasn't found then throws EntityNotFoundException")
     void getCardNumberByCardId_shouldThrow(){
         //ARRANGE
-        when(cardRepository.findById(CARD_ID)).thenReturn(Optional.empty());
+        when(cardRepository.findCardNumberById(CARD_ID)).thenReturn(Optional.empty());
 
         //ACT
         ThrowingCallable getCardNumberByCardIdMethodInvocation = ()-> cardService.getCardNumberByCardId(CARD_ID);
@@ -295,6 +293,7 @@ class CardServiceTest {
 
         //VERIFY
         verify(cardRepository).deleteById(CARD_ID);
+        verify(accountRepository).addToBalance(ACCOUNT_ID, BigDecimal.valueOf(-250));
     }
 
     @Test
@@ -309,24 +308,24 @@ class CardServiceTest {
         //VERIFY
         assertThatThrownBy(changeLimitMethod).isInstanceOf(EntityNotFoundException.class);
         verify(cardRepository, never()).deleteById(CARD_ID);
+        verify(accountRepository, never()).addToBalance(any(UUID.class), any(BigDecimal.class));
     }
 
     @Test
     @DisplayName("If debit card successfully write off sum then return true")
     void writeOffSum_shouldReturnTrue() {
         //ARRANGE
-        when(cardRepository.findByCardNumber(any(String.class)))
-                .thenReturn(Optional.of(card2));
-
-        BigDecimal sum = card2.getBalance().subtract(createPaymentDepositDto.getSum());
-        card2.setBalance(sum);
-        when(cardRepository.saveAndFlush(any(Card.class))).thenReturn(card2);
+        when(cardRepository.debitBalance(createPaymentDepositDto.getRemitterCardNumber(), createPaymentDepositDto.getSum()))
+                .thenReturn(1);
 
         //ACT
         Boolean response = cardService.writeOffSum(CLIENT_ID, createPaymentDepositDto);
 
         //VERIFY
-        verify(cardRepository).saveAndFlush(card2);
+        verify(cardRepository).debitBalance(createPaymentDepositDto.getRemitterCardNumber(), createPaymentDepositDto.getSum());
+        verify(accountRepository).addToBalanceByCardNumber(createPaymentDepositDto.getRemitterCardNumber(),
+                createPaymentDepositDto.getSum().negate());
+        verify(cardRepository, never()).existsByCardNumber(any(String.class));
         assertThat(response).isEqualTo(true);
     }
 
@@ -334,9 +333,10 @@ class CardServiceTest {
     @DisplayName("If debit card was not found then throw EntityNotFoundException")
     void writeOffSum_ifNotFoundEntity_thenThrowEntityNotFoundException() {
         //ARRANGE
-        when(cardRepository.findByCardNumber(any(String.class)))
-                .thenThrow(new EntityNotFoundException("Card with card number " +
-                        createPaymentDepositDto.getRemitterCardNumber() + " wasn't found"));
+        when(cardRepository.debitBalance(any(String.class), any(BigDecimal.class)))
+                .thenReturn(0);
+        when(cardRepository.existsByCardNumber(createPaymentDepositDto.getRemitterCardNumber()))
+                .thenReturn(false);
 
         //ACT
         ThrowingCallable response = () -> cardService.writeOffSum(CLIENT_ID, createPaymentDepositDto);
@@ -346,18 +346,21 @@ class CardServiceTest {
     }
 
     @Test
-    @DisplayName("If debit card has not enough balance then throw RuntimeException")
-    void writeOffSum_ifBalanceIsNotEnough_thenThrowRuntimeException() {
+    @DisplayName("If debit card has not enough balance then throw InsufficientFundsException")
+    void writeOffSum_ifBalanceIsNotEnough_thenThrowInsufficientFundsException() {
         //ARRANGE
         createPaymentDepositDto.setSum(BigDecimal.valueOf(15000.0));
-        when(cardRepository.findByCardNumber(any(String.class)))
-                .thenReturn(Optional.of(card2));
+        when(cardRepository.debitBalance(any(String.class), any(BigDecimal.class)))
+                .thenReturn(0);
+        when(cardRepository.existsByCardNumber(createPaymentDepositDto.getRemitterCardNumber()))
+                .thenReturn(true);
 
         //ACT
         ThrowingCallable response = () -> cardService.writeOffSum(CLIENT_ID, createPaymentDepositDto);
 
         //VERIFY
-        Assertions.assertThatThrownBy(response).isInstanceOf(RuntimeException.class);
+        Assertions.assertThatThrownBy(response).isInstanceOf(InsufficientFundsException.class);
+        verify(accountRepository, never()).addToBalanceByCardNumber(any(String.class), any(BigDecimal.class));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package by.afinny.deposit.unit.service;
+
+import by.afinny.deposit.service.CardProductsService;
+import by.afinny.deposit.service.ProductService;
+import by.afinny.deposit.service.impl.CatalogCacheServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class CatalogCacheServiceTest {
+
+    @InjectMocks
+    private CatalogCacheServiceImpl catalogCacheService;
+
+    @Mock
+    private ProductService productService;
+    @Mock
+    private CardProductsService cardProductsService;
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Test
+    @DisplayName("Refresh should re-put both catalogs and schedule the next boundary")
+    void refreshCatalogs_shouldRefreshBothCatalogsAndSchedule() {
+        //ARRANGE
+        Instant boundary = Instant.now().plusSeconds(60);
+        when(productService.getNextActivityBoundary()).thenReturn(Optional.of(boundary));
+
+        //ACT
+        catalogCacheService.refreshCatalogs();
+
+        //VERIFY
+        verify(productService).refreshActiveDepositProducts();
+        verify(cardProductsService).refreshAllCardProducts();
+        verify(taskScheduler).schedule(any(Runnable.class), eq(boundary));
+    }
+
+    @Test
+    @DisplayName("Evict should drop both catalogs")
+    void evictCatalogs_shouldEvictBothCatalogs() {
+        //ARRANGE
+        when(productService.getNextActivityBoundary()).thenReturn(Optional.empty());
+
+        //ACT
+        catalogCacheService.evictCatalogs();
+
+        //VERIFY
+        verify(productService).evictActiveDepositProducts();
+        verify(cardProductsService).evictAllCardProducts();
+        verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Boundary task should refresh deposit products and schedule the following boundary")
+    void scheduleNextRefresh_whenBoundaryReached_thenRefreshAndReschedule() {
+        //ARRANGE
+        Instant firstBoundary = Instant.now().plusSeconds(60);
+        Instant secondBoundary = firstBoundary.plusSeconds(60);
+        ScheduledFuture<?> firstFuture = mock(ScheduledFuture.class);
+        when(productService.getNextActivityBoundary())
+                .thenReturn(Optional.of(firstBoundary), Optional.of(secondBoundary));
+        doReturn(firstFuture).when(taskScheduler).schedule(any(Runnable.class), eq(firstBoundary));
+        ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+        //ACT
+        Optional<Instant> scheduled = catalogCacheService.scheduleNextRefresh();
+        verify(taskScheduler).schedule(taskCaptor.capture(), eq(firstBoundary));
+        taskCaptor.getValue().run();
+
+        //VERIFY
+        assertThat(scheduled).contains(firstBoundary);
+        verify(productService).refreshActiveDepositProducts();
+        verify(firstFuture).cancel(false);
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), eq(secondBoundary));
+    }
+}
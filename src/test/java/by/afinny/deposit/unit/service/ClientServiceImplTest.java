@@ -7,7 +7,7 @@ import by.afinny.deposit.entity.constant.CurrencyCode;
 import by.afinny.deposit.exception.EntityNotFoundException;
 import by.afinny.deposit.mapper.ClientMapper;
 import by.afinny.deposit.mapper.ClientMapperImpl;
-import by.afinny.deposit.openfeign.userservice.UserClient;
+import by.afinny.deposit.openfeign.userservice.ResilientUserClient;
 import by.afinny.deposit.repository.AccountRepository;
 import by.afinny.deposit.service.impl.ClientServiceImpl;
 import org.assertj.core.api.Assertions;
@@ -23,7 +23,6 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
@@ -41,7 +40,7 @@ public class ClientServiceImplTest {
     @Mock
     private AccountRepository accountRepository;
     @Mock
-    private UserClient userClient;
+    private ResilientUserClient userClient;
     @Spy
     private ClientMapper clientMapper = new ClientMapperImpl();
 
@@ -78,7 +77,7 @@ public class ClientServiceImplTest {
     @DisplayName("If client was found by mobile phone and currency code, then return ClientDto")
     void getClientByPhoneNumber_shouldReturnClientDtoByCurrencyCodeAndMobilePhone() {
         //Arrange
-        Mockito.when(userClient.getClientByPhone(MOBILE_PHONE)).thenReturn(ResponseEntity.ok(clientByPhoneDto));
+        Mockito.when(userClient.getClientByPhone(MOBILE_PHONE)).thenReturn(Optional.of(clientByPhoneDto));
         Mockito.when(accountRepository.getAccountsByClientIdAndCurrencyCode(clientByPhoneDto.getClientId(), CURRENCY_CODE))
                 .thenReturn(Optional.of(account));
         //ACT
@@ -99,11 +98,23 @@ public class ClientServiceImplTest {
         Assertions.assertThatThrownBy(getClientDto).isNotNull();
     }
 
+    @Test
+    @DisplayName("If USER-SERVICE has no client with the mobile phone, then throw EntityNotFoundException")
+    void getClientByPhoneNumber_ifClientAbsent_thenThrowEntityNotFoundException() {
+        //Arrange
+        Mockito.when(userClient.getClientByPhone(MOBILE_PHONE)).thenReturn(Optional.empty());
+        //ACT
+        ThrowableAssert.ThrowingCallable getClientDto = () -> clientService.getClientByPhoneNumber(CLIENT_ID, CURRENCY_CODE, MOBILE_PHONE);
+        //VERIFY
+        Assertions.assertThatThrownBy(getClientDto).isInstanceOf(EntityNotFoundException.class);
+        Mockito.verifyNoInteractions(accountRepository);
+    }
+
     @Test
     @DisplayName("If account wasn't found by currency code, then throw EntityNotFoundException")
     void getClientByPhoneNumber_ifCurrencyCodeNotExist_thenThrowEntityNotFoundException() {
         //Arrange
-        Mockito.when(userClient.getClientByPhone(MOBILE_PHONE)).thenReturn(ResponseEntity.ok(clientByPhoneDto));
+        Mockito.when(userClient.getClientByPhone(MOBILE_PHONE)).thenReturn(Optional.of(clientByPhoneDto));
         Mockito.when(accountRepository.getAccountsByClientIdAndCurrencyCode(clientByPhoneDto.getClientId(), CURRENCY_CODE))
                 .thenThrow(new EntityNotFoundException("no currencyCode " + CURRENCY_CODE + " by this was found"));
         //ACT
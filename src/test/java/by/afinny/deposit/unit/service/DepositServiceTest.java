@@ -20,6 +20,7 @@ import by.afinny.deposit.repository.AgreementRepository;
 import by.afinny.deposit.repository.CardRepository;
 import by.afinny.deposit.repository.OperationRepository;
 import by.afinny.deposit.repository.ProductRepository;
+import by.afinny.deposit.repository.projection.ActiveDepositView;
 import by.afinny.deposit.service.impl.DepositServiceImpl;
 import org.assertj.core.api.ThrowableAssert;
 import org.junit.jupiter.api.BeforeEach;
@@ -38,6 +39,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -47,6 +49,7 @@ import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_METHOD;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -189,8 +192,10 @@ class DepositServiceTest {
     @DisplayName("Return available deposits when active deposit products exists")
     void getActiveDeposits_shouldReturnListProducts() {
         //ARRANGE
-        when(agreementRepository.findByAccountClientIdAndIsActiveTrue(CLIENT_ID)).thenReturn(agreementList);
-        when(depositMapper.toActiveDepositsDto(agreementList)).thenReturn(activeDepositDtoList);
+        ActiveDepositView activeDeposit = mock(ActiveDepositView.class);
+        when(activeDeposit.getAgreementId()).thenReturn(UUID.randomUUID());
+        when(agreementRepository.findActiveDepositsByClientId(CLIENT_ID)).thenReturn(List.of(activeDeposit));
+        when(depositMapper.viewsToActiveDepositsDto(List.of(activeDeposit))).thenReturn(activeDepositDtoList);
 
         //ACT
         List<ActiveDepositDto> resultActiveDepositDtoList = depositService.getActiveDeposits(CLIENT_ID);
@@ -203,7 +208,7 @@ class DepositServiceTest {
     @DisplayName("If not success then throw Runtime Exception")
     void getActiveDeposits_ifNotSuccess_thenThrow() {
         //ARRANGE
-        when(agreementRepository.findByAccountClientIdAndIsActiveTrue(CLIENT_ID)).thenThrow(RuntimeException.class);
+        when(agreementRepository.findActiveDepositsByClientId(CLIENT_ID)).thenThrow(RuntimeException.class);
         //ACT
         ThrowableAssert.ThrowingCallable getActiveDepositProductsMethod = () -> depositService.getActiveDeposits(CLIENT_ID);
         //VERIFY
@@ -324,6 +329,29 @@ class DepositServiceTest {
         assertThatThrownBy(getAccountMethodInvocation).isInstanceOf(EntityNotFoundException.class);
     }
 
+    @Test
+    @DisplayName("Referenced agreements and accounts should be preloaded before the batch is saved")
+    void saveAgreements_shouldPreloadReferencesAndSaveAll() {
+        //ARRANGE
+        UUID accountId = UUID.randomUUID();
+        Agreement existingAgreement = Agreement.builder()
+                .id(AGREEMENT_ID).build();
+        Agreement newAgreement = Agreement.builder()
+                .account(Account.builder()
+                        .id(accountId).build())
+                .build();
+        List<Agreement> agreements = List.of(existingAgreement, newAgreement);
+
+        //ACT
+        depositService.saveAgreements(agreements);
+
+        //VERIFY
+        verify(agreementRepository).findAllById(Set.of(AGREEMENT_ID));
+        verify(accountRepository).findAllById(Set.of(accountId));
+        verify(agreementRepository).saveAll(agreements);
+        verify(agreementRepository, never()).save(any(Agreement.class));
+    }
+
     private void verifyDepositDto(DepositDto expected, DepositDto actual) {
         assertSoftly(softAssertions -> {
             softAssertions.assertThat(actual.getCardNumber())
@@ -0,0 +1,149 @@
+package by.afinny.deposit.unit.service;
+
+import by.afinny.deposit.config.kafka.properties.KafkaConfigProperties;
+import by.afinny.deposit.entity.ProcessedMessage;
+import by.afinny.deposit.repository.ProcessedMessageRepository;
+import by.afinny.deposit.service.impl.BloomFilter;
+import by.afinny.deposit.service.impl.IdempotencyServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class IdempotencyServiceTest {
+
+    private static final String KEY = "new-card:1111222233334444";
+
+    @Mock
+    private ProcessedMessageRepository processedMessageRepository;
+    @Captor
+    private ArgumentCaptor<LocalDateTime> beforeCaptor;
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        KafkaConfigProperties kafkaConfigProperties = new KafkaConfigProperties();
+        kafkaConfigProperties.getIdempotency().setExpectedKeys(1000);
+        kafkaConfigProperties.getIdempotency().setTtl(Duration.ofDays(1));
+        idempotencyService = new IdempotencyServiceImpl(processedMessageRepository, kafkaConfigProperties);
+    }
+
+    @Test
+    @DisplayName("Unknown key should be answered by the Bloom filter without a query")
+    void isProcessed_ifKeyUnknown_thenDoNotQuery() {
+        //ACT
+        boolean processed = idempotencyService.isProcessed(KEY);
+
+        //VERIFY
+        assertThat(processed).isFalse();
+        verify(processedMessageRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    @DisplayName("Marked key should be saved and then confirmed by the table")
+    void isProcessed_ifKeyMarked_thenConfirmByTable() {
+        //ARRANGE
+        when(processedMessageRepository.existsById(KEY)).thenReturn(true);
+
+        //ACT
+        idempotencyService.markProcessed(KEY);
+        boolean processed = idempotencyService.isProcessed(KEY);
+
+        //VERIFY
+        assertThat(processed).isTrue();
+        verify(processedMessageRepository).save(any(ProcessedMessage.class));
+    }
+
+    @Test
+    @DisplayName("Keys loaded on startup should be checked against the table, all others should not")
+    void findProcessed_shouldQueryOnlyKnownKeys() {
+        //ARRANGE
+        when(processedMessageRepository.streamAllKeys()).thenReturn(Stream.of("withdraw:1", "withdraw:2"));
+        when(processedMessageRepository.findExistingKeys(List.of("withdraw:1"))).thenReturn(List.of("withdraw:1"));
+        idempotencyService.loadKnownKeys();
+
+        //ACT
+        Set<String> processed = idempotencyService.findProcessed(List.of("withdraw:1", "withdraw:3", "withdraw:1"));
+
+        //VERIFY
+        assertThat(processed).containsExactly("withdraw:1");
+    }
+
+    @Test
+    @DisplayName("If none of the keys is known then the table should not be queried")
+    void findProcessed_ifNoKeyKnown_thenDoNotQuery() {
+        //ACT
+        Set<String> processed = idempotencyService.findProcessed(List.of("withdraw:1", "withdraw:2"));
+
+        //VERIFY
+        assertThat(processed).isEmpty();
+        verify(processedMessageRepository, never()).findExistingKeys(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Purge should delete keys older than TTL and rebuild the filter from the remaining keys")
+    void purgeExpired_shouldDeleteAndRebuildFilter() {
+        //ARRANGE
+        idempotencyService.markProcessed(KEY);
+        when(processedMessageRepository.deleteByProcessedAtBefore(beforeCaptor.capture())).thenReturn(1);
+        when(processedMessageRepository.streamAllKeys()).thenReturn(Stream.empty());
+
+        //ACT
+        int purged = idempotencyService.purgeExpired();
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(purged).isEqualTo(1);
+            softAssertions.assertThat(beforeCaptor.getValue())
+                    .isBefore(LocalDateTime.now().minusHours(23));
+            softAssertions.assertThat(idempotencyService.isProcessed(KEY)).isFalse();
+        });
+        verify(processedMessageRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    @DisplayName("Bloom filter should contain every put key and keep false positives near the configured rate")
+    void bloomFilter_shouldHaveNoFalseNegativesAndFewFalsePositives() {
+        //ARRANGE
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("key:" + i));
+
+        //ACT
+        long falseNegatives = IntStream.range(0, 10_000)
+                .filter(i -> !filter.mightContain("key:" + i))
+                .count();
+        long falsePositives = IntStream.range(10_000, 110_000)
+                .filter(i -> filter.mightContain("key:" + i))
+                .count();
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(falseNegatives).isZero();
+            softAssertions.assertThat(falsePositives).isLessThan(2_000);
+        });
+    }
+}
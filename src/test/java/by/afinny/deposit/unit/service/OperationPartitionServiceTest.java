@@ -0,0 +1,158 @@
+package by.afinny.deposit.unit.service;
+
+import by.afinny.deposit.config.operation.OperationPartitionProperties;
+import by.afinny.deposit.service.impl.OperationPartitionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class OperationPartitionServiceTest {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OperationPartitionServiceImpl operationPartitionService;
+
+    private final YearMonth currentMonth = YearMonth.now();
+
+    @BeforeEach
+    void setUp() {
+        OperationPartitionProperties properties = new OperationPartitionProperties();
+        properties.setMonthsAhead(2);
+        properties.setRetentionMonths(12);
+        properties.setArchiveSchema("operation_cold");
+        operationPartitionService = new OperationPartitionServiceImpl(jdbcTemplate, properties, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Only the missing partitions up to the configured months ahead should be created")
+    void createFuturePartitions_shouldCreateMissingPartitions() {
+        //ARRANGE
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("operation")))
+                .thenReturn(List.of("operation_default", partition(currentMonth)));
+
+        //ACT
+        List<String> created = operationPartitionService.createFuturePartitions();
+
+        //VERIFY
+        assertThat(created).containsExactly(partition(currentMonth.plusMonths(1)), partition(currentMonth.plusMonths(2)));
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS " + partition(currentMonth.plusMonths(2))
+                + " PARTITION OF operation FOR VALUES FROM ('" + currentMonth.plusMonths(2).atDay(1)
+                + "') TO ('" + currentMonth.plusMonths(3).atDay(1) + "')");
+        verify(jdbcTemplate, never()).execute(
+                "CREATE TABLE IF NOT EXISTS " + partition(currentMonth) + " PARTITION OF operation FOR VALUES FROM ('"
+                        + currentMonth.atDay(1) + "') TO ('" + currentMonth.plusMonths(1).atDay(1) + "')");
+    }
+
+    @Test
+    @DisplayName("Rows of the new partition's range should be moved out of the default partition")
+    void createFuturePartitions_ifDefaultPartitionHoldsRows_thenMoveThem() {
+        //ARRANGE
+        YearMonth month = currentMonth.plusMonths(2);
+        String range = " WHERE completed_at >= '" + month.atDay(1) + "' AND completed_at < '" + month.plusMonths(1).atDay(1) + "'";
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("operation")))
+                .thenReturn(List.of("operation_default", partition(currentMonth), partition(currentMonth.plusMonths(1))));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq(month.atDay(1)), eq(month.plusMonths(1).atDay(1))))
+                .thenReturn(true);
+
+        //ACT
+        List<String> created = operationPartitionService.createFuturePartitions();
+
+        //VERIFY
+        assertThat(created).containsExactly(partition(month));
+        InOrder moveRows = inOrder(jdbcTemplate);
+        moveRows.verify(jdbcTemplate).execute("ALTER TABLE operation DETACH PARTITION operation_default");
+        moveRows.verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS " + partition(month)
+                + " PARTITION OF operation FOR VALUES FROM ('" + month.atDay(1)
+                + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        moveRows.verify(jdbcTemplate).update("INSERT INTO " + partition(month) + " SELECT * FROM operation_default" + range);
+        moveRows.verify(jdbcTemplate).update("DELETE FROM operation_default" + range);
+        moveRows.verify(jdbcTemplate).execute("ALTER TABLE operation ATTACH PARTITION operation_default DEFAULT");
+    }
+
+    @Test
+    @DisplayName("A partition that fails to be created should not stop the other partitions")
+    void createFuturePartitions_ifOnePartitionFails_thenCreateTheOthers() {
+        //ARRANGE
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("operation")))
+                .thenReturn(List.of(partition(currentMonth)));
+        doThrow(new BadSqlGrammarException("create partition", "CREATE TABLE", new SQLException("overlap")))
+                .when(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS " + partition(currentMonth.plusMonths(1))
+                        + " PARTITION OF operation FOR VALUES FROM ('" + currentMonth.plusMonths(1).atDay(1)
+                        + "') TO ('" + currentMonth.plusMonths(2).atDay(1) + "')");
+
+        //ACT
+        List<String> created = operationPartitionService.createFuturePartitions();
+
+        //VERIFY
+        assertThat(created).containsExactly(partition(currentMonth.plusMonths(2)));
+    }
+
+    @Test
+    @DisplayName("Partitions older than the retention period should be detached and moved to the archive schema")
+    void archiveExpiredPartitions_shouldArchiveOnlyExpiredPartitions() {
+        //ARRANGE
+        String expired = partition(currentMonth.minusMonths(13));
+        String retained = partition(currentMonth.minusMonths(12));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("operation")))
+                .thenReturn(List.of("operation_default", expired, retained));
+
+        //ACT
+        List<String> archived = operationPartitionService.archiveExpiredPartitions();
+
+        //VERIFY
+        assertThat(archived).containsExactly(expired);
+        verify(jdbcTemplate).execute("ALTER TABLE operation DETACH PARTITION " + expired);
+        verify(jdbcTemplate).execute("CREATE SCHEMA IF NOT EXISTS operation_cold");
+        verify(jdbcTemplate).execute("ALTER TABLE " + expired + " SET SCHEMA operation_cold");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE operation DETACH PARTITION " + retained);
+    }
+
+    @Test
+    @DisplayName("If another instance holds the maintenance lock then do nothing")
+    void maintainPartitions_ifLockNotAcquired_thenSkip() {
+        //ARRANGE
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), anyLong())).thenReturn(false);
+
+        //ACT
+        operationPartitionService.maintainPartitions();
+
+        //VERIFY
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    private String partition(YearMonth month) {
+        return "operation_" + month.format(SUFFIX);
+    }
+}
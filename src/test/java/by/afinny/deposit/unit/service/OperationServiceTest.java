@@ -0,0 +1,182 @@
+package by.afinny.deposit.unit.service;
+
+import by.afinny.deposit.dto.OperationHistoryDto;
+import by.afinny.deposit.dto.OperationHistoryFilterDto;
+import by.afinny.deposit.entity.constant.CurrencyCode;
+import by.afinny.deposit.exception.EntityNotFoundException;
+import by.afinny.deposit.exception.InvalidCursorException;
+import by.afinny.deposit.mapper.OperationMapper;
+import by.afinny.deposit.repository.AccountRepository;
+import by.afinny.deposit.repository.OperationRepository;
+import by.afinny.deposit.repository.projection.OperationView;
+import by.afinny.deposit.service.impl.OperationServiceImpl;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class OperationServiceTest {
+
+    @InjectMocks
+    private OperationServiceImpl operationService;
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private OperationRepository operationRepository;
+    @Spy
+    private OperationMapper operationMapper = Mappers.getMapper(OperationMapper.class);
+
+    private final UUID CLIENT_ID = UUID.randomUUID();
+    private final UUID ACCOUNT_ID = UUID.randomUUID();
+    private final LocalDateTime COMPLETED_AT = LocalDateTime.of(2023, 3, 1, 12, 0, 30, 123000);
+
+    private OperationHistoryFilterDto filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = OperationHistoryFilterDto.builder()
+                .type("PAYMENT")
+                .currencyCode(CurrencyCode.RUB)
+                .build();
+    }
+
+    @Test
+    @DisplayName("If there are more operations than the limit then return the limit and a cursor to the next page")
+    void getOperationHistory_ifMoreOperations_thenReturnNextCursor() {
+        //ARRANGE
+        UUID lastOnPage = UUID.randomUUID();
+        when(accountRepository.existsByIdAndClientId(ACCOUNT_ID, CLIENT_ID)).thenReturn(true);
+        when(operationRepository.findHistory(eq(ACCOUNT_ID), eq("PAYMENT"), eq(CurrencyCode.RUB),
+                any(LocalDateTime.class), any(LocalDateTime.class), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(
+                        operation(UUID.randomUUID(), COMPLETED_AT.plusMinutes(1)),
+                        operation(lastOnPage, COMPLETED_AT),
+                        operation(UUID.randomUUID(), COMPLETED_AT)));
+        when(operationRepository.findHistoryBefore(eq(ACCOUNT_ID), eq("PAYMENT"), eq(CurrencyCode.RUB),
+                any(LocalDateTime.class), eq(COMPLETED_AT), eq(lastOnPage), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(operation(UUID.randomUUID(), COMPLETED_AT.minusMinutes(1))));
+
+        //ACT
+        OperationHistoryDto firstPage = operationService.getOperationHistory(CLIENT_ID, ACCOUNT_ID, filter, null, 2);
+        OperationHistoryDto secondPage = operationService.getOperationHistory(
+                CLIENT_ID, ACCOUNT_ID, filter, firstPage.getNextCursor(), 2);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(firstPage.getOperations()).hasSize(2);
+            softAssertions.assertThat(firstPage.getNextCursor()).isNotNull();
+            softAssertions.assertThat(secondPage.getOperations()).hasSize(1);
+            softAssertions.assertThat(secondPage.getNextCursor()).isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Limit should be capped to the maximum page size")
+    void getOperationHistory_shouldCapLimit() {
+        //ARRANGE
+        when(accountRepository.existsByIdAndClientId(ACCOUNT_ID, CLIENT_ID)).thenReturn(true);
+
+        //ACT
+        operationService.getOperationHistory(CLIENT_ID, ACCOUNT_ID, new OperationHistoryFilterDto(), null, 100_000);
+
+        //VERIFY
+        verify(operationRepository).findHistory(eq(ACCOUNT_ID), isNull(), isNull(), any(LocalDateTime.class),
+                any(LocalDateTime.class), eq(PageRequest.of(0, OperationServiceImpl.MAX_LIMIT + 1)));
+    }
+
+    @Test
+    @DisplayName("If account doesn't belong to the client then throw EntityNotFoundException")
+    void getOperationHistory_ifAccountNotFound_thenThrow() {
+        //ARRANGE
+        when(accountRepository.existsByIdAndClientId(ACCOUNT_ID, CLIENT_ID)).thenReturn(false);
+
+        //ACT
+        ThrowingCallable getOperationHistory = () -> operationService
+                .getOperationHistory(CLIENT_ID, ACCOUNT_ID, filter, null, 20);
+
+        //VERIFY
+        assertThatThrownBy(getOperationHistory).isInstanceOf(EntityNotFoundException.class);
+        verifyNoInteractions(operationRepository);
+    }
+
+    @Test
+    @DisplayName("If cursor can't be decoded then throw InvalidCursorException")
+    void getOperationHistory_ifCursorInvalid_thenThrow() {
+        //ARRANGE
+        when(accountRepository.existsByIdAndClientId(ACCOUNT_ID, CLIENT_ID)).thenReturn(true);
+
+        //ACT
+        ThrowingCallable getOperationHistory = () -> operationService
+                .getOperationHistory(CLIENT_ID, ACCOUNT_ID, filter, "not-a-cursor", 20);
+
+        //VERIFY
+        assertThatThrownBy(getOperationHistory).isInstanceOf(InvalidCursorException.class);
+        verify(operationRepository, never()).findHistoryBefore(any(), any(), any(), any(), any(), any(),
+                any(Pageable.class));
+    }
+
+    private OperationView operation(UUID operationId, LocalDateTime completedAt) {
+        return new OperationView() {
+            @Override
+            public UUID getOperationId() {
+                return operationId;
+            }
+
+            @Override
+            public LocalDateTime getCompletedAt() {
+                return completedAt;
+            }
+
+            @Override
+            public BigDecimal getSum() {
+                return BigDecimal.ONE;
+            }
+
+            @Override
+            public String getDetails() {
+                return null;
+            }
+
+            @Override
+            public CurrencyCode getCurrencyCode() {
+                return CurrencyCode.RUB;
+            }
+
+            @Override
+            public String getType() {
+                return "PAYMENT";
+            }
+
+            @Override
+            public Boolean getDebit() {
+                return false;
+            }
+        };
+    }
+}
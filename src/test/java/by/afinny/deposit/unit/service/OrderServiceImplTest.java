@@ -8,6 +8,7 @@ import by.afinny.deposit.mapper.CardMapper;
 import by.afinny.deposit.repository.AccountRepository;
 import by.afinny.deposit.repository.CardRepository;
 import by.afinny.deposit.repository.ProductRepository;
+import by.afinny.deposit.service.IdempotencyService;
 import by.afinny.deposit.service.impl.OrderServiceImpl;
 import org.assertj.core.api.ThrowableAssert;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,11 +21,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import by.afinny.deposit.exception.EntityNotFoundException;
+import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -46,6 +50,8 @@ class OrderServiceImplTest {
     private AccountRepository accountRepository;
     @Mock
     private ProductRepository productRepository;
+    @Mock
+    private IdempotencyService idempotencyService;
 
     private RequestNewCardDto requestNewCardDto;
     private ConsumerNewCardEvent consumerNewCardEvent;
@@ -58,6 +64,7 @@ class OrderServiceImplTest {
                 .productId(1337).build();
         consumerNewCardEvent = ConsumerNewCardEvent.builder()
                 .holderName("holder Name")
+                .cardNumber("1111222233334444")
                 .accountNumber(ACCOUNT_NUMBER).build();
         account = Account.builder()
                 .accountNumber(ACCOUNT_NUMBER).build();
@@ -98,6 +105,46 @@ class OrderServiceImplTest {
         assertThat(card.getAccount())
                 .isNotNull()
                 .isEqualTo(account);
+        verify(accountRepository, never()).addToBalance(any(UUID.class), any(BigDecimal.class));
+        verify(idempotencyService).markProcessed("new-card:1111222233334444");
+    }
+
+    @Test
+    @DisplayName("If card was already created from the same event then skip it")
+    void createNewCard_ifAlreadyProcessed_thenSkip() {
+        //ARRANGE
+        when(idempotencyService.isProcessed("new-card:1111222233334444"))
+                .thenReturn(true);
+
+        //ACT
+        orderService.createNewCard(consumerNewCardEvent);
+
+        //VERIFY
+        verify(cardRepository, never()).save(any(Card.class));
+        verify(accountRepository, never()).findByAccountNumber(any(String.class));
+        verify(idempotencyService, never()).markProcessed(any(String.class));
+    }
+
+    @Test
+    @DisplayName("If new card has a balance then add it to the account balance")
+    void createNewCard_withBalance_shouldAddBalanceToAccount() {
+        //ARRANGE
+        UUID accountId = UUID.randomUUID();
+        account.setId(accountId);
+        card.setBalance(BigDecimal.valueOf(100));
+        when(cardMapper.toCard(consumerNewCardEvent))
+                .thenReturn(card);
+        when(accountRepository.findByAccountNumber(ACCOUNT_NUMBER))
+                .thenReturn(Optional.of(account));
+
+        //ACT
+        orderService.createNewCard(consumerNewCardEvent);
+
+        //VERIFY
+        verify(cardRepository)
+                .save(card);
+        verify(accountRepository)
+                .addToBalance(accountId, BigDecimal.valueOf(100));
     }
 
     @Test
@@ -18,12 +18,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
 import static org.assertj.core.api.ThrowableAssert.ThrowingCallable;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_METHOD;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -82,7 +86,7 @@ class ProductServiceTest {
     @DisplayName("Return available deposits when active deposit products exists")
     void getActiveDepositProducts_shouldReturnListProducts() {
         //ARRANGE
-        when(productRepository.findByIsActiveTrue()).thenReturn(productList);
+        when(productRepository.findActiveAt(any(Instant.class))).thenReturn(productList);
         when(productMapper.productsToProductsDto(productList))
                 .thenReturn(productDtoList);
         //ACT
@@ -95,13 +99,52 @@ class ProductServiceTest {
     @DisplayName("If not success then throw Runtime Exception")
     void getActiveDepositProducts_ifNotSuccess_thenThrow() {
         //ARRANGE
-        when(productRepository.findByIsActiveTrue()).thenThrow(RuntimeException.class);
+        when(productRepository.findActiveAt(any(Instant.class))).thenThrow(RuntimeException.class);
         //ACT
         ThrowingCallable getActiveDepositProductsMethod = () -> depositService.getActiveDepositProducts();
         //VERIFY
         assertThatThrownBy(getActiveDepositProductsMethod).isInstanceOf(RuntimeException.class);
     }
 
+    @Test
+    @DisplayName("Refresh should reload active deposit products from the database")
+    void refreshActiveDepositProducts_shouldReturnListProducts() {
+        //ARRANGE
+        when(productRepository.findActiveAt(any(Instant.class))).thenReturn(productList);
+        when(productMapper.productsToProductsDto(productList))
+                .thenReturn(productDtoList);
+        //ACT
+        List<ProductDto> resultProductDtoList = depositService.refreshActiveDepositProducts();
+        //VERIFY
+        verifyProductDtoFields(resultProductDtoList);
+    }
+
+    @Test
+    @DisplayName("Next activity boundary should be the nearest of activeSince and activeUntil")
+    void getNextActivityBoundary_shouldReturnNearestBoundary() {
+        //ARRANGE
+        Instant activeSince = Instant.now().plusSeconds(7200);
+        Instant activeUntil = Instant.now().plusSeconds(3600);
+        when(productRepository.findNextActiveSinceAfter(any(Instant.class))).thenReturn(Optional.of(activeSince));
+        when(productRepository.findNextActiveUntilAfter(any(Instant.class))).thenReturn(Optional.of(activeUntil));
+        //ACT
+        Optional<Instant> boundary = depositService.getNextActivityBoundary();
+        //VERIFY
+        assertThat(boundary).contains(activeUntil);
+    }
+
+    @Test
+    @DisplayName("If no product changes its activity then there is no next boundary")
+    void getNextActivityBoundary_ifNoBoundaries_thenReturnEmpty() {
+        //ARRANGE
+        when(productRepository.findNextActiveSinceAfter(any(Instant.class))).thenReturn(Optional.empty());
+        when(productRepository.findNextActiveUntilAfter(any(Instant.class))).thenReturn(Optional.empty());
+        //ACT
+        Optional<Instant> boundary = depositService.getNextActivityBoundary();
+        //VERIFY
+        assertThat(boundary).isEmpty();
+    }
+
     private void verifyProductDtoFields(List<ProductDto> productDtoList) {
         ProductDto activeProductDto = productDtoList.get(0);
         assertSoftly(softAssertions -> {
@@ -0,0 +1,120 @@
+package by.afinny.deposit.unit.service;
+
+import by.afinny.deposit.config.metrics.ServiceMetricsAspect;
+import by.afinny.deposit.exception.EntityNotFoundException;
+import by.afinny.deposit.mapper.ProductMapper;
+import by.afinny.deposit.repository.ProductRepository;
+import by.afinny.deposit.service.ProductService;
+import by.afinny.deposit.service.impl.ProductServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_METHOD;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@TestInstance(PER_METHOD)
+class ServiceMetricsAspectTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductMapper productMapper;
+
+    private MeterRegistry meterRegistry;
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new ProductServiceImpl(productRepository, productMapper));
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        productService = proxyFactory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Successful operations should be timed by class and method")
+    void timeOperation_ifSucceeded_thenRecordSuccess() {
+        //ARRANGE
+        when(productRepository.findNextActiveSinceAfter(any(Instant.class))).thenReturn(Optional.empty());
+        when(productRepository.findNextActiveUntilAfter(any(Instant.class))).thenReturn(Optional.empty());
+
+        //ACT
+        productService.getNextActivityBoundary();
+        productService.getNextActivityBoundary();
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(meterRegistry.get(ServiceMetricsAspect.OPERATION_METRIC)
+                            .tag("class", "ProductServiceImpl")
+                            .tag("method", "getNextActivityBoundary")
+                            .tag("outcome", ServiceMetricsAspect.SUCCESS)
+                            .tag("exception", "none")
+                            .timer().count())
+                    .isEqualTo(2);
+            softAssertions.assertThat(meterRegistry.find(ServiceMetricsAspect.BUSINESS_FAILURES_METRIC).counter())
+                    .isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Business failures should be timed with their outcome and counted by exception")
+    void timeOperation_ifBusinessFailure_thenCountFailure() {
+        //ARRANGE
+        when(productRepository.findActiveAt(any(Instant.class))).thenThrow(new EntityNotFoundException("not found"));
+
+        //ACT
+        assertThatThrownBy(productService::getActiveDepositProducts).isInstanceOf(EntityNotFoundException.class);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(meterRegistry.get(ServiceMetricsAspect.OPERATION_METRIC)
+                            .tag("method", "getActiveDepositProducts")
+                            .tag("outcome", ServiceMetricsAspect.BUSINESS_FAILURE)
+                            .tag("exception", "EntityNotFoundException")
+                            .timer().count())
+                    .isEqualTo(1);
+            softAssertions.assertThat(meterRegistry.get(ServiceMetricsAspect.BUSINESS_FAILURES_METRIC)
+                            .tag("method", "getActiveDepositProducts")
+                            .tag("exception", "EntityNotFoundException")
+                            .counter().count())
+                    .isEqualTo(1.0);
+        });
+    }
+
+    @Test
+    @DisplayName("Unexpected exceptions should be timed as errors, not counted as business failures")
+    void timeOperation_ifUnexpectedException_thenRecordError() {
+        //ARRANGE
+        when(productRepository.findActiveAt(any(Instant.class))).thenThrow(new IllegalStateException("broken"));
+
+        //ACT
+        assertThatThrownBy(productService::refreshActiveDepositProducts).isInstanceOf(IllegalStateException.class);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(meterRegistry.get(ServiceMetricsAspect.OPERATION_METRIC)
+                            .tag("method", "refreshActiveDepositProducts")
+                            .tag("outcome", ServiceMetricsAspect.ERROR)
+                            .tag("exception", "IllegalStateException")
+                            .timer().count())
+                    .isEqualTo(1);
+            softAssertions.assertThat(meterRegistry.find(ServiceMetricsAspect.BUSINESS_FAILURES_METRIC).counter())
+                    .isNull();
+        });
+    }
+}
@@ -0,0 +1,148 @@
+package by.afinny.deposit.unit.tracing;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import brave.sampler.Sampler;
+import by.afinny.deposit.config.tracing.TailSamplingSpanHandler;
+import by.afinny.deposit.config.tracing.TracingSamplingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class TailSamplingSpanHandlerTest {
+
+    private static final long START = 1_000_000L;
+
+    private MeterRegistry meterRegistry;
+    private List<String> reported;
+    private TailSamplingSpanHandler handler;
+    private Tracing tracing;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reported = new CopyOnWriteArrayList<>();
+        TracingSamplingProperties.Tail tail = new TracingSamplingProperties.Tail();
+        tail.setSlowThreshold(Duration.ofMillis(500));
+        handler = new TailSamplingSpanHandler(List.of(new SpanHandler() {
+            @Override
+            public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+                reported.add(span.name());
+                return true;
+            }
+        }), tail, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracing.close();
+    }
+
+    @Test
+    @DisplayName("A failed trace that was not sampled should be reported with its children")
+    void end_ifLocalRootFailed_thenReportTrace() {
+        //ARRANGE
+        Tracer tracer = tracer(Sampler.NEVER_SAMPLE);
+        Span root = tracer.newTrace().name("get /auth/deposits").start(START);
+        tracer.newChild(root.context()).name("select agreement").start(START).finish(START + 1000);
+
+        //ACT
+        root.error(new IllegalStateException()).finish(START + 2000);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(reported)
+                    .containsExactly("select agreement", "get /auth/deposits");
+            softAssertions.assertThat(meterRegistry.get(TailSamplingSpanHandler.DECISIONS_METRIC)
+                            .tag("decision", TailSamplingSpanHandler.ERROR).counter().count())
+                    .isEqualTo(1.0);
+        });
+    }
+
+    @Test
+    @DisplayName("A slow trace that was not sampled should be reported")
+    void end_ifLocalRootSlow_thenReportTrace() {
+        //ARRANGE
+        Tracer tracer = tracer(Sampler.NEVER_SAMPLE);
+        Span root = tracer.newTrace().name("get /auth/deposit-cards").start(START);
+
+        //ACT
+        root.finish(START + 600_000);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(reported)
+                    .containsExactly("get /auth/deposit-cards");
+            softAssertions.assertThat(meterRegistry.get(TailSamplingSpanHandler.DECISIONS_METRIC)
+                            .tag("decision", TailSamplingSpanHandler.SLOW).counter().count())
+                    .isEqualTo(1.0);
+        });
+    }
+
+    @Test
+    @DisplayName("A fast successful trace that was not sampled should be dropped with its children")
+    void end_ifLocalRootFastAndSuccessful_thenDropTrace() {
+        //ARRANGE
+        Tracer tracer = tracer(Sampler.NEVER_SAMPLE);
+        Span root = tracer.newTrace().name("get /auth/deposits").start(START);
+        tracer.newChild(root.context()).name("select agreement").start(START).finish(START + 1000);
+
+        //ACT
+        root.finish(START + 2000);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(reported)
+                    .isEmpty();
+            softAssertions.assertThat(meterRegistry.get(TailSamplingSpanHandler.DECISIONS_METRIC)
+                            .tag("decision", TailSamplingSpanHandler.DROPPED).counter().count())
+                    .isEqualTo(1.0);
+            softAssertions.assertThat(meterRegistry.get(TailSamplingSpanHandler.BUFFERED_TRACES_METRIC)
+                            .gauge().value())
+                    .isZero();
+        });
+    }
+
+    @Test
+    @DisplayName("Sampled traces should be left to the regular reporting")
+    void end_ifTraceSampled_thenPassThrough() {
+        //ARRANGE
+        Tracer tracer = tracer(Sampler.ALWAYS_SAMPLE);
+        Span root = tracer.newTrace().name("get /auth/deposits").start(START);
+
+        //ACT
+        root.error(new IllegalStateException()).finish(START + 600_000);
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(reported)
+                    .isEmpty();
+            softAssertions.assertThat(meterRegistry.find(TailSamplingSpanHandler.DECISIONS_METRIC).counter())
+                    .isNull();
+        });
+    }
+
+    private Tracer tracer(Sampler sampler) {
+        tracing = Tracing.newBuilder()
+                .sampler(sampler)
+                .alwaysSampleLocal()
+                .addSpanHandler(handler)
+                .build();
+        return tracing.tracer();
+    }
+}
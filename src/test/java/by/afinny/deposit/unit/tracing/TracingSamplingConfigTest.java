@@ -0,0 +1,91 @@
+package by.afinny.deposit.unit.tracing;
+
+import brave.http.HttpRequest;
+import brave.sampler.Sampler;
+import brave.sampler.SamplerFunction;
+import by.afinny.deposit.config.tracing.MeteredSampler;
+import by.afinny.deposit.config.tracing.TracingSamplingConfig;
+import by.afinny.deposit.config.tracing.TracingSamplingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.List;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@TestInstance(TestInstance.Lifecycle.PER_METHOD)
+class TracingSamplingConfigTest {
+
+    private MeterRegistry meterRegistry;
+    private TracingSamplingProperties properties;
+    private TracingSamplingConfig tracingSamplingConfig;
+
+    @BeforeEach
+    void setUp() {
+        TracingSamplingProperties.Endpoint depositProducts = new TracingSamplingProperties.Endpoint();
+        depositProducts.setPath("/auth/deposit-products");
+        depositProducts.setTracesPerSecond(0);
+        properties = new TracingSamplingProperties();
+        properties.setTracesPerSecond(2);
+        properties.setEndpoints(List.of(depositProducts));
+        meterRegistry = new SimpleMeterRegistry();
+        tracingSamplingConfig = new TracingSamplingConfig();
+    }
+
+    @Test
+    @DisplayName("New traces should be rate limited and every decision counted")
+    void sampler_shouldRateLimitAndCountDecisions() {
+        //ARRANGE
+        Sampler sampler = tracingSamplingConfig.sampler(properties, meterRegistry);
+
+        //ACT
+        for (long traceId = 1; traceId <= 5; traceId++) {
+            sampler.isSampled(traceId);
+        }
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(meterRegistry.get(MeteredSampler.DECISIONS_METRIC)
+                            .tags("rule", "default", "decision", "sampled").counter().count())
+                    .isEqualTo(2.0);
+            softAssertions.assertThat(meterRegistry.get(MeteredSampler.DECISIONS_METRIC)
+                            .tags("rule", "default", "decision", "not_sampled").counter().count())
+                    .isEqualTo(3.0);
+        });
+    }
+
+    @Test
+    @DisplayName("Endpoint rules should override the default rate, other endpoints should defer to it")
+    void httpServerSampler_shouldApplyEndpointRules() {
+        //ARRANGE
+        SamplerFunction<HttpRequest> httpServerSampler = tracingSamplingConfig.httpServerSampler(properties, meterRegistry);
+
+        //ACT
+        Boolean depositProducts = httpServerSampler.trySample(request("/auth/deposit-products"));
+        Boolean deposits = httpServerSampler.trySample(request("/auth/deposits"));
+
+        //VERIFY
+        assertSoftly(softAssertions -> {
+            softAssertions.assertThat(depositProducts)
+                    .isFalse();
+            softAssertions.assertThat(deposits)
+                    .isNull();
+            softAssertions.assertThat(meterRegistry.get(MeteredSampler.DECISIONS_METRIC)
+                            .tags("rule", "/auth/deposit-products", "decision", "not_sampled").counter().count())
+                    .isEqualTo(1.0);
+        });
+    }
+
+    private HttpRequest request(String path) {
+        HttpRequest request = mock(HttpRequest.class);
+        when(request.method()).thenReturn("GET");
+        when(request.path()).thenReturn(path);
+        return request;
+    }
+}
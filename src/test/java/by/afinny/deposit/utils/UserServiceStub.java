@@ -0,0 +1,134 @@
+package by.afinny.deposit.utils;
+
+import by.afinny.deposit.openfeign.userservice.UserClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.Request;
+import feign.Retryer;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in of USER-SERVICE for offline tests, in the manner of a WireMock server: responses are stubbed by
+ * phone, unstubbed phones are answered with 404. {@link #createClient(Duration)} builds a real {@link UserClient}
+ * against it, with the same contract and decoder as the Spring Cloud one.
+ */
+public class UserServiceStub implements AutoCloseable {
+
+    private static final String PATH = "/client";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, StubResponse> responses = new ConcurrentHashMap<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpServer server;
+    private final CountDownLatch requestReceived = new CountDownLatch(1);
+    private volatile Duration delay = Duration.ZERO;
+
+    public UserServiceStub() {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public void stubClient(String mobilePhone, Object client) {
+        try {
+            responses.put(mobilePhone, new StubResponse(200, objectMapper.writeValueAsString(client)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void stubStatus(String mobilePhone, int status) {
+        responses.put(mobilePhone, new StubResponse(status, "{}"));
+    }
+
+    public void setDelay(Duration delay) {
+        this.delay = delay;
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    public boolean awaitRequest(Duration timeout) throws InterruptedException {
+        return requestReceived.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public UserClient createClient(Duration readTimeout) {
+        return Feign.builder()
+                .contract(new SpringMvcContract())
+                .decoder(new ResponseEntityDecoder(new SpringDecoder(
+                        () -> new HttpMessageConverters(new MappingJackson2HttpMessageConverter()))))
+                .options(new Request.Options(readTimeout.toMillis(), TimeUnit.MILLISECONDS,
+                        readTimeout.toMillis(), TimeUnit.MILLISECONDS, true))
+                .retryer(Retryer.NEVER_RETRY)
+                .target(UserClient.class, getBaseUrl() + PATH);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        requestReceived.countDown();
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        String query = exchange.getRequestURI().getQuery();
+        String mobilePhone = query == null ? "" : query.substring(query.indexOf('=') + 1);
+        StubResponse response = responses.getOrDefault(mobilePhone, new StubResponse(404, "{}"));
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private static final class StubResponse {
+
+        private final int status;
+        private final String body;
+
+        private StubResponse(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
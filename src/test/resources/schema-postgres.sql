@@ -73,14 +73,19 @@ VALUES ('OTHER_EXPENDITURE', false);
 
 CREATE TABLE IF NOT EXISTS operation
 (
-    id                UUID                        PRIMARY KEY,
+    id                UUID                        NOT NULL,
     account_id        UUID                        NOT NULL REFERENCES account (id),
     completed_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     sum               NUMERIC(19, 4)              NOT NULL,
     details           TEXT,
     currency_code     CHAR(3)                     NOT NULL,
-    operation_type_id INTEGER                     REFERENCES operation_type (id)
-);
+    operation_type_id INTEGER                     REFERENCES operation_type (id),
+    PRIMARY KEY (id, completed_at)
+) PARTITION BY RANGE (completed_at);
+
+CREATE TABLE IF NOT EXISTS operation_default PARTITION OF operation DEFAULT;
+
+CREATE SCHEMA IF NOT EXISTS operation_archive;
 
 CREATE TABLE IF NOT EXISTS card_product
 (
@@ -114,3 +119,32 @@ CREATE TABLE IF NOT EXISTS card
     CONSTRAINT transaction_limit_check CHECK ( transaction_limit >= 0 ),
     CONSTRAINT expiration_date_check   CHECK ( now() < expiration_date )
 );
+
+CREATE UNIQUE INDEX IF NOT EXISTS card_card_number_uindex ON card (card_number);
+CREATE INDEX IF NOT EXISTS card_account_id_index ON card (account_id);
+CREATE UNIQUE INDEX IF NOT EXISTS account_account_number_uindex ON account (account_number);
+CREATE INDEX IF NOT EXISTS account_client_id_active_index ON account (client_id) WHERE is_active;
+CREATE INDEX IF NOT EXISTS account_client_id_currency_code_index ON account (client_id, currency_code);
+CREATE INDEX IF NOT EXISTS agreement_account_id_index ON agreement (account_id);
+CREATE INDEX IF NOT EXISTS card_account_id_default_index ON card (account_id) WHERE is_default;
+CREATE INDEX IF NOT EXISTS operation_account_id_completed_at_id_index ON operation (account_id, completed_at DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS outbox_event
+(
+    id            BIGSERIAL        PRIMARY KEY,
+    aggregate_key VARCHAR(64),
+    topic         VARCHAR(255)     NOT NULL,
+    payload_type  VARCHAR(255)     NOT NULL,
+    payload       TEXT             NOT NULL,
+    created_at    TIMESTAMP        NOT NULL DEFAULT now(),
+    failed_at     TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS processed_message
+(
+    message_key   VARCHAR(255)     PRIMARY KEY,
+    processed_at  TIMESTAMP        NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS processed_message_processed_at_index
+    ON processed_message (processed_at);
@@ -4,4 +4,5 @@ TRUNCATE TABLE agreement CASCADE;
 -- TRUNCATE TABLE operation_type CASCADE;
 TRUNCATE TABLE operation CASCADE;
 TRUNCATE TABLE card_product CASCADE;
-TRUNCATE TABLE card CASCADE;
\ No newline at end of file
+TRUNCATE TABLE card CASCADE;
+TRUNCATE TABLE outbox_event;
\ No newline at end of file